@@ -16,10 +16,13 @@
 
 package bio.overture.ego;
 
+import bio.overture.ego.repository.CursorPagingRepository;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
 @SpringBootApplication
+@EnableJpaRepositories(repositoryBaseClass = CursorPagingRepository.class)
 public class AuthorizationServiceMain {
 
   public static void main(String[] args) {
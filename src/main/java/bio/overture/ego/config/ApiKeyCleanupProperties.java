@@ -0,0 +1,24 @@
+package bio.overture.ego.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "apikey.cleanup")
+public class ApiKeyCleanupProperties {
+
+  /** When false, api keys are cleaned up inline in the requesting thread */
+  private boolean async = true;
+
+  /** Delay before a woken worker drains the queue, so bursts of requests coalesce */
+  private long coalesceWindowMs = 1_000;
+
+  private int threads = 4;
+  private int batchSize = 200;
+  private long pollIntervalMs = 10_000;
+  private long leaseSeconds = 300;
+  private long retryBackoffSeconds = 30;
+  private int maxAttempts = 5;
+}
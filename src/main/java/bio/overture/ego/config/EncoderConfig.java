@@ -1,15 +1,38 @@
 package bio.overture.ego.config;
 
+import bio.overture.ego.security.MatchCachingPasswordEncoder;
+import java.util.Map;
+import lombok.val;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Configuration
 public class EncoderConfig {
 
+  /** Constants */
+  public static final String CLIENT_SECRET_ENCODING_ID = "client-secret";
+
+  private static final String BCRYPT_ENCODING_ID = "bcrypt";
+
+  /**
+   * BCrypt, except for the hashes tagged with the client-secret id. Only the RegisteredClients
+   * carry those, so the match cache serves client secret verification and nothing else.
+   */
   @Bean
   public PasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
+    val bcrypt = new BCryptPasswordEncoder();
+    val encoder =
+        new DelegatingPasswordEncoder(
+            BCRYPT_ENCODING_ID,
+            Map.of(
+                BCRYPT_ENCODING_ID,
+                bcrypt,
+                CLIENT_SECRET_ENCODING_ID,
+                new MatchCachingPasswordEncoder(bcrypt)));
+    encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+    return encoder;
   }
 }
@@ -0,0 +1,17 @@
+package bio.overture.ego.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "search.index")
+public class SearchIndexProperties {
+
+  /** When false, no index is built and suggestions are searched in the database */
+  private boolean enabled = true;
+
+  /** Documents a single index may hold before it is dropped, which bounds its memory */
+  private int maxDocuments = 500_000;
+}
@@ -16,11 +16,22 @@
 
 package bio.overture.ego.config;
 
+import static bio.overture.ego.model.enums.Fields.CREATEDAT;
+import static bio.overture.ego.model.enums.Fields.EMAIL;
+import static bio.overture.ego.model.enums.Fields.ID;
+import static bio.overture.ego.model.enums.Fields.NAME;
+import static bio.overture.ego.model.enums.Fields.PROVIDERTYPE;
+import static bio.overture.ego.model.enums.Fields.STATUS;
+import static bio.overture.ego.model.enums.Fields.TYPE;
+import static bio.overture.ego.model.search.FilterType.DATE_RANGE;
+import static bio.overture.ego.model.search.FilterType.EXACT;
+import static bio.overture.ego.model.search.FilterType.TEXT;
+
 import bio.overture.ego.controller.resolver.FilterResolver;
 import bio.overture.ego.controller.resolver.PageableResolver;
-import bio.overture.ego.model.enums.Fields;
-import bio.overture.ego.utils.FieldUtils;
+import bio.overture.ego.model.search.FilterType;
 import java.util.List;
+import java.util.Map;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
@@ -29,14 +40,22 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter
 @Configuration
 public class WebRequestConfig extends WebMvcConfigurerAdapter {
 
+  /** Query parameters accepted as filters, with how each is compared */
   @Bean
-  public List<String> fieldValues() {
-    return FieldUtils.getStaticFieldValueList(Fields.class);
+  public Map<String, FilterType> filterFields() {
+    return Map.of(
+        ID, EXACT,
+        NAME, TEXT,
+        EMAIL, TEXT,
+        PROVIDERTYPE, EXACT,
+        STATUS, EXACT,
+        TYPE, EXACT,
+        CREATEDAT, DATE_RANGE);
   }
 
   @Override
   public void addArgumentResolvers(List<HandlerMethodArgumentResolver> argumentResolvers) {
     argumentResolvers.add(new PageableResolver());
-    argumentResolvers.add(new FilterResolver(fieldValues()));
+    argumentResolvers.add(new FilterResolver(filterFields()));
   }
 }
@@ -64,6 +64,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import springfox.documentation.annotations.ApiIgnore;
 
 @Slf4j
@@ -124,6 +125,24 @@ public class ApiKeyController {
     return tokenService.userScopes(userId);
   }
 
+  /**
+   * Lightweight staleness check for cached scopes. The permission version is also returned as an
+   * ETag, so HEAD requests and conditional GETs (If-None-Match) can be used to revalidate.
+   */
+  @RequestMapping(method = GET, value = "/scopes/version")
+  public ResponseEntity<PermissionVersionResponse> getUserPermissionVersion(
+      @ApiIgnore @RequestHeader(value = "Authorization", required = true)
+          final String authorization,
+      @RequestParam(value = "userId") final UUID userId,
+      @ApiIgnore WebRequest request) {
+    val version = tokenService.userPermissionVersion(userId);
+    val etag = format("\"%d\"", version);
+    if (request.checkNotModified(etag)) {
+      return null;
+    }
+    return ResponseEntity.ok().eTag(etag).body(new PermissionVersionResponse(userId, version));
+  }
+
   @RequestMapping(method = POST, value = "/api_key")
   @ResponseStatus(value = OK)
   public @ResponseBody ApiKeyResponse issueApiKey(
@@ -220,6 +239,18 @@ public class ApiKeyController {
         dataType = "string",
         paramType = "query",
         value = "Sorting order: ASC|DESC. Default order: DESC"),
+    @ApiImplicitParam(
+        name = CURSOR,
+        required = false,
+        dataType = "string",
+        paramType = "query",
+        value = "Next cursor of the previous page, replaces offset and sort"),
+    @ApiImplicitParam(
+        name = COUNT,
+        required = false,
+        dataType = "string",
+        paramType = "query",
+        value = "How the total is computed: EXACT|ESTIMATE|NONE. Default: EXACT"),
   })
   @ApiResponses(value = {@ApiResponse(code = 200, message = "Page ApiKeys for a User")})
   public @ResponseBody PageDTO<ApiKeyResponse> listApiKeys(
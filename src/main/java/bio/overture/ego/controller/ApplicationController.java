@@ -16,10 +16,13 @@
 
 package bio.overture.ego.controller;
 
+import static bio.overture.ego.controller.resolver.PageableResolver.COUNT;
+import static bio.overture.ego.controller.resolver.PageableResolver.CURSOR;
 import static bio.overture.ego.controller.resolver.PageableResolver.LIMIT;
 import static bio.overture.ego.controller.resolver.PageableResolver.OFFSET;
 import static bio.overture.ego.controller.resolver.PageableResolver.SORT;
 import static bio.overture.ego.controller.resolver.PageableResolver.SORTORDER;
+import static bio.overture.ego.service.SearchIndex.DEFAULT_LIMIT;
 import static org.apache.commons.lang.StringUtils.isEmpty;
 import static org.springframework.http.HttpStatus.OK;
 import static org.springframework.web.bind.annotation.RequestMethod.DELETE;
@@ -41,6 +44,7 @@ import com.fasterxml.jackson.annotation.JsonView;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiImplicitParam;
 import io.swagger.annotations.ApiImplicitParams;
+import io.swagger.annotations.ApiParam;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 import java.util.Collection;
@@ -106,10 +110,22 @@ public class ApplicationController {
         dataType = "string",
         paramType = "query",
         value = "Sorting order: ASC|DESC. Default order: DESC"),
+    @ApiImplicitParam(
+        name = CURSOR,
+        required = false,
+        dataType = "string",
+        paramType = "query",
+        value = "Next cursor of the previous page, replaces offset and sort"),
+    @ApiImplicitParam(
+        name = COUNT,
+        required = false,
+        dataType = "string",
+        paramType = "query",
+        value = "How the total is computed: EXACT|ESTIMATE|NONE. Default: EXACT"),
   })
   @ApiResponses(value = {@ApiResponse(code = 200, message = "Page Applications")})
   @JsonView(Views.REST.class)
-  public @ResponseBody PageDTO<Application> listApplications(
+  public @ResponseBody PageDTO<ApplicationSummary> listApplications(
       @ApiIgnore @RequestHeader(value = "Authorization", required = true)
           final String authorization,
       @RequestParam(value = "query", required = false) String query,
@@ -122,6 +138,30 @@ public class ApplicationController {
     }
   }
 
+  @AdminScoped
+  @RequestMapping(method = GET, value = "/suggest")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            code = 200,
+            message =
+                "Applications matching the query, best matches first, as indexed by this instance",
+            response = ApplicationSummary.class,
+            responseContainer = "List")
+      })
+  @JsonView(Views.REST.class)
+  public @ResponseBody List<ApplicationSummary> suggestApplications(
+      @ApiIgnore @RequestHeader(value = "Authorization", required = true)
+          final String authorization,
+      @ApiParam(value = "Text found anywhere in the name", required = true)
+          @RequestParam(value = "query")
+          String query,
+      @ApiParam(value = "Maximum number of applications to return")
+          @RequestParam(value = "limit", required = false, defaultValue = "" + DEFAULT_LIMIT)
+          int limit) {
+    return applicationService.suggestApps(query, limit);
+  }
+
   @AdminScoped
   @RequestMapping(method = POST, value = "")
   @ApiResponses(
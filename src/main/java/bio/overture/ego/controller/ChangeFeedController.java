@@ -0,0 +1,105 @@
+package bio.overture.ego.controller;
+
+import static bio.overture.ego.service.ChangeFeedService.DEFAULT_LIMIT;
+import static java.util.Objects.isNull;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
+import static org.springframework.web.bind.annotation.RequestMethod.GET;
+
+import bio.overture.ego.model.dto.ChangeEventResponse;
+import bio.overture.ego.security.AdminScoped;
+import bio.overture.ego.service.ChangeFeedService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiParam;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Objects;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import springfox.documentation.annotations.ApiIgnore;
+
+@Slf4j
+@RestController
+@RequestMapping("/changes")
+@Api(tags = "Changes")
+public class ChangeFeedController {
+
+  /** Constants */
+  public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+  private static final byte[] NEWLINE = {'\n'};
+
+  /** Events read from the database per write to the response */
+  private static final int WRITE_PAGE_SIZE = 500;
+
+  /** Dependencies */
+  private final ChangeFeedService changeFeedService;
+
+  private final ObjectMapper objectMapper;
+
+  @Autowired
+  public ChangeFeedController(
+      @NonNull ChangeFeedService changeFeedService, @NonNull ObjectMapper objectMapper) {
+    this.changeFeedService = changeFeedService;
+    this.objectMapper = objectMapper;
+  }
+
+  /**
+   * Streams the committed changes following the cursor as newline delimited json. The cursor of
+   * the last event, also returned in the X-Next-Cursor header, resumes the feed after this page.
+   * Only that cursor is read up front, the events are then read and written a page at a time.
+   */
+  @AdminScoped
+  @RequestMapping(method = GET, value = "", produces = APPLICATION_NDJSON_VALUE)
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            code = 200,
+            message = "Changes following the cursor, one json object per line",
+            response = ChangeEventResponse.class,
+            responseContainer = "List")
+      })
+  public ResponseEntity<StreamingResponseBody> getChanges(
+      @ApiIgnore @RequestHeader(value = "Authorization", required = true)
+          final String authorization,
+      @ApiParam(value = "Cursor of the last event already consumed; omit to read from the start")
+          @RequestParam(value = "cursor", required = false)
+          String cursor,
+      @RequestParam(value = "limit", required = false, defaultValue = "" + DEFAULT_LIMIT)
+          int limit) {
+    val nextCursor = changeFeedService.readNextCursor(cursor, limit);
+    val response = ResponseEntity.ok().contentType(APPLICATION_NDJSON);
+    if (!isNull(nextCursor)) {
+      response.header(NEXT_CURSOR_HEADER, nextCursor);
+    }
+    StreamingResponseBody body = out -> writeChanges(cursor, nextCursor, out);
+    return response.body(body);
+  }
+
+  private void writeChanges(String cursor, String endCursor, OutputStream out) throws IOException {
+    String position = cursor;
+    while (!Objects.equals(position, endCursor)) {
+      val changes = changeFeedService.readChanges(position, endCursor, WRITE_PAGE_SIZE);
+      if (changes.isEmpty()) {
+        return;
+      }
+      for (val change : changes) {
+        out.write(objectMapper.writeValueAsBytes(change));
+        out.write(NEWLINE);
+      }
+      out.flush();
+      position = changes.get(changes.size() - 1).getCursor();
+    }
+  }
+}
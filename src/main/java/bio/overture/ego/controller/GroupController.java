@@ -16,10 +16,13 @@
 
 package bio.overture.ego.controller;
 
+import static bio.overture.ego.controller.resolver.PageableResolver.COUNT;
+import static bio.overture.ego.controller.resolver.PageableResolver.CURSOR;
 import static bio.overture.ego.controller.resolver.PageableResolver.LIMIT;
 import static bio.overture.ego.controller.resolver.PageableResolver.OFFSET;
 import static bio.overture.ego.controller.resolver.PageableResolver.SORT;
 import static bio.overture.ego.controller.resolver.PageableResolver.SORTORDER;
+import static bio.overture.ego.service.SearchIndex.DEFAULT_LIMIT;
 import static org.springframework.http.HttpStatus.OK;
 import static org.springframework.util.StringUtils.isEmpty;
 import static org.springframework.web.bind.annotation.RequestMethod.DELETE;
@@ -27,6 +30,7 @@ import static org.springframework.web.bind.annotation.RequestMethod.GET;
 import static org.springframework.web.bind.annotation.RequestMethod.POST;
 
 import bio.overture.ego.model.dto.GroupRequest;
+import bio.overture.ego.model.dto.GroupSummary;
 import bio.overture.ego.model.dto.PageDTO;
 import bio.overture.ego.model.dto.PermissionRequest;
 import bio.overture.ego.model.entity.Application;
@@ -46,6 +50,7 @@ import com.fasterxml.jackson.annotation.JsonView;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiImplicitParam;
 import io.swagger.annotations.ApiImplicitParams;
+import io.swagger.annotations.ApiParam;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 import java.util.List;
@@ -120,10 +125,22 @@ public class GroupController {
         dataType = "string",
         paramType = "query",
         value = "Sorting order: ASC|DESC. Default order: DESC"),
+    @ApiImplicitParam(
+        name = CURSOR,
+        required = false,
+        dataType = "string",
+        paramType = "query",
+        value = "Next cursor of the previous page, replaces offset and sort"),
+    @ApiImplicitParam(
+        name = COUNT,
+        required = false,
+        dataType = "string",
+        paramType = "query",
+        value = "How the total is computed: EXACT|ESTIMATE|NONE. Default: EXACT"),
   })
   @ApiResponses(value = {@ApiResponse(code = 200, message = "Page Groups")})
   @JsonView(Views.REST.class)
-  public @ResponseBody PageDTO<Group> listGroups(
+  public @ResponseBody PageDTO<GroupSummary> listGroups(
       @ApiIgnore @RequestHeader(value = "Authorization", required = true)
           final String authorization,
       @RequestParam(value = "query", required = false) String query,
@@ -136,6 +153,29 @@ public class GroupController {
     }
   }
 
+  @AdminScoped
+  @RequestMapping(method = GET, value = "/suggest")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            code = 200,
+            message = "Groups matching the query, best matches first, as indexed by this instance",
+            response = GroupSummary.class,
+            responseContainer = "List")
+      })
+  @JsonView(Views.REST.class)
+  public @ResponseBody List<GroupSummary> suggestGroups(
+      @ApiIgnore @RequestHeader(value = "Authorization", required = true)
+          final String authorization,
+      @ApiParam(value = "Text found anywhere in the name", required = true)
+          @RequestParam(value = "query")
+          String query,
+      @ApiParam(value = "Maximum number of groups to return")
+          @RequestParam(value = "limit", required = false, defaultValue = "" + DEFAULT_LIMIT)
+          int limit) {
+    return groupService.suggestGroups(query, limit);
+  }
+
   @AdminScoped
   @RequestMapping(method = POST, value = "")
   @ApiResponses(
@@ -194,7 +234,7 @@ public class GroupController {
         required = true,
         dataType = "string",
         paramType = "path",
-        value = "Search for ids containing this text"),
+        value = "Filter by id, several may be separated by commas"),
     @ApiImplicitParam(
         name = LIMIT,
         required = false,
@@ -268,7 +308,7 @@ public class GroupController {
         required = true,
         dataType = "string",
         paramType = "path",
-        value = "Search for ids containing this text"),
+        value = "Filter by id, several may be separated by commas"),
     @ApiImplicitParam(
         name = LIMIT,
         required = false,
@@ -346,7 +386,7 @@ public class GroupController {
         required = true,
         dataType = "string",
         paramType = "path",
-        value = "Search for ids containing this text"),
+        value = "Filter by id, several may be separated by commas"),
     @ApiImplicitParam(
         name = LIMIT,
         required = false,
@@ -1,5 +1,7 @@
 package bio.overture.ego.controller;
 
+import static bio.overture.ego.controller.resolver.PageableResolver.COUNT;
+import static bio.overture.ego.controller.resolver.PageableResolver.CURSOR;
 import static bio.overture.ego.controller.resolver.PageableResolver.LIMIT;
 import static bio.overture.ego.controller.resolver.PageableResolver.OFFSET;
 import static bio.overture.ego.controller.resolver.PageableResolver.SORT;
@@ -16,6 +18,7 @@ import bio.overture.ego.model.entity.Application;
 import bio.overture.ego.model.entity.Group;
 import bio.overture.ego.model.entity.Policy;
 import bio.overture.ego.model.entity.User;
+import bio.overture.ego.model.enums.AccessLevel;
 import bio.overture.ego.model.enums.Fields;
 import bio.overture.ego.model.search.Filters;
 import bio.overture.ego.model.search.SearchFilter;
@@ -85,7 +88,7 @@ public class PolicyController {
         required = false,
         dataType = "string",
         paramType = "query",
-        value = "Search for ids containing this text"),
+        value = "Filter by id, several may be separated by commas"),
     @ApiImplicitParam(
         name = Fields.NAME,
         required = false,
@@ -116,6 +119,18 @@ public class PolicyController {
         dataType = "string",
         paramType = "query",
         value = "Sorting order: ASC|DESC. Default order: DESC"),
+    @ApiImplicitParam(
+        name = CURSOR,
+        required = false,
+        dataType = "string",
+        paramType = "query",
+        value = "Next cursor of the previous page, replaces offset and sort"),
+    @ApiImplicitParam(
+        name = COUNT,
+        required = false,
+        dataType = "string",
+        paramType = "query",
+        value = "How the total is computed: EXACT|ESTIMATE|NONE. Default: EXACT"),
   })
   @ApiResponses(value = {@ApiResponse(code = 200, message = "Page Policies")})
   @JsonView(Views.REST.class)
@@ -228,6 +243,82 @@ public class PolicyController {
     return createGenericResponse("Deleted permission for user '%s' on policy '%s'.", userId, id);
   }
 
+  @AdminScoped
+  @RequestMapping(method = POST, value = "/{id}/permission/group")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            code = 200,
+            message = "Add or update the permissions of many groups",
+            response = GenericResponse.class)
+      })
+  public @ResponseBody GenericResponse createGroupPermissions(
+      @ApiIgnore @RequestHeader(value = "Authorization", required = true)
+          final String authorization,
+      @PathVariable(value = "id", required = true) UUID id,
+      @RequestBody(required = true) List<OwnerPermissionRequest> requests) {
+    val groupIds = groupPermissionService.addPolicyPermissions(id, requests);
+    return createGenericResponse(
+        "Created or updated permissions for %s groups on policy '%s'.", groupIds.size(), id);
+  }
+
+  @AdminScoped
+  @RequestMapping(method = POST, value = "/{id}/permission/group/mass_delete")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            code = 200,
+            message = "Delete the permissions of many groups",
+            response = GenericResponse.class)
+      })
+  public @ResponseBody GenericResponse deleteGroupPermissions(
+      @ApiIgnore @RequestHeader(value = "Authorization", required = true)
+          final String authorization,
+      @PathVariable(value = "id", required = true) UUID id,
+      @RequestBody(required = true) List<UUID> groupIds) {
+    val deletedGroupIds = groupPermissionService.deletePolicyPermissions(id, groupIds);
+    return createGenericResponse(
+        "Deleted permissions for %s groups on policy '%s'.", deletedGroupIds.size(), id);
+  }
+
+  @AdminScoped
+  @RequestMapping(method = POST, value = "/{id}/permission/user")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            code = 200,
+            message = "Add or update the permissions of many users",
+            response = GenericResponse.class)
+      })
+  public @ResponseBody GenericResponse createUserPermissions(
+      @ApiIgnore @RequestHeader(value = "Authorization", required = true)
+          final String authorization,
+      @PathVariable(value = "id", required = true) UUID id,
+      @RequestBody(required = true) List<OwnerPermissionRequest> requests) {
+    val userIds = userPermissionService.addPolicyPermissions(id, requests);
+    return createGenericResponse(
+        "Created or updated permissions for %s users on policy '%s'.", userIds.size(), id);
+  }
+
+  @AdminScoped
+  @RequestMapping(method = POST, value = "/{id}/permission/user/mass_delete")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            code = 200,
+            message = "Delete the permissions of many users",
+            response = GenericResponse.class)
+      })
+  public @ResponseBody GenericResponse deleteUserPermissions(
+      @ApiIgnore @RequestHeader(value = "Authorization", required = true)
+          final String authorization,
+      @PathVariable(value = "id", required = true) UUID id,
+      @RequestBody(required = true) List<UUID> userIds) {
+    val deletedUserIds = userPermissionService.deletePolicyPermissions(id, userIds);
+    return createGenericResponse(
+        "Deleted permissions for %s users on policy '%s'.", deletedUserIds.size(), id);
+  }
+
   @AdminScoped
   @RequestMapping(method = POST, value = "/{id}/permission/application/{application_id}")
   @ApiResponses(
@@ -434,4 +525,78 @@ public class PolicyController {
               id, filters, query, decoratedPageable));
     }
   }
+
+  @AdminScoped
+  @RequestMapping(method = GET, value = "/{id}/effective-users")
+  @ApiImplicitParams({
+    @ApiImplicitParam(
+        name = LIMIT,
+        required = false,
+        dataType = "string",
+        paramType = "query",
+        value = "Number of results to retrieve"),
+    @ApiImplicitParam(
+        name = OFFSET,
+        required = false,
+        dataType = "string",
+        paramType = "query",
+        value = "Index of first result to retrieve")
+  })
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            code = 200,
+            message =
+                "Get list of users with access to the given policy, directly or through groups, "
+                    + "with their resolved access level",
+            response = PolicyResponse.class)
+      })
+  public @ResponseBody PageDTO<PolicyResponse> findEffectiveUsers(
+      @ApiIgnore @RequestHeader(value = "Authorization", required = true)
+          final String authorization,
+      @PathVariable(value = "id", required = true) UUID id,
+      @ApiParam(value = "Only return users with this resolved access level.", required = false)
+          @RequestParam(value = "mask", required = false)
+          AccessLevel mask,
+      @ApiIgnore Pageable pageable) {
+    return new PageDTO<>(policyService.listEffectiveUserPermissions(id, mask, pageable));
+  }
+
+  @AdminScoped
+  @RequestMapping(method = GET, value = "/{id}/effective-applications")
+  @ApiImplicitParams({
+    @ApiImplicitParam(
+        name = LIMIT,
+        required = false,
+        dataType = "string",
+        paramType = "query",
+        value = "Number of results to retrieve"),
+    @ApiImplicitParam(
+        name = OFFSET,
+        required = false,
+        dataType = "string",
+        paramType = "query",
+        value = "Index of first result to retrieve")
+  })
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            code = 200,
+            message =
+                "Get list of applications with access to the given policy, directly or through "
+                    + "groups, with their resolved access level",
+            response = PolicyResponse.class)
+      })
+  public @ResponseBody PageDTO<PolicyResponse> findEffectiveApplications(
+      @ApiIgnore @RequestHeader(value = "Authorization", required = true)
+          final String authorization,
+      @PathVariable(value = "id", required = true) UUID id,
+      @ApiParam(
+              value = "Only return applications with this resolved access level.",
+              required = false)
+          @RequestParam(value = "mask", required = false)
+          AccessLevel mask,
+      @ApiIgnore Pageable pageable) {
+    return new PageDTO<>(policyService.listEffectiveApplicationPermissions(id, mask, pageable));
+  }
 }
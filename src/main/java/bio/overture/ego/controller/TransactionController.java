@@ -16,27 +16,19 @@
 
 package bio.overture.ego.controller;
 
-import static bio.overture.ego.utils.CollectionUtils.mapToList;
 import static java.lang.String.format;
 import static org.springframework.http.HttpStatus.*;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.web.bind.annotation.RequestMethod.*;
 
 import bio.overture.ego.model.dto.*;
-import bio.overture.ego.model.entity.Group;
-import bio.overture.ego.model.entity.GroupPermission;
-import bio.overture.ego.model.entity.Policy;
-import bio.overture.ego.model.enums.AccessLevel;
 import bio.overture.ego.model.exceptions.InvalidRequestException;
 import bio.overture.ego.security.ApplicationScoped;
 import bio.overture.ego.service.GroupPermissionService;
 import bio.overture.ego.service.GroupService;
 import bio.overture.ego.service.PolicyService;
-import com.google.common.collect.ImmutableList;
 import io.swagger.annotations.Api;
 import java.util.List;
-import java.util.Optional;
-import java.util.UUID;
 import javax.servlet.http.HttpServletRequest;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
@@ -81,47 +73,7 @@ public class TransactionController {
       @RequestHeader(value = "Authorization", required = true) final String authorization,
       @RequestBody() final List<TransactionalGroupPermissionRequest> requests) {
 
-    createPermissions(requests);
-  }
-
-  List<UUID> createPermissions(List<TransactionalGroupPermissionRequest> requests) {
-    return mapToList(requests, this::createPermission);
-  }
-
-  UUID createPermission(TransactionalGroupPermissionRequest request) {
-    val policy = policyService.getPolicyByNameCreateIfNecessary(request.getPolicyName());
-    val group = groupService.getGroupByNameCreateIfNecessary(request.getGroupName());
-    val mask = request.getMask();
-    val permission = getPermission(group, policy, mask);
-
-    if (permission.isPresent()) {
-      return permission.get().getId();
-    }
-
-    val newGroup =
-        groupPermissionService.addPermissions(
-            group.getId(), ImmutableList.of(new PermissionRequest(policy.getId(), mask)));
-
-    val newPermission = getPermission(newGroup, policy, request.getMask());
-
-    if (newPermission.isEmpty()) {
-      throw new RuntimeException(
-          format(
-              "Can't create permission for group '%s', policy'%s', mask'%s'",
-              request.getGroupName(), request.getPolicyName(), request.getMask()));
-    }
-    return newPermission.get().getId();
-  }
-
-  private Optional<GroupPermission> getPermission(Group group, Policy policy, AccessLevel mask) {
-    return group.getPermissions().stream()
-        .filter(permission -> samePermission(permission, policy.getId(), mask))
-        .findFirst();
-  }
-
-  private boolean samePermission(GroupPermission groupPermission, UUID policyId, AccessLevel mask) {
-    return groupPermission.getPolicy().getId().equals(policyId)
-        && groupPermission.getAccessLevel().equals(mask);
+    groupPermissionService.upsertPermissionsByName(requests);
   }
 
   @ApplicationScoped()
@@ -16,10 +16,13 @@
 
 package bio.overture.ego.controller;
 
+import static bio.overture.ego.controller.resolver.PageableResolver.COUNT;
+import static bio.overture.ego.controller.resolver.PageableResolver.CURSOR;
 import static bio.overture.ego.controller.resolver.PageableResolver.LIMIT;
 import static bio.overture.ego.controller.resolver.PageableResolver.OFFSET;
 import static bio.overture.ego.controller.resolver.PageableResolver.SORT;
 import static bio.overture.ego.controller.resolver.PageableResolver.SORTORDER;
+import static bio.overture.ego.service.SearchIndex.DEFAULT_LIMIT;
 import static org.springframework.util.StringUtils.isEmpty;
 
 import bio.overture.ego.model.dto.*;
@@ -89,7 +92,7 @@ public class UserController {
         required = false,
         dataType = "string",
         paramType = "query",
-        value = "Search for ids containing this text"),
+        value = "Filter by id, several may be separated by commas"),
     @ApiImplicitParam(
         name = LIMIT,
         required = false,
@@ -114,10 +117,22 @@ public class UserController {
         dataType = "string",
         paramType = "query",
         value = "Sorting order: ASC|DESC. Default order: DESC"),
+    @ApiImplicitParam(
+        name = CURSOR,
+        required = false,
+        dataType = "string",
+        paramType = "query",
+        value = "Next cursor of the previous page, replaces offset and sort"),
+    @ApiImplicitParam(
+        name = COUNT,
+        required = false,
+        dataType = "string",
+        paramType = "query",
+        value = "How the total is computed: EXACT|ESTIMATE|NONE. Default: EXACT"),
   })
   @ApiResponses(value = {@ApiResponse(code = 200, message = "Page Users")})
   @JsonView(Views.REST.class)
-  public @ResponseBody PageDTO<User> listUsers(
+  public @ResponseBody PageDTO<UserSummary> listUsers(
       @ApiIgnore @RequestHeader(value = "Authorization", required = true)
           final String authorization,
       @ApiParam(
@@ -135,6 +150,31 @@ public class UserController {
     }
   }
 
+  @AdminScoped
+  @RequestMapping(method = RequestMethod.GET, value = "/suggest")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            code = 200,
+            message = "Users matching the query, best matches first, as indexed by this instance",
+            response = UserSummary.class,
+            responseContainer = "List")
+      })
+  @JsonView(Views.REST.class)
+  public @ResponseBody List<UserSummary> suggestUsers(
+      @ApiIgnore @RequestHeader(value = "Authorization", required = true)
+          final String authorization,
+      @ApiParam(
+              value = "Text found anywhere in the email, first name or last name",
+              required = true)
+          @RequestParam(value = "query")
+          String query,
+      @ApiParam(value = "Maximum number of users to return")
+          @RequestParam(value = "limit", required = false, defaultValue = "" + DEFAULT_LIMIT)
+          int limit) {
+    return userService.suggestUsers(query, limit);
+  }
+
   @AdminScoped
   @RequestMapping(method = RequestMethod.GET, value = "/{id}")
   @ApiResponses(value = {@ApiResponse(code = 200, message = "User Details", response = User.class)})
@@ -265,7 +305,7 @@ public class UserController {
         required = true,
         dataType = "string",
         paramType = "path",
-        value = "Search for ids containing this text"),
+        value = "Filter by id, several may be separated by commas"),
     @ApiImplicitParam(
         name = LIMIT,
         required = false,
@@ -342,7 +382,7 @@ public class UserController {
         required = true,
         dataType = "string",
         paramType = "path",
-        value = "Search for ids containing this text"),
+        value = "Filter by id, several may be separated by commas"),
     @ApiImplicitParam(
         name = LIMIT,
         required = false,
@@ -0,0 +1,94 @@
+package bio.overture.ego.controller;
+
+import static bio.overture.ego.service.UserExportService.DEFAULT_CHUNK_SIZE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
+import static org.springframework.web.bind.annotation.RequestMethod.GET;
+
+import bio.overture.ego.model.dto.UserExport;
+import bio.overture.ego.security.AdminScoped;
+import bio.overture.ego.service.UserExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiParam;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.UUID;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import springfox.documentation.annotations.ApiIgnore;
+
+@Slf4j
+@RestController
+@RequestMapping("/users")
+@Api(tags = "Users")
+public class UserExportController {
+
+  /** Constants */
+  private static final byte[] NEWLINE = {'\n'};
+
+  /** Dependencies */
+  private final UserExportService userExportService;
+
+  private final ObjectMapper objectMapper;
+
+  @Autowired
+  public UserExportController(
+      @NonNull UserExportService userExportService, @NonNull ObjectMapper objectMapper) {
+    this.userExportService = userExportService;
+    this.objectMapper = objectMapper;
+  }
+
+  /**
+   * Streams every user with its groups, applications and resolved scopes as newline delimited
+   * json, in id order. Users are read one chunk at a time while the response is written.
+   */
+  @AdminScoped
+  @RequestMapping(method = GET, value = "/export", produces = APPLICATION_NDJSON_VALUE)
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            code = 200,
+            message = "Every user, one json object per line",
+            response = UserExport.class,
+            responseContainer = "List")
+      })
+  public ResponseEntity<StreamingResponseBody> exportUsers(
+      @ApiIgnore @RequestHeader(value = "Authorization", required = true)
+          final String authorization,
+      @ApiParam(value = "Number of users read from the database at a time")
+          @RequestParam(
+              value = "chunkSize",
+              required = false,
+              defaultValue = "" + DEFAULT_CHUNK_SIZE)
+          int chunkSize) {
+    StreamingResponseBody body = out -> writeUsers(chunkSize, out);
+    return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+  }
+
+  private void writeUsers(int chunkSize, OutputStream out) throws IOException {
+    UUID afterId = null;
+    while (true) {
+      val users = userExportService.readUsers(afterId, chunkSize);
+      if (users.isEmpty()) {
+        return;
+      }
+      for (val user : users) {
+        out.write(objectMapper.writeValueAsBytes(user));
+        out.write(NEWLINE);
+      }
+      out.flush();
+      afterId = users.get(users.size() - 1).getId();
+    }
+  }
+}
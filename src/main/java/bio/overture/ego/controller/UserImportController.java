@@ -0,0 +1,133 @@
+package bio.overture.ego.controller;
+
+import static java.util.Objects.isNull;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
+import static org.springframework.web.bind.annotation.RequestMethod.POST;
+
+import bio.overture.ego.model.dto.CreateUserRequest;
+import bio.overture.ego.model.dto.UserImportResult;
+import bio.overture.ego.security.AdminScoped;
+import bio.overture.ego.service.UserImportService;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.google.common.collect.ImmutableSet;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiParam;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import springfox.documentation.annotations.ApiIgnore;
+
+@Slf4j
+@RestController
+@RequestMapping("/users")
+@Api(tags = "Users")
+public class UserImportController {
+
+  /** Constants */
+  public static final String TEXT_CSV_VALUE = "text/csv";
+
+  private static final MediaType TEXT_CSV = MediaType.parseMediaType(TEXT_CSV_VALUE);
+  private static final byte[] NEWLINE = {'\n'};
+
+  /** Dependencies */
+  private final UserImportService userImportService;
+
+  private final ObjectMapper objectMapper;
+  private final CsvMapper csvMapper;
+
+  @Autowired
+  public UserImportController(
+      @NonNull UserImportService userImportService, @NonNull ObjectMapper objectMapper) {
+    this.userImportService = userImportService;
+    this.objectMapper = objectMapper;
+    this.csvMapper = new CsvMapper();
+    this.csvMapper.enable(CsvParser.Feature.EMPTY_STRING_AS_NULL);
+  }
+
+  /**
+   * Imports users from newline delimited json, or csv with a header row, and streams back one
+   * result per row as newline delimited json. Rows are imported in batches, so results arrive while
+   * the rest of the body is still being read.
+   */
+  @AdminScoped
+  @RequestMapping(
+      method = POST,
+      value = "/import",
+      consumes = {APPLICATION_NDJSON_VALUE, TEXT_CSV_VALUE},
+      produces = APPLICATION_NDJSON_VALUE)
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            code = 200,
+            message = "Result of each row, one json object per line",
+            response = UserImportResult.class,
+            responseContainer = "List")
+      })
+  public ResponseEntity<StreamingResponseBody> importUsers(
+      @ApiIgnore @RequestHeader(value = "Authorization", required = true)
+          final String authorization,
+      @RequestHeader(value = "Content-Type") MediaType contentType,
+      @ApiParam(value = "Groups every imported user is added to")
+          @RequestParam(value = "groupId", required = false)
+          List<UUID> groupIds,
+      @ApiIgnore InputStream in) {
+    val groups = isNull(groupIds) ? Set.<UUID>of() : ImmutableSet.copyOf(groupIds);
+    userImportService.checkGroupsExist(groups);
+    StreamingResponseBody body = out -> importUsers(readRequests(contentType, in), groups, out);
+    return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+  }
+
+  private void importUsers(
+      MappingIterator<CreateUserRequest> requests, Set<UUID> groupIds, OutputStream out)
+      throws IOException {
+    try (requests) {
+      userImportService.importUsers(
+          requests,
+          groupIds,
+          result -> {
+            try {
+              out.write(objectMapper.writeValueAsBytes(result));
+              out.write(NEWLINE);
+              out.flush();
+            } catch (IOException e) {
+              throw new UncheckedIOException(e);
+            }
+          });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  private MappingIterator<CreateUserRequest> readRequests(MediaType contentType, InputStream in)
+      throws IOException {
+    if (TEXT_CSV.isCompatibleWith(contentType)) {
+      return csvMapper
+          .readerFor(CreateUserRequest.class)
+          .with(CsvSchema.emptySchema().withHeader())
+          .readValues(in);
+    }
+    return objectMapper.readerFor(CreateUserRequest.class).readValues(in);
+  }
+}
@@ -16,10 +16,11 @@
 
 package bio.overture.ego.controller.resolver;
 
+import bio.overture.ego.model.search.FilterType;
 import bio.overture.ego.model.search.Filters;
 import bio.overture.ego.model.search.SearchFilter;
 import java.util.ArrayList;
-import java.util.List;
+import java.util.Map;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
@@ -32,10 +33,10 @@ import org.springframework.web.method.support.ModelAndViewContainer;
 @Slf4j
 public class FilterResolver implements HandlerMethodArgumentResolver {
 
-  @NonNull private List<String> fieldValues;
+  @NonNull private Map<String, FilterType> filterFields;
 
-  public FilterResolver(@NonNull List<String> fieldValues) {
-    this.fieldValues = fieldValues;
+  public FilterResolver(@NonNull Map<String, FilterType> filterFields) {
+    this.filterFields = filterFields;
   }
 
   @Override
@@ -57,10 +58,13 @@ public class FilterResolver implements HandlerMethodArgumentResolver {
         .forEachRemaining(
             p -> {
               val matchingField =
-                  fieldValues.stream().filter(f -> f.equalsIgnoreCase(p)).findFirst();
+                  filterFields.keySet().stream().filter(f -> f.equalsIgnoreCase(p)).findFirst();
               if (matchingField.isPresent()) {
                 filters.add(
-                    new SearchFilter(matchingField.get(), nativeWebRequest.getParameter(p)));
+                    new SearchFilter(
+                        matchingField.get(),
+                        nativeWebRequest.getParameter(p),
+                        filterFields.get(matchingField.get())));
               }
             });
     return filters;
@@ -16,6 +16,15 @@
 
 package bio.overture.ego.controller.resolver;
 
+import static bio.overture.ego.model.search.CountMode.EXACT;
+import static bio.overture.ego.model.search.CountMode.resolveCountMode;
+import static java.util.Objects.isNull;
+
+import bio.overture.ego.model.search.CountMode;
+import bio.overture.ego.model.search.CursorPageable;
+import bio.overture.ego.model.search.PageCursor;
+import java.util.Optional;
+import lombok.val;
 import org.springframework.core.MethodParameter;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -31,6 +40,8 @@ public class PageableResolver implements HandlerMethodArgumentResolver {
   public static final String SORTORDER = "sortOrder";
   public static final String OFFSET = "offset";
   public static final String LIMIT = "limit";
+  public static final String CURSOR = "cursor";
+  public static final String COUNT = "count";
 
   @Override
   public boolean supportsParameter(MethodParameter methodParameter) {
@@ -49,16 +60,30 @@ public class PageableResolver implements HandlerMethodArgumentResolver {
     String offset = nativeWebRequest.getParameter(OFFSET);
     String sort = nativeWebRequest.getParameter(SORT);
     String sortOrder = nativeWebRequest.getParameter(SORTORDER);
+    String cursor = nativeWebRequest.getParameter(CURSOR);
+    String count = nativeWebRequest.getParameter(COUNT);
 
-    return getPageable(limit, offset, sort, sortOrder);
+    val pageCursor = StringUtils.isEmpty(cursor) ? null : PageCursor.decode(cursor);
+    val countMode = StringUtils.isEmpty(count) ? EXACT : resolveCountMode(count);
+    return getPageable(limit, offset, sort, sortOrder, pageCursor, countMode);
   }
 
   public Pageable getPageable() {
-    return getPageable(null, null, null, null);
+    return getPageable(null, null, null, null, null, EXACT);
   }
 
-  private Pageable getPageable(String limit, String offset, String sort, String sortOrder) {
-    return new Pageable() {
+  /**
+   * A cursor continues the listing it was issued for, so when present it replaces the offset and
+   * the sort parameters.
+   */
+  private Pageable getPageable(
+      String limit,
+      String offset,
+      String sort,
+      String sortOrder,
+      PageCursor cursor,
+      CountMode countMode) {
+    return new CursorPageable() {
       private final int DEFAULT_LIMIT = 20;
       private final int DEFAULT_PAGE_NUM = 0;
 
@@ -78,7 +103,7 @@ public class PageableResolver implements HandlerMethodArgumentResolver {
 
       @Override
       public long getOffset() {
-        if (StringUtils.isEmpty(offset)) {
+        if (!isNull(cursor) || StringUtils.isEmpty(offset)) {
           return DEFAULT_PAGE_NUM;
         } else {
           return Integer.parseInt(offset);
@@ -87,6 +112,10 @@ public class PageableResolver implements HandlerMethodArgumentResolver {
 
       @Override
       public Sort getSort() {
+        if (!isNull(cursor)) {
+          return Sort.by(cursor.toOrder());
+        }
+
         // set default sort direction
         Sort.Direction direction = Sort.Direction.DESC;
 
@@ -99,6 +128,16 @@ public class PageableResolver implements HandlerMethodArgumentResolver {
         return Sort.by(direction, StringUtils.isEmpty(sort) ? "id" : sort);
       }
 
+      @Override
+      public Optional<PageCursor> getCursor() {
+        return Optional.ofNullable(cursor);
+      }
+
+      @Override
+      public CountMode getCountMode() {
+        return countMode;
+      }
+
       @Override
       public Pageable next() {
         return null;
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2019. The Ontario Institute for Cancer Research. All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package bio.overture.ego.event.auth;
+
+import static bio.overture.ego.utils.Transactions.runNowAndAfterCompletion;
+
+import java.util.UUID;
+import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+@Component
+public class AuthEventsPublisher {
+
+  private ApplicationEventPublisher applicationEventPublisher;
+
+  @Autowired
+  public AuthEventsPublisher(ApplicationEventPublisher applicationEventPublisher) {
+    this.applicationEventPublisher = applicationEventPublisher;
+  }
+
+  /**
+   * Published now and again once the surrounding transaction completes, so a listener that reloads
+   * the principal in between does not keep what was read before the change was committed.
+   */
+  public void principalChanged(@NonNull UUID principalId) {
+    runNowAndAfterCompletion(
+        () -> applicationEventPublisher.publishEvent(new PrincipalChangedEvent(this, principalId)));
+  }
+}
@@ -0,0 +1,282 @@
+/*
+ * Copyright (c) 2019. The Ontario Institute for Cancer Research. All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package bio.overture.ego.event.token;
+
+import static bio.overture.ego.utils.CollectionUtils.mapToImmutableSet;
+import static bio.overture.ego.utils.Transactions.runAfterCommit;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.springframework.transaction.TransactionDefinition.PROPAGATION_REQUIRES_NEW;
+
+import bio.overture.ego.config.ApiKeyCleanupProperties;
+import bio.overture.ego.model.entity.ApiKeyCleanup;
+import bio.overture.ego.repository.ApiKeyCleanupRepository;
+import bio.overture.ego.service.ApiKeyStoreService;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Durable queue of users whose api keys must be re-checked against their current scopes. Requests
+ * are stored in the apikeycleanup table in the requesting transaction, one row per user, so
+ * repeated requests for the same user coalesce. A background worker claims due rows in batches,
+ * splits each batch across a bounded pool, revokes over-scoped keys with one set-based statement
+ * per slice, and reschedules failures with a linear backoff until maxAttempts is reached. With
+ * async disabled, users are cleaned up inline instead.
+ */
+@Slf4j
+@Component
+public class ApiKeyCleanupQueue {
+
+  /** Constants */
+  private static final String BACKLOG_METRIC = "ego.apikey.cleanup.backlog";
+
+  private static final String LAG_METRIC = "ego.apikey.cleanup.lag.seconds";
+
+  /** Dependencies */
+  private final ApiKeyStoreService apiKeyStoreService;
+
+  private final ApiKeyCleanupRepository apiKeyCleanupRepository;
+  private final ApiKeyCleanupProperties properties;
+  private final MeterRegistry meterRegistry;
+  private final TransactionTemplate transactionTemplate;
+
+  /** State */
+  private final AtomicBoolean wakeUpPending = new AtomicBoolean(false);
+
+  private ScheduledExecutorService scheduler;
+  private ExecutorService workers;
+
+  @Autowired
+  public ApiKeyCleanupQueue(
+      @NonNull ApiKeyStoreService apiKeyStoreService,
+      @NonNull ApiKeyCleanupRepository apiKeyCleanupRepository,
+      @NonNull ApiKeyCleanupProperties properties,
+      @NonNull MeterRegistry meterRegistry,
+      @NonNull PlatformTransactionManager transactionManager) {
+    this.apiKeyStoreService = apiKeyStoreService;
+    this.apiKeyCleanupRepository = apiKeyCleanupRepository;
+    this.properties = properties;
+    this.meterRegistry = meterRegistry;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setPropagationBehavior(PROPAGATION_REQUIRES_NEW);
+  }
+
+  @PostConstruct
+  public void start() {
+    Gauge.builder(BACKLOG_METRIC, apiKeyCleanupRepository, ApiKeyCleanupRepository::count)
+        .description("Users waiting for their api keys to be cleaned up")
+        .register(meterRegistry);
+    Gauge.builder(LAG_METRIC, apiKeyCleanupRepository, r -> r.findLagSeconds().orElse(0D))
+        .description("Age of the oldest pending api key cleanup request")
+        .register(meterRegistry);
+
+    if (!properties.isAsync()) {
+      return;
+    }
+    scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder()
+                .setNameFormat("apikey-cleanup-scheduler")
+                .setDaemon(true)
+                .build());
+    workers =
+        new ThreadPoolExecutor(
+            properties.getThreads(),
+            properties.getThreads(),
+            0L,
+            MILLISECONDS,
+            new ArrayBlockingQueue<>(properties.getBatchSize()),
+            new ThreadFactoryBuilder().setNameFormat("apikey-cleanup-%d").setDaemon(true).build(),
+            new ThreadPoolExecutor.CallerRunsPolicy());
+    scheduler.scheduleWithFixedDelay(
+        this::drainSafely,
+        properties.getPollIntervalMs(),
+        properties.getPollIntervalMs(),
+        MILLISECONDS);
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+    }
+    if (workers != null) {
+      workers.shutdownNow();
+    }
+  }
+
+  /**
+   * Requests a cleanup of the api keys of the users. In async mode this only records the request
+   * and wakes the worker once the surrounding transaction commits.
+   */
+  @Transactional
+  public void enqueue(@NonNull Collection<UUID> userIds) {
+    if (userIds.isEmpty()) {
+      return;
+    }
+    if (!properties.isAsync()) {
+      revokeOverScopedApiKeys(userIds);
+      return;
+    }
+    apiKeyCleanupRepository.enqueue(userIds);
+    runAfterCommit(this::wakeUp);
+  }
+
+  /**
+   * Processes due requests until none are left
+   *
+   * @return the number of requests processed
+   */
+  public int drain() {
+    val executor = getWorkerExecutor();
+    int processed = 0;
+    List<ApiKeyCleanup> batch;
+    while (!(batch = claimBatch()).isEmpty()) {
+      val sliceSize = (batch.size() + properties.getThreads() - 1) / properties.getThreads();
+      val futures =
+          Lists.partition(batch, sliceSize).stream()
+              .map(x -> CompletableFuture.runAsync(() -> process(x), executor))
+              .toArray(CompletableFuture[]::new);
+      CompletableFuture.allOf(futures).join();
+      processed += batch.size();
+    }
+    return processed;
+  }
+
+  private void wakeUp() {
+    if (scheduler != null && wakeUpPending.compareAndSet(false, true)) {
+      scheduler.schedule(
+          () -> {
+            wakeUpPending.set(false);
+            drainSafely();
+          },
+          properties.getCoalesceWindowMs(),
+          MILLISECONDS);
+    }
+  }
+
+  private void drainSafely() {
+    try {
+      val processed = drain();
+      if (processed > 0) {
+        log.debug("Processed {} api key cleanup requests", processed);
+      }
+    } catch (Exception e) {
+      log.error("Failed to drain the api key cleanup queue: {}", e.getMessage(), e);
+    }
+  }
+
+  private Executor getWorkerExecutor() {
+    return workers == null ? Runnable::run : workers;
+  }
+
+  private List<ApiKeyCleanup> claimBatch() {
+    return transactionTemplate.execute(
+        status -> {
+          val due = apiKeyCleanupRepository.findDueForUpdate(properties.getBatchSize());
+          if (!due.isEmpty()) {
+            apiKeyCleanupRepository.lease(
+                mapToImmutableSet(due, ApiKeyCleanup::getUserId),
+                properties.getLeaseSeconds());
+          }
+          return due;
+        });
+  }
+
+  private void process(List<ApiKeyCleanup> requests) {
+    try {
+      revokeAndComplete(requests);
+    } catch (Exception e) {
+      if (requests.size() == 1) {
+        retryOrGiveUp(requests.get(0), e);
+        return;
+      }
+      // A single failing user fails the whole slice, so only the users failing alone are charged
+      for (val request : requests) {
+        try {
+          revokeAndComplete(List.of(request));
+        } catch (Exception userException) {
+          retryOrGiveUp(request, userException);
+        }
+      }
+    }
+  }
+
+  private void revokeAndComplete(List<ApiKeyCleanup> requests) {
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          revokeOverScopedApiKeys(mapToImmutableSet(requests, ApiKeyCleanup::getUserId));
+          requests.forEach(
+              x -> apiKeyCleanupRepository.complete(x.getUserId(), x.getRequestCount()));
+        });
+  }
+
+  private void retryOrGiveUp(ApiKeyCleanup request, Exception cause) {
+    val userId = request.getUserId();
+    val attempt = request.getAttempts() + 1;
+    if (attempt >= properties.getMaxAttempts()) {
+      log.error(
+          "Giving up api key cleanup for user '{}' after {} attempts: {}",
+          userId,
+          attempt,
+          cause.getMessage(),
+          cause);
+      transactionTemplate.executeWithoutResult(
+          status -> apiKeyCleanupRepository.complete(userId, request.getRequestCount()));
+    } else {
+      log.warn(
+          "Api key cleanup for user '{}' failed on attempt {}, retrying: {}",
+          userId,
+          attempt,
+          cause.getMessage());
+      transactionTemplate.executeWithoutResult(
+          status ->
+              apiKeyCleanupRepository.recordFailure(
+                  userId, properties.getRetryBackoffSeconds() * attempt));
+    }
+  }
+
+  private void revokeOverScopedApiKeys(Collection<UUID> userIds) {
+    val revoked = apiKeyStoreService.revokeOverScopedApiKeys(userIds);
+    if (revoked > 0) {
+      log.info("Revoked {} api keys exceeding the scopes of {} users", revoked, userIds.size());
+    }
+  }
+}
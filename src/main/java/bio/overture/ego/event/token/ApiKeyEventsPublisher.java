@@ -17,9 +17,11 @@
 
 package bio.overture.ego.event.token;
 
-import bio.overture.ego.model.entity.ApiKey;
+import static bio.overture.ego.utils.CollectionUtils.mapToImmutableSet;
+
 import bio.overture.ego.model.entity.User;
 import java.util.Set;
+import java.util.UUID;
 import lombok.NonNull;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationEventPublisher;
@@ -36,10 +38,14 @@ public class ApiKeyEventsPublisher {
   }
 
   public void requestApiKeyCleanupByUsers(@NonNull final Set<User> users) {
-    applicationEventPublisher.publishEvent(new CleanupUserApiKeysEvent(this, users));
+    requestApiKeyCleanupByUserIds(mapToImmutableSet(users, User::getId));
+  }
+
+  public void requestApiKeyCleanupByUserIds(@NonNull final Set<UUID> userIds) {
+    applicationEventPublisher.publishEvent(new CleanupUserApiKeysEvent(this, userIds));
   }
 
-  public void requestApiKeyCleanup(@NonNull final Set<ApiKey> apiKeys) {
-    applicationEventPublisher.publishEvent(new RevokeApiKeysEvent(this, apiKeys));
+  public void requestApiKeyCleanup(@NonNull final Set<UUID> apiKeyIds) {
+    applicationEventPublisher.publishEvent(new RevokeApiKeysEvent(this, apiKeyIds));
   }
 }
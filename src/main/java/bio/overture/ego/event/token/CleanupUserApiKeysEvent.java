@@ -17,18 +17,18 @@
 
 package bio.overture.ego.event.token;
 
-import bio.overture.ego.model.entity.User;
 import java.util.Set;
+import java.util.UUID;
 import lombok.Getter;
 import lombok.NonNull;
 import org.springframework.context.ApplicationEvent;
 
 public class CleanupUserApiKeysEvent extends ApplicationEvent {
 
-  @Getter private Set<User> users;
+  @Getter private Set<UUID> userIds;
 
-  public CleanupUserApiKeysEvent(@NonNull Object source, Set<User> users) {
+  public CleanupUserApiKeysEvent(@NonNull Object source, Set<UUID> userIds) {
     super(source);
-    this.users = users;
+    this.userIds = userIds;
   }
 }
@@ -17,8 +17,7 @@
 
 package bio.overture.ego.event.token;
 
-import bio.overture.ego.model.entity.ApiKey;
-import bio.overture.ego.service.TokenService;
+import bio.overture.ego.service.ApiKeyStoreService;
 import lombok.NonNull;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationListener;
@@ -28,15 +27,15 @@ import org.springframework.stereotype.Component;
 public class RevokeApiKeyListener implements ApplicationListener<RevokeApiKeysEvent> {
 
   /** Dependencies */
-  private final TokenService tokenService;
+  private final ApiKeyStoreService apiKeyStoreService;
 
   @Autowired
-  public RevokeApiKeyListener(@NonNull TokenService tokenService) {
-    this.tokenService = tokenService;
+  public RevokeApiKeyListener(@NonNull ApiKeyStoreService apiKeyStoreService) {
+    this.apiKeyStoreService = apiKeyStoreService;
   }
 
   @Override
   public void onApplicationEvent(@NonNull RevokeApiKeysEvent event) {
-    event.getApiKeys().stream().map(ApiKey::getName).forEach(tokenService::revoke);
+    apiKeyStoreService.revokeByIds(event.getApiKeyIds());
   }
 }
@@ -17,18 +17,18 @@
 
 package bio.overture.ego.event.token;
 
-import bio.overture.ego.model.entity.ApiKey;
 import java.util.Set;
+import java.util.UUID;
 import lombok.Getter;
 import lombok.NonNull;
 import org.springframework.context.ApplicationEvent;
 
 public class RevokeApiKeysEvent extends ApplicationEvent {
 
-  @Getter private Set<ApiKey> apiKeys;
+  @Getter private Set<UUID> apiKeyIds;
 
-  public RevokeApiKeysEvent(@NonNull Object source, @NonNull Set<ApiKey> apiKeys) {
+  public RevokeApiKeysEvent(@NonNull Object source, @NonNull Set<UUID> apiKeyIds) {
     super(source);
-    this.apiKeys = apiKeys;
+    this.apiKeyIds = apiKeyIds;
   }
 }
@@ -1,6 +1,10 @@
 package bio.overture.ego.grpc;
 
 import bio.overture.ego.grpc.interceptor.AuthInterceptor;
+import bio.overture.ego.grpc.service.ApplicationServiceGrpcImpl;
+import bio.overture.ego.grpc.service.ChangeFeedServiceGrpcImpl;
+import bio.overture.ego.grpc.service.GroupServiceGrpcImpl;
+import bio.overture.ego.grpc.service.PermissionServiceGrpcImpl;
 import bio.overture.ego.grpc.service.UserServiceGrpcImpl;
 import io.grpc.Server;
 import io.grpc.ServerBuilder;
@@ -28,22 +32,47 @@ public class GrpcServer implements CommandLineRunner, DisposableBean {
 
   private final AuthInterceptor authInterceptor;
   private final UserServiceGrpcImpl userServiceImpl;
+  private final ChangeFeedServiceGrpcImpl changeFeedServiceImpl;
+  private final GroupServiceGrpcImpl groupServiceImpl;
+  private final ApplicationServiceGrpcImpl applicationServiceImpl;
+  private final PermissionServiceGrpcImpl permissionServiceImpl;
 
   @Autowired
   public GrpcServer(
-      @NonNull AuthInterceptor authInterceptor, @NonNull UserServiceGrpcImpl userServiceImpl) {
+      @NonNull AuthInterceptor authInterceptor,
+      @NonNull UserServiceGrpcImpl userServiceImpl,
+      @NonNull ChangeFeedServiceGrpcImpl changeFeedServiceImpl,
+      @NonNull GroupServiceGrpcImpl groupServiceImpl,
+      @NonNull ApplicationServiceGrpcImpl applicationServiceImpl,
+      @NonNull PermissionServiceGrpcImpl permissionServiceImpl) {
 
     this.authInterceptor = authInterceptor;
 
     this.userServiceImpl = userServiceImpl;
+    this.changeFeedServiceImpl = changeFeedServiceImpl;
+    this.groupServiceImpl = groupServiceImpl;
+    this.applicationServiceImpl = applicationServiceImpl;
+    this.permissionServiceImpl = permissionServiceImpl;
   }
 
   @Override
   public void run(String... args) throws Exception {
 
     val userService = ServerInterceptors.intercept(userServiceImpl, authInterceptor);
+    val changeFeedService = ServerInterceptors.intercept(changeFeedServiceImpl, authInterceptor);
+    val groupService = ServerInterceptors.intercept(groupServiceImpl, authInterceptor);
+    val applicationService = ServerInterceptors.intercept(applicationServiceImpl, authInterceptor);
+    val permissionService = ServerInterceptors.intercept(permissionServiceImpl, authInterceptor);
 
-    server = ServerBuilder.forPort(port).addService(userService).build().start();
+    server =
+        ServerBuilder.forPort(port)
+            .addService(userService)
+            .addService(changeFeedService)
+            .addService(groupService)
+            .addService(applicationService)
+            .addService(permissionService)
+            .build()
+            .start();
 
     log.info("gRPC Server started, listening on " + port);
     startDaemonAwaitThread();
@@ -1,12 +1,21 @@
 package bio.overture.ego.grpc;
 
+import static bio.overture.ego.model.exceptions.MalformedRequestException.buildMalformedRequest;
+import static bio.overture.ego.model.exceptions.MalformedRequestException.checkMalformedRequest;
+import static java.util.Objects.isNull;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toUnmodifiableList;
 
 import bio.overture.ego.model.enums.JavaFields;
+import bio.overture.ego.model.search.CursorPage;
+import bio.overture.ego.model.search.CursorPageable;
+import bio.overture.ego.model.search.PageCursor;
 import com.google.protobuf.StringValue;
 import com.google.protobuf.UInt32Value;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 import lombok.val;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -20,6 +29,8 @@ public class ProtoUtils {
   private static final int DEFAULT_LIMIT = 100;
   private static final int MAX_LIMIT = 1000;
 
+  public static final int MAX_BATCH_SIZE = 1000;
+
   /* toProtoString
    * Use this to convert a potentially null value into a String for a protobuf value
    *
@@ -29,6 +40,17 @@ public class ProtoUtils {
     return value == null ? DEFAULT_STRING : StringValue.of(value.toString());
   }
 
+  /** Parses the ids of a batch request, keeping their order and dropping repeated ids */
+  public static List<UUID> parseIds(List<String> ids) {
+    checkMalformedRequest(
+        ids.size() <= MAX_BATCH_SIZE, "At most %s ids can be requested at once", MAX_BATCH_SIZE);
+    try {
+      return ids.stream().map(UUID::fromString).distinct().collect(toUnmodifiableList());
+    } catch (IllegalArgumentException e) {
+      throw buildMalformedRequest("IDs must be valid UUIDs");
+    }
+  }
+
   public static PagedResponse createPagedResponse(Page page, int currentPageNum) {
     val pageBuilder =
         PagedResponse.newBuilder().setMaxResults(Long.valueOf(page.getTotalElements()).intValue());
@@ -38,6 +60,11 @@ public class ProtoUtils {
       pageBuilder.setNextPage(nextPage);
     }
 
+    val nextCursor = CursorPage.getNextCursor(page);
+    if (!isNull(nextCursor)) {
+      pageBuilder.setNextPageToken(nextCursor);
+    }
+
     return pageBuilder.build();
   }
 
@@ -50,7 +77,11 @@ public class ProtoUtils {
 
     val pageNumber = pagedRequest.getPageNumber();
 
-    return new Pageable() {
+    // A page token continues the listing it was issued for, replacing the page number and order
+    val pageToken = pagedRequest.getPageToken();
+    val cursor = pageToken.isEmpty() ? null : PageCursor.decode(pageToken);
+
+    return new CursorPageable() {
 
       @Override
       public int getPageNumber() {
@@ -64,12 +95,17 @@ public class ProtoUtils {
 
       @Override
       public long getOffset() {
-        return pageNumber * limit;
+        return isNull(cursor) ? pageNumber * limit : 0;
       }
 
       @Override
       public Sort getSort() {
-        return parseSort(sort);
+        return isNull(cursor) ? parseSort(sort) : Sort.by(cursor.toOrder());
+      }
+
+      @Override
+      public Optional<PageCursor> getCursor() {
+        return Optional.ofNullable(cursor);
       }
 
       @Override
@@ -1,17 +1,24 @@
 package bio.overture.ego.grpc.interceptor;
 
+import static bio.overture.ego.utils.TypeUtils.convertToAnotherType;
 import static io.grpc.Metadata.ASCII_STRING_MARSHALLER;
+import static java.util.Objects.isNull;
 
 import bio.overture.ego.model.entity.Application;
 import bio.overture.ego.model.entity.User;
 import bio.overture.ego.model.enums.ApplicationType;
 import bio.overture.ego.model.enums.StatusType;
 import bio.overture.ego.model.enums.UserType;
-import bio.overture.ego.model.exceptions.NotFoundException;
 import bio.overture.ego.service.ApplicationService;
 import bio.overture.ego.service.TokenService;
 import bio.overture.ego.service.UserService;
+import bio.overture.ego.token.app.AppTokenClaims;
+import bio.overture.ego.token.user.UserTokenClaims;
+import bio.overture.ego.view.Views;
 import io.grpc.*;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import java.io.IOException;
 import java.util.Optional;
 import java.util.UUID;
 import lombok.*;
@@ -31,6 +38,7 @@ public class ApplicationAuthInterceptor implements AuthInterceptor {
   @Autowired private TokenService tokenService;
   @Autowired private UserService userService;
   @Autowired private ApplicationService applicationService;
+  @Autowired private AuthInfoCache authInfoCache;
 
   private static final Metadata.Key<String> JWT_METADATA_KEY =
       Metadata.Key.of("jwt", ASCII_STRING_MARSHALLER);
@@ -40,14 +48,31 @@ public class ApplicationAuthInterceptor implements AuthInterceptor {
   @Override
   public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(
       ServerCall<ReqT, RespT> call, Metadata metadata, ServerCallHandler<ReqT, RespT> next) {
-    try {
-      // You need to implement validateIdentity
-      String token = metadata.get(JWT_METADATA_KEY);
+    String token = metadata.get(JWT_METADATA_KEY);
+    if (isNull(token) || token.isBlank()) {
+      call.close(Status.UNAUTHENTICATED.withDescription("Missing JWT"), metadata);
+      return NOOP_LISTENER;
+    }
+
+    // Calls on a long-lived channel present the same token, verified again once its entry expires
+    val cached = authInfoCache.get(token);
+    AuthInfo authInfo;
+    if (cached.isPresent()) {
+      authInfo = cached.get();
+    } else {
+      val generation = authInfoCache.generation();
+      Claims claims;
+      try {
+        claims = tokenService.getTokenClaims(token);
+      } catch (JwtException | IllegalArgumentException e) {
+        call.close(Status.UNAUTHENTICATED.withDescription("Invalid JWT"), metadata);
+        return NOOP_LISTENER;
+      }
 
-      val userInfo = getUserInfo(token);
-      val appInfo = getAppInfo(token);
+      val userInfo = getUserInfo(claims);
+      val appInfo = userInfo.isPresent() ? Optional.<Application>empty() : getAppInfo(claims);
 
-      if (!validateJwt(token) || !(userInfo.isPresent() || appInfo.isPresent())) {
+      if (!(userInfo.isPresent() || appInfo.isPresent())) {
         call.close(Status.UNAUTHENTICATED.withDescription("Invalid JWT"), metadata);
         return NOOP_LISTENER;
       }
@@ -66,46 +91,41 @@ public class ApplicationAuthInterceptor implements AuthInterceptor {
               || (appInfo.isPresent() && appInfo.get().getType() == ApplicationType.ADMIN);
       val id = userInfo.isPresent() ? userInfo.get().getId() : appInfo.get().getId();
 
-      val authInfo = new AuthInfo(userInfo.isPresent(), appInfo.isPresent(), isAdmin, id);
-
-      Context context =
-          Context.current().withValue(AUTHORIZED_JWT, token).withValue(AUTH_INFO, authInfo);
-      return Contexts.interceptCall(context, call, metadata, next);
-
-    } catch (IllegalArgumentException e) {
-      call.close(Status.UNAUTHENTICATED.withDescription("Missing JWT"), metadata);
-      return NOOP_LISTENER;
+      authInfo = new AuthInfo(userInfo.isPresent(), appInfo.isPresent(), isAdmin, id);
+      if (!isNull(claims.getExpiration())) {
+        authInfoCache.put(token, authInfo, claims.getExpiration().toInstant(), generation);
+      }
     }
-  }
 
-  private boolean validateJwt(String token) {
-    return tokenService.isValidToken(token);
+    Context context =
+        Context.current().withValue(AUTHORIZED_JWT, token).withValue(AUTH_INFO, authInfo);
+    return Contexts.interceptCall(context, call, metadata, next);
   }
 
-  @SneakyThrows
-  private Optional<User> getUserInfo(String token) {
+  /** The user the verified claims were issued to, read without its relationships */
+  private Optional<User> getUserInfo(Claims claims) {
     try {
-      val claims = tokenService.getTokenUserInfo(token);
-      return claims == null ? Optional.empty() : userService.findById(claims.getId());
-    } catch (NotFoundException e) {
+      val tokenClaims =
+          convertToAnotherType(claims, UserTokenClaims.class, Views.JWTAccessToken.class);
+      return userService.findById(UUID.fromString(tokenClaims.getSub()));
+    } catch (IOException | RuntimeException e) {
       return Optional.empty();
     }
   }
 
-  @SneakyThrows
-  private Optional<Application> getAppInfo(String token) {
+  /** The application the verified claims were issued to, read without its relationships */
+  private Optional<Application> getAppInfo(Claims claims) {
     try {
-      val claims = tokenService.getTokenAppInfo(token);
-      return claims == null
-          ? Optional.empty()
-          : applicationService.getClientApplication(claims.getClientId());
-    } catch (Exception e) {
+      val tokenClaims =
+          convertToAnotherType(claims, AppTokenClaims.class, Views.JWTAccessToken.class);
+      return applicationService.findById(UUID.fromString(tokenClaims.getSub()));
+    } catch (IOException | RuntimeException e) {
       return Optional.empty();
     }
   }
 
   @Getter
-  public class AuthInfo {
+  public static class AuthInfo {
 
     boolean user;
 
@@ -0,0 +1,139 @@
+package bio.overture.ego.grpc.interceptor;
+
+import static com.google.common.cache.RemovalCause.REPLACED;
+
+import bio.overture.ego.event.auth.PrincipalChangedEvent;
+import bio.overture.ego.grpc.interceptor.ApplicationAuthInterceptor.AuthInfo;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.NonNull;
+import lombok.Value;
+import lombok.val;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caches the AuthInfo resolved from each gRPC JWT for at most MAX_TTL, or until the token expires
+ * if sooner. Every call on a long-lived channel carries the same token, so the token is verified
+ * and its user or application read once every few minutes instead of once per call. Entries are
+ * evicted by id when the user or application is updated or deleted.
+ */
+@Component
+public class AuthInfoCache implements ApplicationListener<PrincipalChangedEvent> {
+
+  /** Constants */
+  private static final int MAX_ENTRIES = 10_000;
+
+  private static final Duration MAX_TTL = Duration.ofMinutes(5);
+
+  /** State */
+  private final Cache<String, Entry> cache =
+      CacheBuilder.newBuilder()
+          .maximumSize(MAX_ENTRIES)
+          .expireAfterWrite(MAX_TTL)
+          .removalListener(this::onRemoval)
+          .build();
+
+  /** The tokens cached for each user or application id, so they are evicted without a scan */
+  private final Map<UUID, Set<String>> tokensById = new ConcurrentHashMap<>();
+
+  /** Bumped by every invalidation, so an AuthInfo loaded before one is never cached */
+  private final AtomicLong generation = new AtomicLong();
+
+  public Optional<AuthInfo> get(@NonNull String token) {
+    val entry = cache.getIfPresent(token);
+    if (entry == null) {
+      return Optional.empty();
+    }
+    if (entry.isExpired(Instant.now())) {
+      cache.asMap().remove(token, entry);
+      return Optional.empty();
+    }
+    return Optional.of(entry.getAuthInfo());
+  }
+
+  /** Read before loading the AuthInfo that is then passed to put */
+  public long generation() {
+    return generation.get();
+  }
+
+  /**
+   * Caches the AuthInfo unless an invalidation happened since the given generation was read, in
+   * which case the user or application it was loaded from may already be stale.
+   */
+  public void put(
+      @NonNull String token,
+      @NonNull AuthInfo authInfo,
+      @NonNull Instant expiresAt,
+      long loadedGeneration) {
+    if (generation.get() != loadedGeneration) {
+      return;
+    }
+    val maxExpiresAt = Instant.now().plus(MAX_TTL);
+    val entry = new Entry(authInfo, expiresAt.isBefore(maxExpiresAt) ? expiresAt : maxExpiresAt);
+    cache.put(token, entry);
+    tokensById.compute(
+        authInfo.getId(),
+        (id, tokens) -> {
+          val result = tokens == null ? ConcurrentHashMap.<String>newKeySet() : tokens;
+          result.add(token);
+          return result;
+        });
+
+    // An invalidation that ran its removal before the entry was added must still evict it
+    if (generation.get() != loadedGeneration) {
+      cache.asMap().remove(token, entry);
+    }
+  }
+
+  public void invalidate(@NonNull UUID id) {
+    generation.incrementAndGet();
+    val tokens = tokensById.remove(id);
+    if (tokens != null) {
+      cache.invalidateAll(tokens);
+    }
+  }
+
+  @Override
+  public void onApplicationEvent(@NonNull PrincipalChangedEvent event) {
+    invalidate(event.getPrincipalId());
+  }
+
+  /**
+   * Drops the token from the index of its id. Runs under the lock of that id, so a put of the same
+   * token that already re-added the entry keeps it indexed.
+   */
+  private void onRemoval(RemovalNotification<String, Entry> notification) {
+    if (notification.getCause() == REPLACED) {
+      return;
+    }
+    val token = notification.getKey();
+    tokensById.computeIfPresent(
+        notification.getValue().getAuthInfo().getId(),
+        (id, tokens) -> {
+          if (!cache.asMap().containsKey(token)) {
+            tokens.remove(token);
+          }
+          return tokens.isEmpty() ? null : tokens;
+        });
+  }
+
+  @Value
+  private static class Entry {
+    AuthInfo authInfo;
+    Instant expiresAt;
+
+    boolean isExpired(Instant now) {
+      return !now.isBefore(expiresAt);
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package bio.overture.ego.grpc.service;
+
+import static bio.overture.ego.grpc.ProtoUtils.parseIds;
+import static bio.overture.ego.grpc.ProtoUtils.toProtoString;
+
+import bio.overture.ego.grpc.Application;
+import bio.overture.ego.grpc.ApplicationServiceGrpc;
+import bio.overture.ego.grpc.BatchGetApplicationsRequest;
+import bio.overture.ego.grpc.BatchGetApplicationsResponse;
+import bio.overture.ego.grpc.interceptor.ApplicationAuthInterceptor;
+import bio.overture.ego.model.dto.ApplicationSummary;
+import bio.overture.ego.model.exceptions.MalformedRequestException;
+import bio.overture.ego.service.ApplicationService;
+import com.google.protobuf.Int64Value;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import java.util.List;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+public class ApplicationServiceGrpcImpl extends ApplicationServiceGrpc.ApplicationServiceImplBase {
+
+  private final ApplicationService applicationService;
+
+  @Autowired
+  public ApplicationServiceGrpcImpl(ApplicationService applicationService) {
+    this.applicationService = applicationService;
+  }
+
+  @Override
+  public void batchGetApplications(
+      BatchGetApplicationsRequest request,
+      StreamObserver<BatchGetApplicationsResponse> responseObserver) {
+
+    val authInfo = ApplicationAuthInterceptor.AUTH_INFO.get();
+    if (authInfo != null) {
+      // Auth Checks - must be admin or an app
+      if (!(authInfo.isAdmin() || authInfo.isApp())) {
+        responseObserver.onError(
+            Status.UNAUTHENTICATED
+                .withDescription("Must be an application or ADMIN user.")
+                .asRuntimeException());
+        return;
+      }
+    }
+
+    List<UUID> ids;
+    try {
+      ids = parseIds(request.getIdsList());
+    } catch (MalformedRequestException e) {
+      log.info("gRPC BatchGetApplications received invalid IDs: {}", e.getMessage());
+      responseObserver.onError(
+          Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException());
+      return;
+    }
+
+    val output = BatchGetApplicationsResponse.newBuilder();
+    applicationService.getSummaries(ids).forEach(app -> output.addApplications(toProto(app)));
+
+    responseObserver.onNext(output.build());
+    responseObserver.onCompleted();
+  }
+
+  /** The client secret is left out, callers only need it to authenticate as the application */
+  private static Application toProto(ApplicationSummary app) {
+    return Application.newBuilder()
+        .setId(toProtoString(app.getId()))
+        .setName(toProtoString(app.getName()))
+        .setType(toProtoString(app.getType()))
+        .setClientId(toProtoString(app.getClientId()))
+        .setRedirectUri(toProtoString(app.getRedirectUri()))
+        .setDescription(toProtoString(app.getDescription()))
+        .setErrorRedirectUri(toProtoString(app.getErrorRedirectUri()))
+        .setStatus(toProtoString(app.getStatus()))
+        .setPermissionVersion(Int64Value.of(app.getPermissionVersion()))
+        .build();
+  }
+}
@@ -0,0 +1,146 @@
+package bio.overture.ego.grpc.service;
+
+import static bio.overture.ego.grpc.ProtoUtils.toProtoString;
+import static bio.overture.ego.service.ChangeFeedService.DEFAULT_LIMIT;
+import static bio.overture.ego.service.ChangeFeedService.MAX_LIMIT;
+
+import bio.overture.ego.grpc.ChangeEvent;
+import bio.overture.ego.grpc.ChangeFeedServiceGrpc;
+import bio.overture.ego.grpc.StreamChangesRequest;
+import bio.overture.ego.grpc.interceptor.ApplicationAuthInterceptor;
+import bio.overture.ego.model.dto.ChangeEventResponse;
+import bio.overture.ego.model.exceptions.MalformedRequestException;
+import bio.overture.ego.service.ChangeFeedService;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+public class ChangeFeedServiceGrpcImpl extends ChangeFeedServiceGrpc.ChangeFeedServiceImplBase {
+
+  private final ChangeFeedService changeFeedService;
+
+  @Autowired
+  public ChangeFeedServiceGrpcImpl(ChangeFeedService changeFeedService) {
+    this.changeFeedService = changeFeedService;
+  }
+
+  @Override
+  public void streamChanges(
+      StreamChangesRequest request, StreamObserver<ChangeEvent> responseObserver) {
+
+    val authInfo = ApplicationAuthInterceptor.AUTH_INFO.get();
+    if (authInfo != null) {
+      // Auth Checks - must be admin or an app
+      if (!(authInfo.isAdmin() || authInfo.isApp())) {
+        responseObserver.onError(
+            Status.UNAUTHENTICATED
+                .withDescription("Must be an application or ADMIN user.")
+                .asRuntimeException());
+        return;
+      }
+    }
+
+    val pageSize = request.getPageSize();
+    val limit = pageSize == 0 ? DEFAULT_LIMIT : pageSize > MAX_LIMIT ? MAX_LIMIT : pageSize;
+    val cursor = request.hasCursor() ? request.getCursor().getValue() : null;
+
+    val stream = new ChangeStream(responseObserver, cursor, limit);
+    if (responseObserver instanceof ServerCallStreamObserver) {
+      val serverObserver = (ServerCallStreamObserver<ChangeEvent>) responseObserver;
+      serverObserver.setOnCancelHandler(stream::cancel);
+      serverObserver.setOnReadyHandler(stream);
+    } else {
+      stream.run();
+    }
+  }
+
+  private static boolean isReady(StreamObserver<ChangeEvent> responseObserver) {
+    return !(responseObserver instanceof ServerCallStreamObserver)
+        || ((ServerCallStreamObserver<ChangeEvent>) responseObserver).isReady();
+  }
+
+  private static ChangeEvent toProto(ChangeEventResponse change) {
+    val builder =
+        ChangeEvent.newBuilder()
+            .setCursor(change.getCursor())
+            .setEntityType(change.getEntityType().toString())
+            .setOperation(change.getOperation().toString())
+            .setEntityId(change.getEntityId().toString())
+            .setCreatedAt(toProtoString(change.getCreatedAt()));
+    if (change.getRelatedId() != null) {
+      builder.setRelatedId(toProtoString(change.getRelatedId()));
+    }
+    return builder.build();
+  }
+
+  /**
+   * Sends the changes of a StreamChanges call while the transport is ready, and resumes each time
+   * gRPC reports it ready again. A page of changes is only read once the previous one was sent, and
+   * a short page shows the consumer is caught up.
+   */
+  private class ChangeStream implements Runnable {
+
+    private final StreamObserver<ChangeEvent> responseObserver;
+    private final int limit;
+
+    private final Deque<ChangeEvent> pending = new ArrayDeque<>();
+    private String cursor;
+    private boolean caughtUp;
+    private volatile boolean done;
+
+    private ChangeStream(StreamObserver<ChangeEvent> responseObserver, String cursor, int limit) {
+      this.responseObserver = responseObserver;
+      this.cursor = cursor;
+      this.limit = limit;
+    }
+
+    @Override
+    public synchronized void run() {
+      try {
+        while (!done && isReady(responseObserver)) {
+          if (pending.isEmpty() && (caughtUp || !readPage())) {
+            done = true;
+            responseObserver.onCompleted();
+            return;
+          }
+          responseObserver.onNext(pending.poll());
+        }
+      } catch (MalformedRequestException e) {
+        log.info("gRPC StreamChanges received invalid cursor: {}", e.getMessage());
+        done = true;
+        responseObserver.onError(
+            Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException());
+      } catch (RuntimeException e) {
+        log.error("gRPC StreamChanges failed at cursor '{}'", cursor, e);
+        done = true;
+        responseObserver.onError(
+            Status.INTERNAL.withDescription("Failed to read changes.").asRuntimeException());
+      }
+    }
+
+    public void cancel() {
+      log.debug("gRPC StreamChanges cancelled by the client at cursor '{}'", cursor);
+      done = true;
+    }
+
+    /** Reads the page following the last change read, false once there is none */
+    private boolean readPage() {
+      val changes = changeFeedService.readChanges(cursor, limit);
+      if (changes.isEmpty()) {
+        return false;
+      }
+      changes.forEach(change -> pending.add(toProto(change)));
+      cursor = changes.get(changes.size() - 1).getCursor();
+      caughtUp = changes.size() < limit;
+      return true;
+    }
+  }
+}
@@ -0,0 +1,77 @@
+package bio.overture.ego.grpc.service;
+
+import static bio.overture.ego.grpc.ProtoUtils.parseIds;
+import static bio.overture.ego.grpc.ProtoUtils.toProtoString;
+
+import bio.overture.ego.grpc.BatchGetGroupsRequest;
+import bio.overture.ego.grpc.BatchGetGroupsResponse;
+import bio.overture.ego.grpc.Group;
+import bio.overture.ego.grpc.GroupServiceGrpc;
+import bio.overture.ego.grpc.interceptor.ApplicationAuthInterceptor;
+import bio.overture.ego.model.dto.GroupSummary;
+import bio.overture.ego.model.exceptions.MalformedRequestException;
+import bio.overture.ego.service.GroupService;
+import com.google.protobuf.Int64Value;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import java.util.List;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+public class GroupServiceGrpcImpl extends GroupServiceGrpc.GroupServiceImplBase {
+
+  private final GroupService groupService;
+
+  @Autowired
+  public GroupServiceGrpcImpl(GroupService groupService) {
+    this.groupService = groupService;
+  }
+
+  @Override
+  public void batchGetGroups(
+      BatchGetGroupsRequest request, StreamObserver<BatchGetGroupsResponse> responseObserver) {
+
+    val authInfo = ApplicationAuthInterceptor.AUTH_INFO.get();
+    if (authInfo != null) {
+      // Auth Checks - must be admin or an app
+      if (!(authInfo.isAdmin() || authInfo.isApp())) {
+        responseObserver.onError(
+            Status.UNAUTHENTICATED
+                .withDescription("Must be an application or ADMIN user.")
+                .asRuntimeException());
+        return;
+      }
+    }
+
+    List<UUID> ids;
+    try {
+      ids = parseIds(request.getIdsList());
+    } catch (MalformedRequestException e) {
+      log.info("gRPC BatchGetGroups received invalid IDs: {}", e.getMessage());
+      responseObserver.onError(
+          Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException());
+      return;
+    }
+
+    val output = BatchGetGroupsResponse.newBuilder();
+    groupService.getSummaries(ids).forEach(group -> output.addGroups(toProto(group)));
+
+    responseObserver.onNext(output.build());
+    responseObserver.onCompleted();
+  }
+
+  private static Group toProto(GroupSummary group) {
+    return Group.newBuilder()
+        .setId(toProtoString(group.getId()))
+        .setName(toProtoString(group.getName()))
+        .setDescription(toProtoString(group.getDescription()))
+        .setStatus(toProtoString(group.getStatus()))
+        .setPermissionVersion(Int64Value.of(group.getPermissionVersion()))
+        .build();
+  }
+}
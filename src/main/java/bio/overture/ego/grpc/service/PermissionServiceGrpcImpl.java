@@ -0,0 +1,77 @@
+package bio.overture.ego.grpc.service;
+
+import static bio.overture.ego.grpc.ProtoUtils.parseIds;
+
+import bio.overture.ego.grpc.GetEffectiveScopesRequest;
+import bio.overture.ego.grpc.GetEffectiveScopesResponse;
+import bio.overture.ego.grpc.PermissionServiceGrpc;
+import bio.overture.ego.grpc.UserScopes;
+import bio.overture.ego.grpc.interceptor.ApplicationAuthInterceptor;
+import bio.overture.ego.model.dto.UserExport;
+import bio.overture.ego.model.exceptions.MalformedRequestException;
+import bio.overture.ego.service.UserExportService;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import java.util.List;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+public class PermissionServiceGrpcImpl extends PermissionServiceGrpc.PermissionServiceImplBase {
+
+  private final UserExportService userExportService;
+
+  @Autowired
+  public PermissionServiceGrpcImpl(UserExportService userExportService) {
+    this.userExportService = userExportService;
+  }
+
+  @Override
+  public void getEffectiveScopes(
+      GetEffectiveScopesRequest request,
+      StreamObserver<GetEffectiveScopesResponse> responseObserver) {
+
+    List<UUID> userIds;
+    try {
+      userIds = parseIds(request.getUserIdsList());
+    } catch (MalformedRequestException e) {
+      log.info("gRPC GetEffectiveScopes received invalid IDs: {}", e.getMessage());
+      responseObserver.onError(
+          Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException());
+      return;
+    }
+
+    val authInfo = ApplicationAuthInterceptor.AUTH_INFO.get();
+    if (authInfo != null) {
+
+      // Auth Checks - must be Admin, or an app, or a user requesting their own scopes.
+      val selfRequest = authInfo.isUser() && List.of(authInfo.getId()).equals(userIds);
+      if (!(authInfo.isAdmin() || authInfo.isApp() || selfRequest)) {
+        responseObserver.onError(
+            Status.UNAUTHENTICATED
+                .withDescription("Must be ADMIN or a user requesting themselves.")
+                .asRuntimeException());
+        return;
+      }
+    }
+
+    // Scopes are resolved for the whole batch with one query per relationship
+    val output = GetEffectiveScopesResponse.newBuilder();
+    userExportService.readUsers(userIds).forEach(user -> output.addUsers(toProto(user)));
+
+    responseObserver.onNext(output.build());
+    responseObserver.onCompleted();
+  }
+
+  private static UserScopes toProto(UserExport user) {
+    return UserScopes.newBuilder()
+        .setUserId(user.getId().toString())
+        .addAllScopes(user.getScopes())
+        .setPermissionVersion(user.getPermissionVersion())
+        .build();
+  }
+}
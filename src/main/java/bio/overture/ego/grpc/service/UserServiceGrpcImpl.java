@@ -2,16 +2,31 @@ package bio.overture.ego.grpc.service;
 
 import static bio.overture.ego.grpc.ProtoUtils.createPagedResponse;
 import static bio.overture.ego.grpc.ProtoUtils.getPageable;
+import static bio.overture.ego.grpc.ProtoUtils.parseIds;
+import static bio.overture.ego.grpc.ProtoUtils.toProtoString;
+import static bio.overture.ego.service.UserExportService.DEFAULT_CHUNK_SIZE;
+import static bio.overture.ego.utils.CollectionUtils.mapToImmutableSet;
 
 import bio.overture.ego.grpc.*;
 import bio.overture.ego.grpc.interceptor.ApplicationAuthInterceptor;
+import bio.overture.ego.model.dto.UserExport;
+import bio.overture.ego.model.dto.UserSummary;
+import bio.overture.ego.model.exceptions.MalformedRequestException;
 import bio.overture.ego.model.exceptions.NotFoundException;
+import bio.overture.ego.service.UserExportService;
 import bio.overture.ego.service.UserService;
 import bio.overture.ego.utils.CollectionUtils;
+import com.google.protobuf.Int64Value;
 import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
+import java.util.ArrayDeque;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -23,10 +38,12 @@ import org.springframework.stereotype.Component;
 public class UserServiceGrpcImpl extends UserServiceGrpc.UserServiceImplBase {
 
   private final UserService userService;
+  private final UserExportService userExportService;
 
   @Autowired
-  public UserServiceGrpcImpl(UserService userService) {
+  public UserServiceGrpcImpl(UserService userService, UserExportService userExportService) {
     this.userService = userService;
+    this.userExportService = userExportService;
   }
 
   @Override
@@ -88,41 +105,194 @@ public class UserServiceGrpcImpl extends UserServiceGrpc.UserServiceImplBase {
     val output = ListUsersResponse.newBuilder();
 
     // Find Page of users (filtered by groups if provided)
-    val userPage = findUsersForListRequest(request);
+    Page<UUID> userIdPage;
+    try {
+      userIdPage = findUserIdsForListRequest(request);
+    } catch (MalformedRequestException e) {
+      log.info("gRPC List UserService received invalid page token:", e.getMessage());
+      responseObserver.onError(
+          Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException());
+      return;
+    }
+
+    // Relationships are loaded in batches for the whole page, and the users keep the page order
+    userExportService
+        .readUsers(userIdPage.getContent())
+        .forEach(user -> output.addUsers(toProto(user)));
+
+    output.setPage(createPagedResponse(userIdPage, request.getPage().getPageNumber()));
+
+    responseObserver.onNext(output.build());
+    responseObserver.onCompleted();
+  }
+
+  @Override
+  public void streamUsers(StreamUsersRequest request, StreamObserver<User> responseObserver) {
+
+    val authInfo = ApplicationAuthInterceptor.AUTH_INFO.get();
+    if (authInfo != null) {
+      // Auth Checks - must be admin or an app
+      if (!(authInfo.isAdmin() || authInfo.isApp())) {
+        responseObserver.onError(
+            Status.UNAUTHENTICATED
+                .withDescription("Must be an application or ADMIN user.")
+                .asRuntimeException());
+        return;
+      }
+    }
+
+    val query = request.hasQuery() ? request.getQuery().getValue() : "";
+    val pageSize = request.getPageSize();
+    val chunkSize = pageSize == 0 ? DEFAULT_CHUNK_SIZE : pageSize;
+    Set<UUID> groupIds;
+    try {
+      groupIds = mapToImmutableSet(request.getGroupIdsList(), UUID::fromString);
+    } catch (IllegalArgumentException e) {
+      log.info("gRPC StreamUsers received invalid group ID: {}", e.getMessage());
+      responseObserver.onError(
+          Status.INVALID_ARGUMENT
+              .withDescription("Group IDs must be valid UUIDs.")
+              .asRuntimeException());
+      return;
+    }
+
+    // Users are sent from the onReady callbacks of the call, so a slow client holds back the reads
+    val stream = new UserStream(responseObserver, query, groupIds, chunkSize);
+    if (responseObserver instanceof ServerCallStreamObserver) {
+      val serverObserver = (ServerCallStreamObserver<User>) responseObserver;
+      serverObserver.setOnCancelHandler(stream::cancel);
+      serverObserver.setOnReadyHandler(stream);
+    } else {
+      stream.run();
+    }
+  }
 
-    if (userPage.hasContent()) {
-      val userIds = CollectionUtils.mapToImmutableSet(userPage.getContent(), user -> user.getId());
+  @Override
+  public void batchGetUsers(
+      BatchGetUsersRequest request, StreamObserver<BatchGetUsersResponse> responseObserver) {
 
-      // Only run this fetch if we have at least 1 user ID, filtering by empty list throws error
-      val users = userService.getMany(userIds, true, true, true);
+    val authInfo = ApplicationAuthInterceptor.AUTH_INFO.get();
+    if (authInfo != null) {
+      // Auth Checks - must be admin or an app
+      if (!(authInfo.isAdmin() || authInfo.isApp())) {
+        responseObserver.onError(
+            Status.UNAUTHENTICATED
+                .withDescription("Must be an application or ADMIN user.")
+                .asRuntimeException());
+        return;
+      }
+    }
 
-      // Add to output in order from first query
-      userIds.forEach(
-          id ->
-              users.stream()
-                  .filter(user -> user.getId().equals(id))
-                  .findFirst()
-                  .ifPresent(user -> output.addUsers(user.toProto())));
+    List<UUID> ids;
+    try {
+      ids = parseIds(request.getIdsList());
+    } catch (MalformedRequestException e) {
+      log.info("gRPC BatchGetUsers received invalid IDs: {}", e.getMessage());
+      responseObserver.onError(
+          Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException());
+      return;
     }
 
-    output.setPage(createPagedResponse(userPage, request.getPage().getPageNumber()));
+    val output = BatchGetUsersResponse.newBuilder();
+    userExportService.readUsers(ids).forEach(user -> output.addUsers(toProto(user)));
 
     responseObserver.onNext(output.build());
     responseObserver.onCompleted();
   }
 
-  private Page<bio.overture.ego.model.entity.User> findUsersForListRequest(
-      ListUsersRequest request) {
+  private static boolean isReady(StreamObserver<User> responseObserver) {
+    return !(responseObserver instanceof ServerCallStreamObserver)
+        || ((ServerCallStreamObserver<User>) responseObserver).isReady();
+  }
+
+  private static User toProto(UserExport user) {
+    return User.newBuilder()
+        .setId(toProtoString(user.getId()))
+        .setEmail(toProtoString(user.getEmail()))
+        .setFirstName(toProtoString(user.getFirstName()))
+        .setLastName(toProtoString(user.getLastName()))
+        .setCreatedAt(toProtoString(user.getCreatedAt()))
+        .setLastLogin(toProtoString(user.getLastLogin()))
+        .setPreferredLanguage(toProtoString(user.getPreferredLanguage()))
+        .setStatus(toProtoString(user.getStatus()))
+        .setType(toProtoString(user.getType()))
+        .setProviderType(toProtoString(user.getProviderType()))
+        .setProviderSubjectId(toProtoString(user.getProviderSubjectId()))
+        .setPermissionVersion(Int64Value.of(user.getPermissionVersion()))
+        .addAllApplications(mapToImmutableSet(user.getApplications(), UUID::toString))
+        .addAllGroups(mapToImmutableSet(user.getGroups(), UUID::toString))
+        .addAllScopes(user.getScopes())
+        .build();
+  }
+
+  private Page<UUID> findUserIdsForListRequest(ListUsersRequest request) {
     val query = request.hasQuery() ? request.getQuery().getValue() : "";
     val groups = request.getGroupIdsList();
     val pageable = getPageable(request.getPage());
 
     if (groups.isEmpty()) {
-      return userService.findUsers(query, Collections.EMPTY_LIST, pageable);
+      return userService
+          .findUsers(query, Collections.emptyList(), pageable)
+          .map(UserSummary::getId);
 
     } else {
       val groupIds = CollectionUtils.mapToImmutableSet(groups, group -> UUID.fromString(group));
-      return userService.findUsersForGroups(groupIds, query, Collections.EMPTY_LIST, pageable);
+      return userService
+          .findUsersForGroups(groupIds, query, Collections.emptyList(), pageable)
+          .map(bio.overture.ego.model.entity.User::getId);
+    }
+  }
+
+  /**
+   * Sends the users of a StreamUsers call while the transport is ready, and resumes each time gRPC
+   * reports it ready again. A chunk of users is only read from the database once the previous one
+   * was sent, so the memory held per call is bounded by the chunk size.
+   */
+  @RequiredArgsConstructor
+  private class UserStream implements Runnable {
+
+    private final StreamObserver<User> responseObserver;
+    private final String query;
+    private final Set<UUID> groupIds;
+    private final int chunkSize;
+
+    private final Deque<User> pending = new ArrayDeque<>();
+    private UUID afterId;
+    private volatile boolean done;
+
+    @Override
+    public synchronized void run() {
+      try {
+        while (!done && isReady(responseObserver)) {
+          if (pending.isEmpty() && !readChunk()) {
+            done = true;
+            responseObserver.onCompleted();
+            return;
+          }
+          responseObserver.onNext(pending.poll());
+        }
+      } catch (RuntimeException e) {
+        log.error("gRPC StreamUsers failed after user '{}'", afterId, e);
+        done = true;
+        responseObserver.onError(
+            Status.INTERNAL.withDescription("Failed to read users.").asRuntimeException());
+      }
+    }
+
+    public void cancel() {
+      log.debug("gRPC StreamUsers cancelled by the client after user '{}'", afterId);
+      done = true;
+    }
+
+    /** Reads the chunk following the last user read, false once every user was read */
+    private boolean readChunk() {
+      val users = userExportService.readUsers(query, groupIds, afterId, chunkSize);
+      if (users.isEmpty()) {
+        return false;
+      }
+      users.forEach(user -> pending.add(toProto(user)));
+      afterId = users.get(users.size() - 1).getId();
+      return true;
     }
   }
 }
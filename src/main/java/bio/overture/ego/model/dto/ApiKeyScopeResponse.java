@@ -14,4 +14,5 @@ public class ApiKeyScopeResponse {
   private UUID user_id;
   private Long exp;
   private Set<String> scope;
+  private long permission_version;
 }
@@ -0,0 +1,45 @@
+package bio.overture.ego.model.dto;
+
+import bio.overture.ego.model.enums.ApplicationType;
+import bio.overture.ego.model.enums.JavaFields;
+import bio.overture.ego.model.enums.StatusType;
+import bio.overture.ego.view.Views;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.annotation.JsonView;
+import java.util.UUID;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Columns of an application read for listings, serialized the same way as the application itself,
+ * which leaves out missing values.
+ */
+@Data
+@NoArgsConstructor
+@JsonPropertyOrder({
+  JavaFields.ID,
+  JavaFields.NAME,
+  JavaFields.APPLICATIONTYPE,
+  JavaFields.CLIENTID,
+  JavaFields.CLIENTSECRET,
+  JavaFields.REDIRECTURI,
+  JavaFields.DESCRIPTION,
+  JavaFields.STATUS,
+  JavaFields.ERROR_REDIRECT_URI
+})
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonView(Views.REST.class)
+public class ApplicationSummary {
+
+  private UUID id;
+  private String name;
+  private ApplicationType type;
+  private String clientId;
+  private String clientSecret;
+  private String redirectUri;
+  private String description;
+  private String errorRedirectUri;
+  private StatusType status;
+  private long permissionVersion;
+}
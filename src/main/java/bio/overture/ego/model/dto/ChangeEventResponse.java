@@ -0,0 +1,28 @@
+package bio.overture.ego.model.dto;
+
+import bio.overture.ego.model.enums.ChangeEntityType;
+import bio.overture.ego.model.enums.ChangeOperation;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.Date;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@JsonInclude
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChangeEventResponse {
+
+  /** Opaque position of this event; pass it back to resume the feed right after it */
+  private String cursor;
+
+  private ChangeEntityType entityType;
+  private ChangeOperation operation;
+  private UUID entityId;
+  private UUID relatedId;
+  private Date createdAt;
+}
@@ -0,0 +1,24 @@
+package bio.overture.ego.model.dto;
+
+import bio.overture.ego.model.enums.JavaFields;
+import bio.overture.ego.model.enums.StatusType;
+import bio.overture.ego.view.Views;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.annotation.JsonView;
+import java.util.UUID;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Columns of a group read for listings, serialized the same way as the group itself */
+@Data
+@NoArgsConstructor
+@JsonPropertyOrder({JavaFields.ID, JavaFields.NAME, JavaFields.DESCRIPTION, JavaFields.STATUS})
+@JsonView(Views.REST.class)
+public class GroupSummary {
+
+  private UUID id;
+  private String name;
+  private String description;
+  private StatusType status;
+  private long permissionVersion;
+}
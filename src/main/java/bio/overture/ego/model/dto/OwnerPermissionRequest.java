@@ -0,0 +1,25 @@
+package bio.overture.ego.model.dto;
+
+import bio.overture.ego.model.enums.AccessLevel;
+import java.util.UUID;
+import javax.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OwnerPermissionRequest {
+
+  @NotNull private UUID ownerId;
+
+  @NotNull private AccessLevel mask;
+
+  @Override
+  public String toString() {
+    return ownerId + "." + mask;
+  }
+}
@@ -16,7 +16,11 @@
 
 package bio.overture.ego.model.dto;
 
+import static bio.overture.ego.model.search.CountMode.NONE;
+
+import bio.overture.ego.model.search.CursorPage;
 import bio.overture.ego.view.Views;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonView;
 import java.util.List;
 import lombok.Getter;
@@ -29,13 +33,23 @@ public class PageDTO<T> {
 
   private final int limit;
   private final int offset;
-  private final long count;
+  /** Estimated when the estimate count mode was asked for, absent when counting was skipped */
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private final Long count;
+
+  private final boolean hasNext;
   private final List<T> resultSet;
 
+  /** Continues the listing after this page, absent on the last page */
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private final String nextCursor;
+
   public PageDTO(@NonNull final Page<T> page) {
     this.limit = page.getSize();
     this.offset = page.getNumber();
-    this.count = page.getTotalElements();
+    this.count = CursorPage.getCountMode(page) == NONE ? null : page.getTotalElements();
+    this.hasNext = CursorPage.hasNext(page);
     this.resultSet = page.getContent();
+    this.nextCursor = CursorPage.getNextCursor(page);
   }
 }
@@ -0,0 +1,16 @@
+package bio.overture.ego.model.dto;
+
+import bio.overture.ego.view.Views;
+import com.fasterxml.jackson.annotation.JsonView;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+@JsonView(Views.REST.class)
+public class PermissionVersionResponse {
+
+  private UUID userId;
+  private long permissionVersion;
+}
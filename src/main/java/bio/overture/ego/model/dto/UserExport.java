@@ -0,0 +1,37 @@
+package bio.overture.ego.model.dto;
+
+import bio.overture.ego.model.enums.LanguageType;
+import bio.overture.ego.model.enums.ProviderType;
+import bio.overture.ego.model.enums.StatusType;
+import bio.overture.ego.model.enums.UserType;
+import java.util.Date;
+import java.util.Set;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** A user with the ids of its groups and applications and its resolved scopes */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserExport {
+
+  private UUID id;
+  private String email;
+  private String firstName;
+  private String lastName;
+  private UserType type;
+  private StatusType status;
+  private ProviderType providerType;
+  private String providerSubjectId;
+  private LanguageType preferredLanguage;
+  private Date createdAt;
+  private Date lastLogin;
+  private long permissionVersion;
+  private Set<UUID> groups;
+  private Set<UUID> applications;
+  private Set<String> scopes;
+}
@@ -0,0 +1,24 @@
+package bio.overture.ego.model.dto;
+
+import bio.overture.ego.model.enums.ImportStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserImportResult {
+
+  /** 1-based position of the row in the imported document */
+  private long row;
+
+  private ImportStatus status;
+  private UUID id;
+  private String error;
+}
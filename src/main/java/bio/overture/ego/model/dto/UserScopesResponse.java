@@ -12,4 +12,5 @@ import lombok.Getter;
 public class UserScopesResponse {
 
   private Set<String> scopes;
+  private long permissionVersion;
 }
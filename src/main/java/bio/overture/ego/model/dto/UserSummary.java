@@ -0,0 +1,49 @@
+package bio.overture.ego.model.dto;
+
+import bio.overture.ego.model.enums.JavaFields;
+import bio.overture.ego.model.enums.LanguageType;
+import bio.overture.ego.model.enums.ProviderType;
+import bio.overture.ego.model.enums.StatusType;
+import bio.overture.ego.model.enums.UserType;
+import bio.overture.ego.view.Views;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.annotation.JsonView;
+import java.util.Date;
+import java.util.UUID;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Columns of a user read for listings, serialized the same way as the user itself */
+@Data
+@NoArgsConstructor
+@JsonPropertyOrder({
+  JavaFields.ID,
+  JavaFields.EMAIL,
+  JavaFields.USERTYPE,
+  JavaFields.STATUS,
+  JavaFields.FIRSTNAME,
+  JavaFields.LASTNAME,
+  JavaFields.CREATEDAT,
+  JavaFields.LASTLOGIN,
+  JavaFields.PREFERREDLANGUAGE,
+  JavaFields.PROVIDERTYPE,
+  JavaFields.PROVIDER_SUBJECT_ID
+})
+@JsonInclude()
+@JsonView(Views.REST.class)
+public class UserSummary {
+
+  private UUID id;
+  private String email;
+  private UserType type;
+  private StatusType status;
+  private String firstName;
+  private String lastName;
+  private Date createdAt;
+  private Date lastLogin;
+  private LanguageType preferredLanguage;
+  private ProviderType providerType;
+  private String providerSubjectId;
+  private long permissionVersion;
+}
@@ -0,0 +1,43 @@
+package bio.overture.ego.model.entity;
+
+import bio.overture.ego.model.enums.SqlFields;
+import bio.overture.ego.model.enums.Tables;
+import java.util.Date;
+import java.util.UUID;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A pending request to re-check the api keys of a user against their current scopes. There is at
+ * most one row per user: repeated requests only bump the request count.
+ */
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = Tables.APIKEY_CLEANUP)
+public class ApiKeyCleanup {
+
+  @Id
+  @Column(name = SqlFields.USER_ID, updatable = false, nullable = false)
+  private UUID userId;
+
+  @Column(name = SqlFields.ENQUEUEDAT, nullable = false)
+  private Date enqueuedAt;
+
+  @Column(name = SqlFields.REQUESTCOUNT, nullable = false)
+  private long requestCount;
+
+  @Column(name = SqlFields.ATTEMPTS, nullable = false)
+  private int attempts;
+
+  @Column(name = SqlFields.NEXTATTEMPTAT, nullable = false)
+  private Date nextAttemptAt;
+}
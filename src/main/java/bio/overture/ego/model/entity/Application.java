@@ -26,6 +26,7 @@ import bio.overture.ego.model.enums.StatusType;
 import bio.overture.ego.model.enums.Tables;
 import bio.overture.ego.model.join.GroupApplication;
 import bio.overture.ego.model.join.UserApplication;
+import bio.overture.ego.model.search.NotSortable;
 import bio.overture.ego.view.Views;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
@@ -108,6 +109,7 @@ public class Application implements PolicyOwner, NameableEntity<UUID> {
   private String clientId;
 
   @NotNull
+  @NotSortable
   @Column(name = SqlFields.CLIENTSECRET, nullable = false)
   private String clientSecret;
 
@@ -130,6 +132,14 @@ public class Application implements PolicyOwner, NameableEntity<UUID> {
   @Column(name = SqlFields.STATUS, nullable = false)
   private StatusType status;
 
+  /**
+   * Incremented whenever the effective permissions change. Only ever written by the bulk
+   * increment queries, so it is excluded from inserts and updates.
+   */
+  @JsonView({Views.JWTAccessToken.class, Views.REST.class})
+  @Column(name = SqlFields.PERMISSIONVERSION, insertable = false, updatable = false)
+  private long permissionVersion;
+
   @JsonIgnore
   @Builder.Default
   @OneToMany(
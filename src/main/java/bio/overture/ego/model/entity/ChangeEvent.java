@@ -0,0 +1,70 @@
+package bio.overture.ego.model.entity;
+
+import bio.overture.ego.model.enums.ChangeEntityType;
+import bio.overture.ego.model.enums.ChangeOperation;
+import bio.overture.ego.model.enums.SqlFields;
+import bio.overture.ego.model.enums.Tables;
+import java.util.Date;
+import java.util.UUID;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * An entry of the change feed, written in the same transaction as the mutation it describes. The
+ * transaction id and creation time are assigned by the database on insert.
+ */
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = Tables.CHANGE_EVENT)
+public class ChangeEvent {
+
+  /** Constants */
+  private static final String ID_GENERATOR = "changeEventIdGenerator";
+
+  /** Must match the increment of changeevent_id_seq */
+  private static final int ID_ALLOCATION_SIZE = 50;
+
+  /** Ids are drawn in blocks from the sequence, so the events of a bulk change insert in batches */
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_GENERATOR)
+  @SequenceGenerator(
+      name = ID_GENERATOR,
+      sequenceName = "changeevent_id_seq",
+      allocationSize = ID_ALLOCATION_SIZE)
+  @Column(name = SqlFields.ID, updatable = false, nullable = false)
+  private Long id;
+
+  @Column(name = SqlFields.TXID, insertable = false, updatable = false)
+  private Long txId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = SqlFields.ENTITYTYPE, nullable = false, updatable = false)
+  private ChangeEntityType entityType;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = SqlFields.OPERATION, nullable = false, updatable = false)
+  private ChangeOperation operation;
+
+  @Column(name = SqlFields.ENTITYID, nullable = false, updatable = false)
+  private UUID entityId;
+
+  @Column(name = SqlFields.RELATEDID, updatable = false)
+  private UUID relatedId;
+
+  @Column(name = SqlFields.CREATEDAT, insertable = false, updatable = false)
+  private Date createdAt;
+}
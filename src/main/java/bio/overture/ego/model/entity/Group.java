@@ -92,6 +92,13 @@ public class Group implements PolicyOwner, NameableEntity<UUID> {
   @Column(name = SqlFields.STATUS, nullable = false)
   private StatusType status;
 
+  /**
+   * Incremented whenever the effective permissions change. Only ever written by the bulk
+   * increment queries, so it is excluded from inserts and updates.
+   */
+  @Column(name = SqlFields.PERMISSIONVERSION, insertable = false, updatable = false)
+  private long permissionVersion;
+
   // TODO: [rtisma] rename this to groupPermissions.
   // Ensure anything using JavaFields.PERMISSIONS is also replaced with JavaFields.GROUPPERMISSIONS
   @JsonIgnore
@@ -33,6 +33,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import com.fasterxml.jackson.annotation.JsonView;
+import com.google.protobuf.Int64Value;
 import com.vladmihalcea.hibernate.type.basic.PostgreSQLEnumType;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
@@ -151,6 +152,14 @@ public class User implements PolicyOwner, Identifiable<UUID> {
   @Column(name = SqlFields.PROVIDERSUBJECTID, nullable = false)
   private String providerSubjectId;
 
+  /**
+   * Incremented whenever the effective permissions change. Only ever written by the bulk
+   * increment queries, so it is excluded from inserts and updates.
+   */
+  @JsonView({Views.JWTAccessToken.class, Views.REST.class})
+  @Column(name = SqlFields.PERMISSIONVERSION, insertable = false, updatable = false)
+  private long permissionVersion;
+
   @JsonIgnore
   @OneToMany(
       mappedBy = JavaFields.OWNER,
@@ -237,7 +246,8 @@ public class User implements PolicyOwner, Identifiable<UUID> {
             .setStatus(toProtoString(this.getStatus()))
             .setType(toProtoString(this.getType()))
             .setProviderType(toProtoString(this.getProviderType()))
-            .setProviderSubjectId(toProtoString(this.getProviderSubjectId()));
+            .setProviderSubjectId(toProtoString(this.getProviderSubjectId()))
+            .setPermissionVersion(Int64Value.of(this.getPermissionVersion()));
 
     try {
       final Set<String> applications =
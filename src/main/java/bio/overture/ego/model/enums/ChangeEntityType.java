@@ -0,0 +1,25 @@
+package bio.overture.ego.model.enums;
+
+/**
+ * The kind of record a change event refers to. For associations the entity id is the left-hand
+ * side of the name (e.g. the user of a USER_GROUP) and the related id is the right-hand side; for
+ * permissions the entity id is the owner and the related id is the policy. Deleting an entity
+ * implicitly removes its associations and permissions, which are not reported separately.
+ */
+public enum ChangeEntityType {
+  USER,
+  GROUP,
+  APPLICATION,
+  POLICY,
+  USER_GROUP,
+  USER_APPLICATION,
+  GROUP_APPLICATION,
+  USER_PERMISSION,
+  GROUP_PERMISSION,
+  APPLICATION_PERMISSION;
+
+  @Override
+  public String toString() {
+    return this.name();
+  }
+}
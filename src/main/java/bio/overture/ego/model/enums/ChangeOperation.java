@@ -0,0 +1,12 @@
+package bio.overture.ego.model.enums;
+
+public enum ChangeOperation {
+  CREATED,
+  UPDATED,
+  DELETED;
+
+  @Override
+  public String toString() {
+    return this.name();
+  }
+}
@@ -27,4 +27,7 @@ public class Fields {
   public static final String NAME = "name";
   public static final String EMAIL = "email";
   public static final String PROVIDERTYPE = "providerType";
+  public static final String STATUS = "status";
+  public static final String TYPE = "type";
+  public static final String CREATEDAT = "createdAt";
 }
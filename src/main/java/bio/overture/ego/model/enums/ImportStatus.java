@@ -0,0 +1,11 @@
+package bio.overture.ego.model.enums;
+
+public enum ImportStatus {
+  CREATED,
+  FAILED;
+
+  @Override
+  public String toString() {
+    return this.name();
+  }
+}
@@ -66,4 +66,5 @@ public class JavaFields {
   public static final String PROVIDERTYPE = "providerType";
   public static final String PROVIDER_SUBJECT_ID = "providerSubjectId";
   public static final String ERROR_REDIRECT_URI = "errorRedirectUri";
+  public static final String PERMISSION_VERSION = "permissionVersion";
 }
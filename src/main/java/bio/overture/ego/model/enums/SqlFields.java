@@ -38,4 +38,14 @@ public class SqlFields {
   public static final String PROVIDERSUBJECTID = "providersubjectid";
   public static final String INITIALIZED = "initialized";
   public static final String ERRORREDIRECTURI = "errorredirecturi";
+  public static final String PERMISSIONVERSION = "permissionversion";
+  public static final String ENQUEUEDAT = "enqueuedat";
+  public static final String REQUESTCOUNT = "requestcount";
+  public static final String ATTEMPTS = "attempts";
+  public static final String NEXTATTEMPTAT = "nextattemptat";
+  public static final String TXID = "txid";
+  public static final String ENTITYTYPE = "entitytype";
+  public static final String OPERATION = "operation";
+  public static final String ENTITYID = "entityid";
+  public static final String RELATEDID = "relatedid";
 }
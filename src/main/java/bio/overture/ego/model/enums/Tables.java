@@ -22,4 +22,6 @@ public class Tables {
   public static final String APPLICATION_PERMISSION = "applicationpermission";
   public static final String DEFAULTPROVIDERTRIPWIRE = "defaultprovidertripwire";
   public static final String INITTRIPWIRE = "inittripwire";
+  public static final String APIKEY_CLEANUP = "apikeycleanup";
+  public static final String CHANGE_EVENT = "changeevent";
 }
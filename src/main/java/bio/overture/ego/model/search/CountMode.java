@@ -0,0 +1,29 @@
+package bio.overture.ego.model.search;
+
+import static bio.overture.ego.model.exceptions.MalformedRequestException.buildMalformedRequest;
+
+import java.util.Arrays;
+import lombok.NonNull;
+
+/** How the total number of rows of a paged listing is computed */
+public enum CountMode {
+
+  /** Counts every matching row */
+  EXACT,
+
+  /** Reads the row count from the planner statistics when the listing is not filtered */
+  ESTIMATE,
+
+  /** Skips the count, only reporting whether another page follows */
+  NONE;
+
+  public static CountMode resolveCountMode(@NonNull String countMode) {
+    return Arrays.stream(values())
+        .filter(x -> x.name().equalsIgnoreCase(countMode))
+        .findFirst()
+        .orElseThrow(
+            () ->
+                buildMalformedRequest(
+                    "The count mode '%s' is not one of %s", countMode, Arrays.toString(values())));
+  }
+}
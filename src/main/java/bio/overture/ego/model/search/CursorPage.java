@@ -0,0 +1,69 @@
+package bio.overture.ego.model.search;
+
+import static bio.overture.ego.model.search.CountMode.EXACT;
+
+import java.util.List;
+import java.util.function.Function;
+import lombok.Getter;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Page that also carries the cursor of its last row, null when no further page can follow, and
+ * whether its total is exact, estimated or was not counted.
+ */
+public class CursorPage<T> extends PageImpl<T> {
+
+  @Getter private final String nextCursor;
+  @Getter private final CountMode countMode;
+  private final boolean hasNext;
+
+  public CursorPage(
+      List<T> content,
+      Pageable pageable,
+      long total,
+      String nextCursor,
+      CountMode countMode,
+      boolean hasNext) {
+    super(content, pageable, total);
+    this.nextCursor = nextCursor;
+    this.countMode = countMode;
+    this.hasNext = hasNext;
+  }
+
+  /** Known from reading one row past the page, so it holds even when the total was not counted */
+  @Override
+  public boolean hasNext() {
+    return hasNext;
+  }
+
+  public static String getNextCursor(Page<?> page) {
+    return page instanceof CursorPage ? ((CursorPage<?>) page).getNextCursor() : null;
+  }
+
+  public static CountMode getCountMode(Page<?> page) {
+    return page instanceof CursorPage ? ((CursorPage<?>) page).getCountMode() : EXACT;
+  }
+
+  /** Pages built without a cursor only know their position from the offset and the total */
+  public static boolean hasNext(Page<?> page) {
+    return page instanceof CursorPage
+        ? page.hasNext()
+        : page.getPageable().isPaged()
+            && page.getPageable().getOffset() + page.getNumberOfElements()
+                < page.getTotalElements();
+  }
+
+  /** Keeps the cursor when the content is converted, for example to response DTOs */
+  @Override
+  public <U> CursorPage<U> map(Function<? super T, ? extends U> converter) {
+    return new CursorPage<>(
+        getConvertedContent(converter),
+        getPageable(),
+        getTotalElements(),
+        nextCursor,
+        countMode,
+        hasNext);
+  }
+}
@@ -0,0 +1,30 @@
+package bio.overture.ego.model.search;
+
+import java.util.Optional;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Pageable that may continue from a cursor instead of an offset, and may relax how the total is
+ * counted. When a cursor is present the offset is ignored and the listing is sorted by the
+ * cursor's property.
+ */
+public interface CursorPageable extends Pageable {
+
+  Optional<PageCursor> getCursor();
+
+  default CountMode getCountMode() {
+    return CountMode.EXACT;
+  }
+
+  static Optional<PageCursor> getCursor(Pageable pageable) {
+    return pageable instanceof CursorPageable
+        ? ((CursorPageable) pageable).getCursor()
+        : Optional.empty();
+  }
+
+  static CountMode getCountMode(Pageable pageable) {
+    return pageable instanceof CursorPageable
+        ? ((CursorPageable) pageable).getCountMode()
+        : CountMode.EXACT;
+  }
+}
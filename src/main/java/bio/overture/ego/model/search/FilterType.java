@@ -0,0 +1,14 @@
+package bio.overture.ego.model.search;
+
+/** How the value of a filter query parameter is compared with its field */
+public enum FilterType {
+
+  /** Equal to one value, or to any of several separated by commas. For id and enum fields. */
+  EXACT,
+
+  /** Case insensitive substring. For free text fields. */
+  TEXT,
+
+  /** Inclusive start and exclusive end separated by "..", either of which may be left out */
+  DATE_RANGE
+}
@@ -0,0 +1,36 @@
+package bio.overture.ego.model.search;
+
+import static bio.overture.ego.model.enums.JavaFields.ID;
+import static org.springframework.data.domain.Sort.Direction.ASC;
+
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.lang.Nullable;
+
+/**
+ * Chunk of a walk over every matching row in id order, starting after the given id or from the
+ * first row when it is missing. The rows are found with a keyset predicate and the total is never
+ * counted, so each chunk costs the same however far the walk has gone.
+ */
+public class IdKeysetPageRequest extends PageRequest implements CursorPageable {
+
+  private final UUID afterId;
+
+  public IdKeysetPageRequest(@Nullable UUID afterId, int size) {
+    super(0, size, Sort.by(ASC, ID));
+    this.afterId = afterId;
+  }
+
+  @Override
+  public Optional<PageCursor> getCursor() {
+    return Optional.ofNullable(afterId)
+        .map(id -> PageCursor.builder().property(ID).direction(ASC).id(id).build());
+  }
+
+  @Override
+  public CountMode getCountMode() {
+    return CountMode.NONE;
+  }
+}
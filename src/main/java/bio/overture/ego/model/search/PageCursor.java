@@ -0,0 +1,64 @@
+package bio.overture.ego.model.search;
+
+import static bio.overture.ego.model.exceptions.MalformedRequestException.buildMalformedRequest;
+import static java.util.Objects.isNull;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Position in a sorted listing, made of the sort key and id of the last row already read. Clients
+ * receive it as an opaque token and pass it back to read the rows that follow, which lets the
+ * database seek to the position instead of skipping every preceding row.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageCursor {
+
+  /** Constants */
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private String property;
+  private Sort.Direction direction;
+  private boolean ignoreCase;
+
+  /** Sort key of the last row, null when the row has no value for the sort property */
+  private String value;
+
+  private UUID id;
+
+  public Sort.Order toOrder() {
+    val order = new Sort.Order(direction, property);
+    return ignoreCase ? order.ignoreCase() : order;
+  }
+
+  @SneakyThrows
+  public String encode() {
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(this));
+  }
+
+  public static PageCursor decode(@NonNull String token) {
+    PageCursor cursor;
+    try {
+      cursor = MAPPER.readValue(Base64.getUrlDecoder().decode(token), PageCursor.class);
+    } catch (IllegalArgumentException | IOException e) {
+      throw buildMalformedRequest("The cursor '%s' is malformed", token);
+    }
+    if (isNull(cursor.getProperty()) || isNull(cursor.getDirection()) || isNull(cursor.getId())) {
+      throw buildMalformedRequest("The cursor '%s' is malformed", token);
+    }
+    return cursor;
+  }
+}
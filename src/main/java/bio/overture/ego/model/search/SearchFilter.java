@@ -26,4 +26,5 @@ public class SearchFilter {
 
   @NonNull private String filterField;
   @NonNull private String filterValue;
+  @NonNull private FilterType filterType;
 }
@@ -0,0 +1,69 @@
+package bio.overture.ego.repository;
+
+import bio.overture.ego.model.entity.ApiKeyCleanup;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ApiKeyCleanupRepository extends JpaRepository<ApiKeyCleanup, UUID> {
+
+  /**
+   * Adds a request per existing user, coalescing with any request already pending for them. A new
+   * request starts over with no failed attempts.
+   */
+  @Modifying
+  @Query(
+      nativeQuery = true,
+      value =
+          "INSERT INTO apikeycleanup (user_id) "
+              + "SELECT u.id FROM egouser u WHERE u.id IN (:userIds) "
+              + "ON CONFLICT (user_id) DO UPDATE SET "
+              + "requestcount = apikeycleanup.requestcount + 1, attempts = 0, "
+              + "nextattemptat = now()")
+  int enqueue(@Param("userIds") Collection<UUID> userIds);
+
+  /** Locks a batch of due requests, skipping rows already locked by another worker */
+  @Query(
+      nativeQuery = true,
+      value =
+          "SELECT * FROM apikeycleanup WHERE nextattemptat <= now() "
+              + "ORDER BY enqueuedat LIMIT :limit FOR UPDATE SKIP LOCKED")
+  List<ApiKeyCleanup> findDueForUpdate(@Param("limit") int limit);
+
+  /** Hides the requests from other workers until the lease runs out */
+  @Modifying
+  @Query(
+      nativeQuery = true,
+      value =
+          "UPDATE apikeycleanup "
+              + "SET nextattemptat = now() + make_interval(secs => cast(:seconds AS float8)) "
+              + "WHERE user_id IN (:userIds)")
+  int lease(@Param("userIds") Collection<UUID> userIds, @Param("seconds") long seconds);
+
+  /** Counts a failed attempt and schedules the next one */
+  @Modifying
+  @Query(
+      nativeQuery = true,
+      value =
+          "UPDATE apikeycleanup SET attempts = attempts + 1, "
+              + "nextattemptat = now() + make_interval(secs => cast(:seconds AS float8)) "
+              + "WHERE user_id = :userId")
+  int recordFailure(@Param("userId") UUID userId, @Param("seconds") long seconds);
+
+  /** Removes the request unless it was requested again after it was claimed */
+  @Modifying
+  @Query(
+      nativeQuery = true,
+      value = "DELETE FROM apikeycleanup WHERE user_id = :userId AND requestcount = :requestCount")
+  int complete(@Param("userId") UUID userId, @Param("requestCount") long requestCount);
+
+  @Query(
+      nativeQuery = true,
+      value = "SELECT cast(extract(epoch FROM now() - min(enqueuedat)) AS float8) FROM apikeycleanup")
+  Optional<Double> findLagSeconds();
+}
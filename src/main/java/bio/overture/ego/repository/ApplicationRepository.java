@@ -17,10 +17,14 @@
 package bio.overture.ego.repository;
 
 import bio.overture.ego.model.entity.Application;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface ApplicationRepository extends NamedRepository<Application, UUID> {
 
@@ -32,6 +36,28 @@ public interface ApplicationRepository extends NamedRepository<Application, UUID
 
   Set<Application> findAllByIdIn(List<UUID> ids);
 
+  @Modifying
+  @Query(
+      value =
+          "update egoapplication set permissionversion = permissionversion + 1 "
+              + "where id in (:applicationIds)",
+      nativeQuery = true)
+  int incrementPermissionVersions(@Param("applicationIds") Collection<UUID> applicationIds);
+
+  /** Increments every application with a direct or group permission on the policy */
+  @Modifying
+  @Query(
+      value =
+          "update egoapplication set permissionversion = permissionversion + 1 where id in ("
+              + "select ap.application_id from applicationpermission ap "
+              + "where ap.policy_id = :policyId "
+              + "union "
+              + "select ga.application_id from groupapplication ga "
+              + "join grouppermission gp on gp.group_id = ga.group_id "
+              + "where gp.policy_id = :policyId)",
+      nativeQuery = true)
+  int incrementPermissionVersionsByPolicy(@Param("policyId") UUID policyId);
+
   /** Refer to NamedRepository.findByName Deprecation note */
   @Override
   @Deprecated
@@ -2,6 +2,9 @@ package bio.overture.ego.repository;
 
 import java.util.Collection;
 import java.util.Set;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.repository.NoRepositoryBean;
 import org.springframework.data.repository.PagingAndSortingRepository;
@@ -12,4 +15,7 @@ public interface BaseRepository<T, ID>
   T findFirstBy();
 
   Set<T> findAllByIdIn(Collection<ID> ids);
+
+  /** Reads a page of the given projection, selecting only the columns of its properties */
+  <R> Page<R> findAll(Specification<T> spec, Pageable pageable, Class<R> projection);
 }
@@ -0,0 +1,59 @@
+package bio.overture.ego.repository;
+
+import bio.overture.ego.model.entity.ChangeEvent;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ChangeEventRepository extends JpaRepository<ChangeEvent, Long> {
+
+  /**
+   * Reads the events after the (txid, id) cursor, in commit-safe order. Only transactions older
+   * than every transaction still in progress are visible, so a transaction that commits later can
+   * never land behind a cursor that has already been handed out.
+   */
+  @Query(
+      nativeQuery = true,
+      value =
+          "SELECT * FROM changeevent "
+              + "WHERE (txid, id) > (:txId, :id) "
+              + "AND txid < txid_snapshot_xmin(txid_current_snapshot()) "
+              + "ORDER BY txid, id LIMIT :limit")
+  List<ChangeEvent> findAfter(
+      @Param("txId") long txId, @Param("id") long id, @Param("limit") int limit);
+
+  /**
+   * Reads the last of the events findAfter would return, so a reader can learn where a page ends
+   * before reading it.
+   */
+  @Query(
+      nativeQuery = true,
+      value =
+          "SELECT * FROM ("
+              + "SELECT * FROM changeevent "
+              + "WHERE (txid, id) > (:txId, :id) "
+              + "AND txid < txid_snapshot_xmin(txid_current_snapshot()) "
+              + "ORDER BY txid, id LIMIT :limit) page "
+              + "ORDER BY txid DESC, id DESC LIMIT 1")
+  Optional<ChangeEvent> findLastAfter(
+      @Param("txId") long txId, @Param("id") long id, @Param("limit") int limit);
+
+  /**
+   * Reads the events after the (txid, id) cursor up to and including the end cursor. Every event up
+   * to an end cursor handed out by findAfter or findLastAfter is already committed.
+   */
+  @Query(
+      nativeQuery = true,
+      value =
+          "SELECT * FROM changeevent "
+              + "WHERE (txid, id) > (:txId, :id) AND (txid, id) <= (:endTxId, :endId) "
+              + "ORDER BY txid, id LIMIT :limit")
+  List<ChangeEvent> findBetween(
+      @Param("txId") long txId,
+      @Param("id") long id,
+      @Param("endTxId") long endTxId,
+      @Param("endId") long endId,
+      @Param("limit") int limit);
+}
@@ -0,0 +1,283 @@
+package bio.overture.ego.repository;
+
+import static bio.overture.ego.model.exceptions.MalformedRequestException.checkMalformedRequest;
+import static bio.overture.ego.model.search.CountMode.ESTIMATE;
+import static bio.overture.ego.model.search.CountMode.NONE;
+import static bio.overture.ego.repository.queryspecification.SpecificationBase.after;
+import static bio.overture.ego.repository.queryspecification.SpecificationBase.formatCursorValue;
+import static bio.overture.ego.repository.queryspecification.SpecificationBase.isCursorType;
+import static bio.overture.ego.utils.CollectionUtils.mapToList;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static java.util.Arrays.stream;
+import static java.util.Objects.isNull;
+import static java.util.stream.Collectors.toUnmodifiableList;
+import static javax.persistence.metamodel.Attribute.PersistentAttributeType.BASIC;
+import static org.springframework.data.jpa.domain.Specification.where;
+import static org.springframework.data.jpa.repository.query.QueryUtils.toOrders;
+
+import bio.overture.ego.model.search.CursorPage;
+import bio.overture.ego.model.search.CursorPageable;
+import bio.overture.ego.model.search.NotSortable;
+import bio.overture.ego.model.search.PageCursor;
+import com.google.common.collect.ImmutableSet;
+import java.beans.PropertyDescriptor;
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiFunction;
+import javax.persistence.EntityManager;
+import javax.persistence.Table;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.Selection;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.ManagedType;
+import javax.persistence.metamodel.SingularAttribute;
+import lombok.NonNull;
+import lombok.val;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.lang.Nullable;
+
+/**
+ * Base class of every repository. Pages sorted by a single property are additionally ordered by id,
+ * so rows never swap places between pages, and carry a cursor to the page that follows. A request
+ * continuing from a cursor seeks directly to it with a keyset predicate, so deep pages cost the
+ * same as the first one. The total is counted, estimated or skipped as the pageable asks. Pages can
+ * also be read as projections that select only the columns they need.
+ */
+public class CursorPagingRepository<T, ID extends Serializable> extends SimpleJpaRepository<T, ID> {
+
+  /** Dependencies */
+  private final JpaEntityInformation<T, ?> entityInformation;
+
+  private final EntityManager entityManager;
+
+  public CursorPagingRepository(
+      @NonNull JpaEntityInformation<T, ?> entityInformation, @NonNull EntityManager entityManager) {
+    super(entityInformation, entityManager);
+    this.entityInformation = entityInformation;
+    this.entityManager = entityManager;
+  }
+
+  @Override
+  public Page<T> findAll(@Nullable Specification<T> spec, @NonNull Pageable pageable) {
+    checkSortable(pageable.getSort());
+    if (!isKeyset(pageable)) {
+      return super.findAll(spec, pageable);
+    }
+    return readPage(
+        spec,
+        pageable,
+        this::getQuery,
+        (row, property) -> new BeanWrapperImpl(row).getPropertyValue(property));
+  }
+
+  /**
+   * Reads a page of the given projection, a bean whose properties are named after entity
+   * attributes. Only the columns of those properties are selected, so no entity is loaded into the
+   * persistence context and none of its lazy associations can be touched.
+   */
+  public <R> Page<R> findAll(
+      @Nullable Specification<T> spec, @NonNull Pageable pageable, @NonNull Class<R> projection) {
+    checkSortable(pageable.getSort());
+    val properties = getProjectedProperties(projection);
+    if (!isKeyset(pageable)) {
+      val query = getTupleQuery(spec, pageable.getSort(), properties);
+      if (pageable.isUnpaged()) {
+        return new PageImpl<>(mapToList(query.getResultList(), t -> toProjection(t, projection)));
+      }
+      query.setFirstResult((int) pageable.getOffset());
+      query.setMaxResults(pageable.getPageSize());
+      val content = mapToList(query.getResultList(), t -> toProjection(t, projection));
+      return PageableExecutionUtils.getPage(content, pageable, () -> count(spec));
+    }
+
+    // The sort property and the id are selected as well, since the next cursor is built from them
+    val order = pageable.getSort().iterator().next();
+    val selected =
+        ImmutableSet.<String>builder()
+            .addAll(properties)
+            .add(order.getProperty())
+            .add(entityInformation.getIdAttribute().getName())
+            .build();
+    return readPage(
+            spec,
+            pageable,
+            (s, sort) -> getTupleQuery(s, sort, selected),
+            (Tuple row, String property) -> row.get(property))
+        .map(t -> toProjection(t, projection));
+  }
+
+  /**
+   * Sort properties come from clients, directly or inside a cursor, so only plain fields of the
+   * entity or of its single valued associations are accepted. Fields marked {@link NotSortable} are
+   * refused, since the sort key of the last row is handed back in the next cursor.
+   */
+  private void checkSortable(Sort sort) {
+    for (val order : sort) {
+      checkMalformedRequest(
+          isSortable(order.getProperty()), "Cannot sort by '%s'", order.getProperty());
+    }
+  }
+
+  private boolean isSortable(String property) {
+    ManagedType<?> type = entityManager.getMetamodel().managedType(getDomainClass());
+    val parts = property.split("\\.", -1);
+    for (int i = 0; i < parts.length; i++) {
+      Attribute<?, ?> attribute;
+      try {
+        attribute = type.getAttribute(parts[i]);
+      } catch (IllegalArgumentException e) {
+        return false;
+      }
+      if (attribute.isCollection() || isNotSortable(attribute)) {
+        return false;
+      } else if (i == parts.length - 1) {
+        return attribute.getPersistentAttributeType() == BASIC
+            && isCursorType(attribute.getJavaType());
+      }
+      val next = ((SingularAttribute<?, ?>) attribute).getType();
+      if (!(next instanceof ManagedType)) {
+        return false;
+      }
+      type = (ManagedType<?>) next;
+    }
+    return false;
+  }
+
+  private static boolean isNotSortable(Attribute<?, ?> attribute) {
+    val member = attribute.getJavaMember();
+    return member instanceof Field && ((Field) member).isAnnotationPresent(NotSortable.class);
+  }
+
+  private boolean isKeyset(Pageable pageable) {
+    return pageable.isPaged()
+        && pageable.getSort().stream().count() == 1
+        && UUID.class.equals(entityInformation.getIdType());
+  }
+
+  private <R> CursorPage<R> readPage(
+      @Nullable Specification<T> spec,
+      Pageable pageable,
+      BiFunction<Specification<T>, Sort, TypedQuery<R>> queryFactory,
+      BiFunction<R, String, Object> propertyReader) {
+    val order = pageable.getSort().iterator().next();
+    val idField = entityInformation.getIdAttribute().getName();
+    val sort =
+        order.getProperty().equals(idField)
+            ? Sort.by(order)
+            : Sort.by(order, new Sort.Order(order.getDirection(), idField));
+    val cursor = CursorPageable.getCursor(pageable);
+
+    val offset = cursor.isPresent() ? 0 : pageable.getOffset();
+
+    // One row past the page tells whether another page follows without counting
+    val query =
+        queryFactory.apply(
+            cursor.map(c -> where(spec).and(after(order, idField, c))).orElse(spec), sort);
+    query.setFirstResult((int) offset);
+    query.setMaxResults(pageable.getPageSize() + 1);
+    val rows = query.getResultList();
+    val hasNext = rows.size() > pageable.getPageSize();
+    val content = hasNext ? rows.subList(0, pageable.getPageSize()) : rows;
+
+    val countMode = CursorPageable.getCountMode(pageable);
+    long total;
+    if (cursor.isEmpty() && offset == 0 && !hasNext) {
+      total = content.size();
+    } else if (countMode == NONE) {
+      total = offset + content.size();
+    } else if (countMode == ESTIMATE) {
+      total = estimateCount(spec).orElseGet(() -> count(spec));
+    } else {
+      total = count(spec);
+    }
+
+    String nextCursor = null;
+    if (hasNext) {
+      val last = content.get(content.size() - 1);
+      nextCursor =
+          PageCursor.builder()
+              .property(order.getProperty())
+              .direction(order.getDirection())
+              .ignoreCase(order.isIgnoreCase())
+              .value(formatCursorValue(propertyReader.apply(last, order.getProperty())))
+              .id((UUID) propertyReader.apply(last, idField))
+              .build()
+              .encode();
+    }
+    return new CursorPage<>(content, pageable, total, nextCursor, countMode, hasNext);
+  }
+
+  private TypedQuery<Tuple> getTupleQuery(
+      @Nullable Specification<T> spec, Sort sort, Collection<String> properties) {
+    val builder = entityManager.getCriteriaBuilder();
+    val query = builder.createTupleQuery();
+    val root = query.from(getDomainClass());
+    if (!isNull(spec)) {
+      val predicate = spec.toPredicate(root, query, builder);
+      if (!isNull(predicate)) {
+        query.where(predicate);
+      }
+    }
+    query.multiselect(
+        properties.stream()
+            .<Selection<?>>map(p -> root.get(p).alias(p))
+            .collect(toUnmodifiableList()));
+    query.orderBy(toOrders(sort, root, builder));
+    return entityManager.createQuery(query);
+  }
+
+  private static Set<String> getProjectedProperties(Class<?> projection) {
+    return stream(BeanUtils.getPropertyDescriptors(projection))
+        .filter(x -> !isNull(x.getWriteMethod()))
+        .map(PropertyDescriptor::getName)
+        .collect(toImmutableSet());
+  }
+
+  private static <R> R toProjection(Tuple tuple, Class<R> projection) {
+    val result = BeanUtils.instantiateClass(projection);
+    val wrapper = new BeanWrapperImpl(result);
+    for (val element : tuple.getElements()) {
+      if (wrapper.isWritableProperty(element.getAlias())) {
+        wrapper.setPropertyValue(element.getAlias(), tuple.get(element));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Reads the row count of the table from the planner statistics. Only listings without a
+   * specification can use it, which services pass when neither a query nor a filter restricts the
+   * rows. Other listings and tables never analyzed return empty.
+   */
+  private Optional<Long> estimateCount(@Nullable Specification<T> spec) {
+    val table = AnnotationUtils.findAnnotation(getDomainClass(), Table.class);
+    if (isNull(table) || !isNull(spec)) {
+      return Optional.empty();
+    }
+    List<?> result =
+        entityManager
+            .createNativeQuery("select reltuples from pg_class where oid = to_regclass(:table)")
+            .setParameter("table", table.name())
+            .getResultList();
+    return result.stream()
+        .map(x -> ((Number) x).longValue())
+        .filter(x -> x > 0)
+        .findFirst();
+  }
+}
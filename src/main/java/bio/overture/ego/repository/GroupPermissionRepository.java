@@ -4,13 +4,19 @@ import static org.springframework.data.jpa.repository.EntityGraph.EntityGraphTyp
 
 import bio.overture.ego.model.entity.Group;
 import bio.overture.ego.model.entity.GroupPermission;
+import java.util.Collection;
 import java.util.Set;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface GroupPermissionRepository
     extends NameablePermissionRepository<Group, GroupPermission> {
 
   @EntityGraph(value = "group-permission-entity-with-relationships", type = FETCH)
   Set<GroupPermission> findAllByOwner_Id(UUID id);
+
+  @Query("select gp from GroupPermission gp join fetch gp.policy where gp.owner.id in :groupIds")
+  Set<GroupPermission> findAllWithPolicyByOwnerIdIn(@Param("groupIds") Collection<UUID> groupIds);
 }
@@ -17,8 +17,13 @@
 package bio.overture.ego.repository;
 
 import bio.overture.ego.model.entity.Group;
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface GroupRepository extends NamedRepository<Group, UUID> {
 
@@ -26,6 +31,25 @@ public interface GroupRepository extends NamedRepository<Group, UUID> {
 
   boolean existsByNameIgnoreCase(String name);
 
+  /** @param lowerCaseNames names already converted to lower case */
+  @Query("select g from Group g where lower(g.name) in :names")
+  Set<Group> findAllByLowerCaseNameIn(@Param("names") Collection<String> lowerCaseNames);
+
+  @Modifying
+  @Query(
+      value =
+          "update egogroup set permissionversion = permissionversion + 1 where id in (:groupIds)",
+      nativeQuery = true)
+  int incrementPermissionVersions(@Param("groupIds") Collection<UUID> groupIds);
+
+  @Modifying
+  @Query(
+      value =
+          "update egogroup set permissionversion = permissionversion + 1 where id in ("
+              + "select gp.group_id from grouppermission gp where gp.policy_id = :policyId)",
+      nativeQuery = true)
+  int incrementPermissionVersionsByPolicy(@Param("policyId") UUID policyId);
+
   /** Refer to NamedRepository.findByName Deprecation note */
   @Override
   @Deprecated
@@ -3,10 +3,14 @@ package bio.overture.ego.repository;
 import bio.overture.ego.model.entity.AbstractPermission;
 import bio.overture.ego.model.entity.Identifiable;
 import bio.overture.ego.model.enums.AccessLevel;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.query.Param;
 
 @NoRepositoryBean
 public interface PermissionRepository<O extends Identifiable<UUID>, T extends AbstractPermission<O>>
@@ -19,4 +23,23 @@ public interface PermissionRepository<O extends Identifiable<UUID>, T extends Ab
   Optional<T> findByPolicy_IdAndOwner_id(UUID policyId, UUID ownerId);
 
   Set<T> findAllByPolicy_IdAndAccessLevel(UUID policyId, AccessLevel accessLevel);
+
+  Set<T> findAllByPolicy_IdAndOwner_IdIn(UUID policyId, Collection<UUID> ownerIds);
+
+  @Query(
+      "select p.owner.id from #{#entityName} p "
+          + "where p.policy.id = :policyId and p.owner.id in :ownerIds")
+  Set<UUID> findOwnerIdsByPolicyIdAndOwnerIdIn(
+      @Param("policyId") UUID policyId, @Param("ownerIds") Collection<UUID> ownerIds);
+
+  /** Deletes the permissions of the policy for the owners in a single statement */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("delete from #{#entityName} p where p.policy.id = :policyId and p.owner.id in :ownerIds")
+  int deleteAllByPolicyIdAndOwnerIdIn(
+      @Param("policyId") UUID policyId, @Param("ownerIds") Collection<UUID> ownerIds);
+
+  /** Deletes every permission of the owner in a single statement, without loading them */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("delete from #{#entityName} p where p.owner.id = :ownerId")
+  int deleteAllByOwnerId(@Param("ownerId") UUID ownerId);
 }
@@ -3,21 +3,110 @@ package bio.overture.ego.repository;
 import static org.springframework.data.jpa.repository.EntityGraph.EntityGraphType.FETCH;
 
 import bio.overture.ego.model.entity.Policy;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface PolicyRepository extends NamedRepository<Policy, UUID> {
 
+  /**
+   * Effective access of every user on a policy, through direct and group permissions. Since the
+   * aclmask enum is declared as READ, WRITE, DENY, max() applies DENY precedence.
+   */
+  String EFFECTIVE_USER_PERMISSIONS =
+      "select u.id as owner_id, concat(u.firstname, ' ', u.lastname) as owner_name, e.access_level "
+          + "from (select p.user_id, max(p.access_level) as access_level from ("
+          + "select up.user_id, up.access_level from userpermission up "
+          + "where up.policy_id = :policyId "
+          + "union all "
+          + "select ug.user_id, gp.access_level from grouppermission gp "
+          + "join usergroup ug on ug.group_id = gp.group_id where gp.policy_id = :policyId"
+          + ") p group by p.user_id) e "
+          + "join egouser u on u.id = e.user_id "
+          + "where (:accessLevel = '' or cast(e.access_level as text) = :accessLevel)";
+
+  /** Effective access of every application on a policy, through direct and group permissions. */
+  String EFFECTIVE_APPLICATION_PERMISSIONS =
+      "select a.id as owner_id, a.name as owner_name, e.access_level "
+          + "from (select p.application_id, max(p.access_level) as access_level from ("
+          + "select ap.application_id, ap.access_level from applicationpermission ap "
+          + "where ap.policy_id = :policyId "
+          + "union all "
+          + "select ga.application_id, gp.access_level from grouppermission gp "
+          + "join groupapplication ga on ga.group_id = gp.group_id where gp.policy_id = :policyId"
+          + ") p group by p.application_id) e "
+          + "join egoapplication a on a.id = e.application_id "
+          + "where (:accessLevel = '' or cast(e.access_level as text) = :accessLevel)";
+
+  String EFFECTIVE_PERMISSION_SELECT =
+      "select cast(owner_id as text) as id, owner_name as name, "
+          + "cast(access_level as text) as mask from (";
+
+  String EFFECTIVE_PERMISSION_PAGE =
+      ") effective order by owner_name, owner_id limit :limit offset :offset";
+
   @EntityGraph(value = "policy-entity-with-relationships", type = FETCH)
   Optional<Policy> getPolicyByNameIgnoreCase(String name);
 
   boolean existsByNameIgnoreCase(String name);
 
+  /** @param lowerCaseNames names already converted to lower case */
+  @Query("select p from Policy p where lower(p.name) in :names")
+  Set<Policy> findAllByLowerCaseNameIn(@Param("names") Collection<String> lowerCaseNames);
+
+  @Query(
+      value =
+          EFFECTIVE_PERMISSION_SELECT
+              + EFFECTIVE_USER_PERMISSIONS
+              + EFFECTIVE_PERMISSION_PAGE,
+      nativeQuery = true)
+  List<EffectivePermission> findEffectiveUserPermissions(
+      @Param("policyId") UUID policyId,
+      @Param("accessLevel") String accessLevel,
+      @Param("limit") int limit,
+      @Param("offset") long offset);
+
+  @Query(
+      value = "select count(*) from (" + EFFECTIVE_USER_PERMISSIONS + ") effective",
+      nativeQuery = true)
+  long countEffectiveUserPermissions(
+      @Param("policyId") UUID policyId, @Param("accessLevel") String accessLevel);
+
+  @Query(
+      value =
+          EFFECTIVE_PERMISSION_SELECT
+              + EFFECTIVE_APPLICATION_PERMISSIONS
+              + EFFECTIVE_PERMISSION_PAGE,
+      nativeQuery = true)
+  List<EffectivePermission> findEffectiveApplicationPermissions(
+      @Param("policyId") UUID policyId,
+      @Param("accessLevel") String accessLevel,
+      @Param("limit") int limit,
+      @Param("offset") long offset);
+
+  @Query(
+      value = "select count(*) from (" + EFFECTIVE_APPLICATION_PERMISSIONS + ") effective",
+      nativeQuery = true)
+  long countEffectiveApplicationPermissions(
+      @Param("policyId") UUID policyId, @Param("accessLevel") String accessLevel);
+
   /** Refer to NamedRepository.findByName Deprecation note */
   @Override
   @Deprecated
   default Optional<Policy> findByName(String name) {
     return getPolicyByNameIgnoreCase(name);
   }
+
+  interface EffectivePermission {
+    String getId();
+
+    String getName();
+
+    String getMask();
+  }
 }
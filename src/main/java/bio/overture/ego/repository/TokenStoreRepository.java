@@ -1,6 +1,7 @@
 package bio.overture.ego.repository;
 
 import bio.overture.ego.model.entity.ApiKey;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -24,6 +25,39 @@ public interface TokenStoreRepository extends NamedRepository<ApiKey, UUID> {
       nativeQuery = true)
   int revokeRedundantTokens(@Param("userId") UUID userId);
 
+  /**
+   * Revokes every active api key of the owners with a scope their effective permissions no longer
+   * grant. Effective access on a policy is the max of the user and group permissions, which gives
+   * DENY precedence; a READ scope is also granted by WRITE access.
+   */
+  @Modifying
+  @Query(
+      value =
+          "update token t set isrevoked = true "
+              + "where t.owner in (:ownerIds) and t.isrevoked is not true "
+              + "and exists (select 1 from tokenscope ts where ts.token_id = t.id "
+              + "and not exists (select 1 from (select max(p.access_level) as access_level from ("
+              + "select up.access_level from userpermission up "
+              + "where up.user_id = t.owner and up.policy_id = ts.policy_id "
+              + "union all "
+              + "select gp.access_level from grouppermission gp "
+              + "join usergroup ug on ug.group_id = gp.group_id "
+              + "where ug.user_id = t.owner and gp.policy_id = ts.policy_id"
+              + ") p) e "
+              + "where e.access_level = ts.access_level "
+              + "or (ts.access_level = 'READ' and e.access_level = 'WRITE')))",
+      nativeQuery = true)
+  int revokeOverScopedApiKeys(@Param("ownerIds") Collection<UUID> ownerIds);
+
+  @Query("select distinct s.token.id from ApiKeyScope s where s.policy.id = :policyId")
+  Set<UUID> findIdsByPolicyId(@Param("policyId") UUID policyId);
+
+  @Modifying
+  @Query(
+      value = "update token set isrevoked = true where id in (:ids) and isrevoked is not true",
+      nativeQuery = true)
+  int revokeByIdIn(@Param("ids") Collection<UUID> ids);
+
   // Set<Token> findAllByOwnerAndScopes(List<UUID> ids);
 
   @Override
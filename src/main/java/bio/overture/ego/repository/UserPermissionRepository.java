@@ -4,12 +4,18 @@ import static org.springframework.data.jpa.repository.EntityGraph.EntityGraphTyp
 
 import bio.overture.ego.model.entity.User;
 import bio.overture.ego.model.entity.UserPermission;
+import java.util.Collection;
 import java.util.Set;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface UserPermissionRepository extends PermissionRepository<User, UserPermission> {
 
   @EntityGraph(value = "user-permission-entity-with-relationships", type = FETCH)
   Set<UserPermission> findAllByOwner_Id(UUID id);
+
+  @Query("select up from UserPermission up join fetch up.policy where up.owner.id in :userIds")
+  Set<UserPermission> findAllWithPolicyByOwnerIdIn(@Param("userIds") Collection<UUID> userIds);
 }
@@ -19,9 +19,14 @@ package bio.overture.ego.repository;
 import bio.overture.ego.model.entity.User;
 import bio.overture.ego.model.enums.ProviderType;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface UserRepository extends BaseRepository<User, UUID> {
 
@@ -32,6 +37,37 @@ public interface UserRepository extends BaseRepository<User, UUID> {
 
   boolean existsByProviderSubjectId(String providerSubjectId);
 
+  Set<User> findAllByProviderSubjectIdIn(Collection<String> providerSubjectIds);
+
   Optional<User> findByProviderSubjectIdIgnoreCaseAndProviderType(
       String providerSubjectId, ProviderType providerType);
+
+  /** First users of a keyset walk in id order */
+  List<User> findAllByOrderByIdAsc(Pageable pageable);
+
+  /** Users following the given id in a keyset walk in id order */
+  List<User> findAllByIdGreaterThanOrderByIdAsc(UUID id, Pageable pageable);
+
+  @Query("select u.permissionVersion from User u where u.id = :id")
+  Optional<Long> getPermissionVersionById(@Param("id") UUID id);
+
+  @Modifying
+  @Query(
+      value =
+          "update egouser set permissionversion = permissionversion + 1 where id in (:userIds)",
+      nativeQuery = true)
+  int incrementPermissionVersions(@Param("userIds") Collection<UUID> userIds);
+
+  /** Increments every user with a direct or group permission on the policy */
+  @Modifying
+  @Query(
+      value =
+          "update egouser set permissionversion = permissionversion + 1 where id in ("
+              + "select up.user_id from userpermission up where up.policy_id = :policyId "
+              + "union "
+              + "select ug.user_id from usergroup ug "
+              + "join grouppermission gp on gp.group_id = ug.group_id "
+              + "where gp.policy_id = :policyId)",
+      nativeQuery = true)
+  int incrementPermissionVersionsByPolicy(@Param("policyId") UUID policyId);
 }
@@ -0,0 +1,37 @@
+package bio.overture.ego.repository.join;
+
+import bio.overture.ego.model.join.GroupApplication;
+import bio.overture.ego.model.join.GroupApplicationId;
+import bio.overture.ego.repository.BaseRepository;
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Set-based access to the groupapplication join table. Refer to UserGroupRepository for how the
+ * persistence context is kept consistent with the native statements.
+ */
+public interface GroupApplicationRepository
+    extends BaseRepository<GroupApplication, GroupApplicationId> {
+
+  @Query("select ga.id.applicationId from GroupApplication ga where ga.id.groupId = :groupId")
+  Set<UUID> findApplicationIdsByGroupId(@Param("groupId") UUID groupId);
+
+  @Query(
+      "select distinct ga.id.applicationId from GroupApplication ga "
+          + "where ga.id.groupId in :groupIds")
+  Set<UUID> findApplicationIdsByGroupIdIn(@Param("groupIds") Collection<UUID> groupIds);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(nativeQuery = true, value = "DELETE FROM groupapplication WHERE group_id = :groupId")
+  int deleteAllByGroupId(@Param("groupId") UUID groupId);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(
+      nativeQuery = true,
+      value = "DELETE FROM groupapplication WHERE application_id = :applicationId")
+  int deleteAllByApplicationId(@Param("applicationId") UUID applicationId);
+}
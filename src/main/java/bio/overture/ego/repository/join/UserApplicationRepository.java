@@ -0,0 +1,32 @@
+package bio.overture.ego.repository.join;
+
+import bio.overture.ego.model.join.UserApplication;
+import bio.overture.ego.model.join.UserApplicationId;
+import bio.overture.ego.repository.BaseRepository;
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Set-based access to the userapplication join table. Refer to UserGroupRepository for how the
+ * persistence context is kept consistent with the native statements.
+ */
+public interface UserApplicationRepository
+    extends BaseRepository<UserApplication, UserApplicationId> {
+
+  @Query("select ua from UserApplication ua where ua.id.userId in :userIds")
+  Set<UserApplication> findAllByUserIdIn(@Param("userIds") Collection<UUID> userIds);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(nativeQuery = true, value = "DELETE FROM userapplication WHERE user_id = :userId")
+  int deleteAllByUserId(@Param("userId") UUID userId);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(
+      nativeQuery = true,
+      value = "DELETE FROM userapplication WHERE application_id = :applicationId")
+  int deleteAllByApplicationId(@Param("applicationId") UUID applicationId);
+}
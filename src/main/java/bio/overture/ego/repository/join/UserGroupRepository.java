@@ -3,5 +3,83 @@ package bio.overture.ego.repository.join;
 import bio.overture.ego.model.join.UserGroup;
 import bio.overture.ego.model.join.UserGroupId;
 import bio.overture.ego.repository.BaseRepository;
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface UserGroupRepository extends BaseRepository<UserGroup, UserGroupId> {}
+/**
+ * Membership queries that only touch the requested rows, so that mutating the membership of a
+ * large group does not load the group's other members. The native statements write the join table
+ * directly, so the persistence context is flushed before and cleared after them to keep already
+ * loaded membership collections from going stale.
+ */
+public interface UserGroupRepository extends BaseRepository<UserGroup, UserGroupId> {
+
+  @Query("select ug.id.userId from UserGroup ug where ug.id.groupId = :groupId")
+  Set<UUID> findUserIdsByGroupId(@Param("groupId") UUID groupId);
+
+  @Query("select distinct ug.id.userId from UserGroup ug where ug.id.groupId in :groupIds")
+  Set<UUID> findUserIdsByGroupIdIn(@Param("groupIds") Collection<UUID> groupIds);
+
+  @Query("select ug from UserGroup ug where ug.id.userId in :userIds")
+  Set<UserGroup> findAllByUserIdIn(@Param("userIds") Collection<UUID> userIds);
+
+  @Query(
+      "select ug.id.userId from UserGroup ug "
+          + "where ug.id.groupId = :groupId and ug.id.userId in :userIds")
+  Set<UUID> findUserIdsByGroupIdAndUserIdIn(
+      @Param("groupId") UUID groupId, @Param("userIds") Collection<UUID> userIds);
+
+  @Query(
+      "select ug.id.groupId from UserGroup ug "
+          + "where ug.id.userId = :userId and ug.id.groupId in :groupIds")
+  Set<UUID> findGroupIdsByUserIdAndGroupIdIn(
+      @Param("userId") UUID userId, @Param("groupIds") Collection<UUID> groupIds);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(
+      nativeQuery = true,
+      value =
+          "INSERT INTO usergroup (user_id, group_id) "
+              + "SELECT u.id, CAST(:groupId AS uuid) FROM egouser u WHERE u.id IN (:userIds) "
+              + "AND NOT EXISTS (SELECT 1 FROM usergroup ug "
+              + "WHERE ug.user_id = u.id AND ug.group_id = :groupId)")
+  int insertUsersIntoGroup(
+      @Param("groupId") UUID groupId, @Param("userIds") Collection<UUID> userIds);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(
+      nativeQuery = true,
+      value =
+          "INSERT INTO usergroup (user_id, group_id) "
+              + "SELECT CAST(:userId AS uuid), g.id FROM egogroup g WHERE g.id IN (:groupIds) "
+              + "AND NOT EXISTS (SELECT 1 FROM usergroup ug "
+              + "WHERE ug.user_id = :userId AND ug.group_id = g.id)")
+  int insertUserIntoGroups(
+      @Param("userId") UUID userId, @Param("groupIds") Collection<UUID> groupIds);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(
+      nativeQuery = true,
+      value = "DELETE FROM usergroup WHERE group_id = :groupId AND user_id IN (:userIds)")
+  int deleteUsersFromGroup(
+      @Param("groupId") UUID groupId, @Param("userIds") Collection<UUID> userIds);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(
+      nativeQuery = true,
+      value = "DELETE FROM usergroup WHERE user_id = :userId AND group_id IN (:groupIds)")
+  int deleteUserFromGroups(
+      @Param("userId") UUID userId, @Param("groupIds") Collection<UUID> groupIds);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(nativeQuery = true, value = "DELETE FROM usergroup WHERE group_id = :groupId")
+  int deleteAllByGroupId(@Param("groupId") UUID groupId);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(nativeQuery = true, value = "DELETE FROM usergroup WHERE user_id = :userId")
+  int deleteAllByUserId(@Param("userId") UUID userId);
+}
@@ -17,7 +17,6 @@
 package bio.overture.ego.repository.queryspecification;
 
 import static bio.overture.ego.model.enums.JavaFields.CLIENTID;
-import static bio.overture.ego.model.enums.JavaFields.CLIENTSECRET;
 import static bio.overture.ego.model.enums.JavaFields.DESCRIPTION;
 import static bio.overture.ego.model.enums.JavaFields.GROUP;
 import static bio.overture.ego.model.enums.JavaFields.GROUPAPPLICATIONS;
@@ -32,22 +31,16 @@ import bio.overture.ego.model.entity.Group;
 import bio.overture.ego.model.entity.User;
 import bio.overture.ego.model.join.GroupApplication;
 import bio.overture.ego.model.join.UserApplication;
-import bio.overture.ego.utils.QueryUtils;
 import java.util.UUID;
 import javax.persistence.criteria.Join;
 import lombok.NonNull;
-import lombok.val;
 import org.springframework.data.jpa.domain.Specification;
 
 public class ApplicationSpecification extends SpecificationBase<Application> {
+  /** The client secret is a password hash, so it is never matched against search text */
   public static Specification<Application> containsText(@NonNull String text) {
-    val finalText = QueryUtils.prepareForQuery(text);
-    return (root, query, builder) -> {
-      query.distinct(true);
-      return builder.or(
-          getQueryPredicates(
-              builder, root, finalText, NAME, CLIENTID, CLIENTSECRET, DESCRIPTION, STATUS));
-    };
+    return (root, query, builder) ->
+        matchesText(builder, root, text, NAME, CLIENTID, DESCRIPTION, STATUS);
   }
 
   public static Specification<Application> inGroup(@NonNull UUID groupId) {
@@ -30,18 +30,14 @@ import bio.overture.ego.model.entity.Group;
 import bio.overture.ego.model.entity.User;
 import bio.overture.ego.model.join.GroupApplication;
 import bio.overture.ego.model.join.UserGroup;
-import bio.overture.ego.utils.QueryUtils;
 import java.util.UUID;
 import javax.persistence.criteria.Join;
 import lombok.NonNull;
-import lombok.val;
 import org.springframework.data.jpa.domain.Specification;
 
 public class GroupSpecification extends SpecificationBase<Group> {
   public static Specification<Group> containsText(@NonNull String text) {
-    val finalText = QueryUtils.prepareForQuery(text);
-    return (root, query, builder) ->
-        builder.or(getQueryPredicates(builder, root, finalText, NAME, DESCRIPTION, STATUS));
+    return (root, query, builder) -> matchesText(builder, root, text, NAME, DESCRIPTION, STATUS);
   }
 
   public static Specification<Group> containsApplication(@NonNull UUID appId) {
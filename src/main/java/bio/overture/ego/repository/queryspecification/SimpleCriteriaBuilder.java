@@ -61,7 +61,7 @@ public class SimpleCriteriaBuilder<X, Y> {
 
   public Collection<Predicate> searchFilter(@NonNull List<SearchFilter> filters) {
     return filters.stream()
-        .map(f -> filterByField(f.getFilterField(), f.getFilterValue()))
+        .map(f -> SpecificationBase.filterBy(builder, from, f))
         .collect(toUnmodifiableList());
   }
 
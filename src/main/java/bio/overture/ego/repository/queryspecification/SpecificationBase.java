@@ -16,46 +16,282 @@
 
 package bio.overture.ego.repository.queryspecification;
 
+import static bio.overture.ego.model.exceptions.MalformedRequestException.buildMalformedRequest;
+import static bio.overture.ego.model.exceptions.MalformedRequestException.checkMalformedRequest;
+import static bio.overture.ego.model.search.FilterType.DATE_RANGE;
+import static bio.overture.ego.model.search.FilterType.EXACT;
+import static java.util.Objects.isNull;
+import static java.util.stream.Collectors.toUnmodifiableList;
+
+import bio.overture.ego.model.exceptions.MalformedRequestException;
+import bio.overture.ego.model.search.PageCursor;
 import bio.overture.ego.model.search.SearchFilter;
 import bio.overture.ego.utils.QueryUtils;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
+import java.util.UUID;
+import java.util.regex.Pattern;
 import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.From;
+import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 import lombok.NonNull;
 import lombok.val;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
 public class SpecificationBase<T> {
-  protected static <T> Predicate[] getQueryPredicates(
+  /**
+   * Matches rows where any of the fields contains the text. Text fields are compared as
+   * lower(field) so the trigram indexes on lower(field) serve the search. Enum fields are matched
+   * against their constants up front and become an exact IN predicate, or are left out when no
+   * constant matches, so they never force a scan.
+   */
+  protected static <T> Predicate matchesText(
       @NonNull CriteriaBuilder builder,
       @NonNull Root<T> root,
-      String queryText,
-      @NonNull String... params) {
-    return Arrays.stream(params)
-        .map(p -> filterByField(builder, root, p, queryText))
-        .toArray(Predicate[]::new);
+      String text,
+      @NonNull String... fields) {
+    val finalText = QueryUtils.prepareForQuery(text);
+    if (finalText.equals("%")) {
+      return builder.conjunction();
+    }
+    val pattern = toLikeRegex(finalText);
+    val predicates = new ArrayList<Predicate>();
+    for (val field : fields) {
+      Path<?> path = root.get(field);
+      Class<?> type = path.getJavaType();
+      if (type.isEnum()) {
+        List<?> matching =
+            Arrays.stream(type.getEnumConstants())
+                .filter(c -> pattern.matcher(((Enum<?>) c).name().toLowerCase()).matches())
+                .collect(toUnmodifiableList());
+        if (!matching.isEmpty()) {
+          predicates.add(path.in(matching));
+        }
+      } else {
+        predicates.add(builder.like(builder.lower(path.as(String.class)), finalText));
+      }
+    }
+    return builder.or(predicates.toArray(Predicate[]::new));
+  }
+
+  /** Java equivalent of a sql LIKE pattern, for matching values that never reach the database */
+  private static Pattern toLikeRegex(String likePattern) {
+    val regex = new StringBuilder();
+    for (val c : likePattern.toCharArray()) {
+      if (c == '%') {
+        regex.append(".*");
+      } else if (c == '_') {
+        regex.append('.');
+      } else {
+        regex.append(Pattern.quote(String.valueOf(c)));
+      }
+    }
+    return Pattern.compile(regex.toString(), Pattern.DOTALL);
   }
 
-  public static <T> Predicate filterByField(
+  public static Predicate filterByField(
       @NonNull CriteriaBuilder builder,
-      @NonNull Root<T> root,
+      @NonNull From<?, ?> from,
       @NonNull String fieldName,
       String fieldValue) {
     val finalText = QueryUtils.prepareForQuery(fieldValue);
 
     // Cast "as" String so that we can search ENUM types
-    return builder.like(builder.lower(root.get(fieldName).as(String.class)), finalText);
+    return builder.like(builder.lower(from.get(fieldName).as(String.class)), finalText);
+  }
+
+  /**
+   * Compares the field with the filter value according to its type. Exact filters compare the
+   * column itself, so they are served by its indexes, and only text filters use LIKE.
+   */
+  public static Predicate filterBy(
+      @NonNull CriteriaBuilder builder, @NonNull From<?, ?> from, @NonNull SearchFilter filter) {
+    Path<?> path;
+    try {
+      path = from.get(filter.getFilterField());
+    } catch (IllegalArgumentException e) {
+      throw buildMalformedRequest("Cannot filter by '%s'", filter.getFilterField());
+    }
+
+    if (filter.getFilterType() == EXACT) {
+      val values = parseExactValues(path.getJavaType(), filter);
+      return values.size() == 1 ? builder.equal(path, values.get(0)) : path.in(values);
+    } else if (filter.getFilterType() == DATE_RANGE) {
+      return filterByDateRange(builder, path, filter);
+    }
+    return filterByField(builder, from, filter.getFilterField(), filter.getFilterValue());
   }
 
   public static <T> Specification<T> filterBy(@NonNull List<SearchFilter> filters) {
+    return (root, query, builder) ->
+        builder.and(
+            filters.stream().map(f -> filterBy(builder, root, f)).toArray(Predicate[]::new));
+  }
+
+  private static List<Object> parseExactValues(Class<?> type, SearchFilter filter) {
+    val values = new ArrayList<Object>();
+    for (val value : filter.getFilterValue().split(",")) {
+      val trimmed = value.trim();
+      if (UUID.class.equals(type)) {
+        try {
+          values.add(UUID.fromString(trimmed));
+        } catch (IllegalArgumentException e) {
+          throw buildInvalidFilterValue(filter, trimmed);
+        }
+      } else if (type.isEnum()) {
+        values.add(
+            Arrays.stream(type.getEnumConstants())
+                .filter(c -> ((Enum<?>) c).name().equalsIgnoreCase(trimmed))
+                .findFirst()
+                .orElseThrow(() -> buildInvalidFilterValue(filter, trimmed)));
+      } else {
+        values.add(trimmed);
+      }
+    }
+    return values;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Predicate filterByDateRange(
+      CriteriaBuilder builder, Path<?> path, SearchFilter filter) {
+    val range = filter.getFilterValue().split("\\.\\.", -1);
+    checkMalformedRequest(
+        range.length == 2 && Date.class.isAssignableFrom(path.getJavaType()),
+        "The filter '%s' must be a date range written as 'from..to'",
+        filter.getFilterField());
+
+    val datePath = (Path<Date>) path;
+    val predicates = new ArrayList<Predicate>();
+    if (!range[0].isBlank()) {
+      predicates.add(builder.greaterThanOrEqualTo(datePath, parseDate(filter, range[0])));
+    }
+    if (!range[1].isBlank()) {
+      predicates.add(builder.lessThan(datePath, parseDate(filter, range[1])));
+    }
+    return builder.and(predicates.toArray(Predicate[]::new));
+  }
+
+  /** Accepts an instant such as 2020-01-31T12:00:00Z or a date such as 2020-01-31, taken as UTC */
+  private static Date parseDate(SearchFilter filter, String value) {
+    val trimmed = value.trim();
+    try {
+      return trimmed.contains("T")
+          ? Date.from(Instant.parse(trimmed))
+          : Date.from(LocalDate.parse(trimmed).atStartOfDay(ZoneOffset.UTC).toInstant());
+    } catch (DateTimeParseException e) {
+      throw buildInvalidFilterValue(filter, trimmed);
+    }
+  }
+
+  private static MalformedRequestException buildInvalidFilterValue(
+      SearchFilter filter, String value) {
+    return buildMalformedRequest(
+        "The value '%s' is not valid for the filter '%s'", value, filter.getFilterField());
+  }
+
+  /**
+   * Keyset predicate selecting the rows that follow the cursor when sorted by {@code order} and
+   * then by {@code idField} in the same direction. Nulls sort last ascending and first descending,
+   * as in postgres.
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public static <T> Specification<T> after(
+      @NonNull Sort.Order order, @NonNull String idField, @NonNull PageCursor cursor) {
     return (root, query, builder) -> {
-      query.distinct(true);
-      return builder.and(
-          filters.stream()
-              .map(f -> filterByField(builder, root, f.getFilterField(), f.getFilterValue()))
-              .toArray(Predicate[]::new));
+      val asc = order.isAscending();
+      Path<UUID> id = root.get(idField);
+      Predicate afterId =
+          asc ? builder.greaterThan(id, cursor.getId()) : builder.lessThan(id, cursor.getId());
+      if (order.getProperty().equals(idField)) {
+        return afterId;
+      }
+
+      Path<?> path = getPath(root, order.getProperty());
+      if (isNull(cursor.getValue())) {
+        return asc
+            ? builder.and(builder.isNull(path), afterId)
+            : builder.or(builder.and(builder.isNull(path), afterId), builder.isNotNull(path));
+      }
+
+      Expression field = path;
+      Comparable value = parseCursorValue(path.getJavaType(), cursor.getValue());
+      if (order.isIgnoreCase() && value instanceof String) {
+        field = builder.lower(path.as(String.class));
+        value = ((String) value).toLowerCase();
+      }
+      val beyond = asc ? builder.greaterThan(field, value) : builder.lessThan(field, value);
+      val tied = builder.and(builder.equal(field, value), afterId);
+      return asc ? builder.or(beyond, tied, builder.isNull(path)) : builder.or(beyond, tied);
     };
   }
+
+  /** Converts a sort key to the string carried by a cursor, the inverse of parseCursorValue */
+  public static String formatCursorValue(Object value) {
+    if (isNull(value)) {
+      return null;
+    } else if (value instanceof Date) {
+      // Timestamps keep their sub-millisecond part so ties are not skipped or repeated
+      return ((Date) value).toInstant().toString();
+    } else if (value instanceof Enum) {
+      return ((Enum<?>) value).name();
+    }
+    return value.toString();
+  }
+
+  /** Whether values of the type can be carried by a cursor, and so sorted by */
+  public static boolean isCursorType(@NonNull Class<?> type) {
+    return String.class.equals(type)
+        || UUID.class.equals(type)
+        || Date.class.isAssignableFrom(type)
+        || type.isEnum()
+        || Long.class.equals(type)
+        || long.class.equals(type)
+        || Integer.class.equals(type)
+        || int.class.equals(type)
+        || Boolean.class.equals(type)
+        || boolean.class.equals(type);
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static Comparable parseCursorValue(Class<?> type, String value) {
+    try {
+      if (String.class.equals(type)) {
+        return value;
+      } else if (UUID.class.equals(type)) {
+        return UUID.fromString(value);
+      } else if (Date.class.isAssignableFrom(type)) {
+        return Timestamp.from(Instant.parse(value));
+      } else if (type.isEnum()) {
+        return Enum.valueOf((Class<Enum>) type, value);
+      } else if (Long.class.equals(type) || long.class.equals(type)) {
+        return Long.valueOf(value);
+      } else if (Integer.class.equals(type) || int.class.equals(type)) {
+        return Integer.valueOf(value);
+      } else if (Boolean.class.equals(type) || boolean.class.equals(type)) {
+        return Boolean.valueOf(value);
+      }
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      throw buildMalformedRequest("The cursor value '%s' is malformed", value);
+    }
+    throw buildMalformedRequest("Cannot page by cursor on a field of type '%s'", type.getName());
+  }
+
+  private static Path<?> getPath(Root<?> root, String property) {
+    Path<?> path = root;
+    for (val part : property.split("\\.")) {
+      path = path.get(part);
+    }
+    return path;
+  }
 }
@@ -20,22 +20,15 @@ import static bio.overture.ego.model.enums.JavaFields.*;
 
 import bio.overture.ego.model.entity.ApiKey;
 import bio.overture.ego.model.entity.User;
-import bio.overture.ego.utils.QueryUtils;
 import java.util.UUID;
 import javax.persistence.criteria.Join;
 import lombok.NonNull;
-import lombok.val;
 import org.springframework.data.jpa.domain.Specification;
 
 public class TokenStoreSpecification extends SpecificationBase<ApiKey> {
 
   public static Specification<ApiKey> containsText(@NonNull String text) {
-    val finalText = QueryUtils.prepareForQuery(text);
-    return (root, query, builder) -> {
-      query.distinct(true);
-
-      return builder.or(getQueryPredicates(builder, root, finalText, NAME));
-    };
+    return (root, query, builder) -> matchesText(builder, root, text, NAME);
   }
 
   public static Specification<ApiKey> containsUser(@NonNull UUID userId) {
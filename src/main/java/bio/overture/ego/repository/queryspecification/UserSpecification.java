@@ -24,24 +24,17 @@ import bio.overture.ego.model.entity.User;
 import bio.overture.ego.model.enums.JavaFields;
 import bio.overture.ego.model.join.UserApplication;
 import bio.overture.ego.model.join.UserGroup;
-import bio.overture.ego.utils.QueryUtils;
 import java.util.Collection;
 import java.util.UUID;
 import javax.persistence.criteria.Join;
 import lombok.NonNull;
-import lombok.val;
 import org.springframework.data.jpa.domain.Specification;
 
 public class UserSpecification extends SpecificationBase<User> {
 
   public static Specification<User> containsText(@NonNull String text) {
-    val finalText = QueryUtils.prepareForQuery(text);
-    return (root, query, builder) -> {
-      query.distinct(true);
-      return builder.or(
-          getQueryPredicates(
-              builder, root, finalText, EMAIL, FIRSTNAME, LASTNAME, STATUS, PROVIDERTYPE));
-    };
+    return (root, query, builder) ->
+        matchesText(builder, root, text, EMAIL, FIRSTNAME, LASTNAME, STATUS, PROVIDERTYPE);
   }
 
   public static Specification<User> inGroup(@NonNull UUID groupId) {
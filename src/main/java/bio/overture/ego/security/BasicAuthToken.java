@@ -18,18 +18,17 @@ public class BasicAuthToken {
   public static final String TOKEN_PREFIX = "Basic ";
 
   public static Optional<BasicAuthToken> decode(String token) {
-    log.debug("Decoding basic auth token: '" + token + "'");
     val base64encoding = removeTokenPrefix(token);
     String contents;
     try {
       contents = new String(Base64.getDecoder().decode(base64encoding));
     } catch (Exception exception) {
-      log.error("Couldn't decode basic auth token: '" + token + "', " + exception.getMessage());
+      log.error("Couldn't decode basic auth token: " + exception.getMessage());
       return Optional.empty();
     }
     val parts = COLON_SPLITTER.splitToList(contents);
     if (parts.size() != 2) {
-      log.error("Basic auth token '" + token + "' should have 2 parts, not " + parts.size());
+      log.error("Basic auth token should have 2 parts, not " + parts.size());
       return Optional.empty();
     }
 
@@ -146,28 +146,24 @@ public class JWTAuthorizationFilter extends OncePerRequestFilter {
     val clientSecret = token.get().getClientSecret();
 
     // Deny access if they don't have a valid clientId from one of our applications
-    val applicationOpt = applicationService.getClientApplication(clientId);
+    val credentialsOpt = applicationService.getClientCredentials(clientId);
 
-    if (!applicationOpt.isPresent() || applicationOpt.isEmpty()) {
+    if (credentialsOpt.isEmpty()) {
       SecurityContextHolder.clearContext();
       log.warn("AuthenticateApplication: No application found for clientId " + clientId);
       return;
     }
-    val application = applicationOpt.get();
+    val credentials = credentialsOpt.get();
     // Deny access if the clientSecret in the token is wrong
-    if (!application.getClientSecret().equals(clientSecret)) {
+    if (!credentials.secretMatches(clientSecret)) {
       SecurityContextHolder.clearContext();
-      log.warn(
-          "AuthenticateApplication: Wrong client secret for clientId '"
-              + clientId
-              + "' from token '"
-              + tokenString
-              + "'");
+      log.warn("AuthenticateApplication: Wrong client secret for clientId '" + clientId + "'");
       return;
     }
 
     val authentication =
-        new UsernamePasswordAuthenticationToken(application, null, new ArrayList<>());
+        new UsernamePasswordAuthenticationToken(
+            credentials.toApplication(), null, new ArrayList<>());
     SecurityContextHolder.getContext().setAuthentication(authentication);
   }
 
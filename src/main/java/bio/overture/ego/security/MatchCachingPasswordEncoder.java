@@ -0,0 +1,65 @@
+package bio.overture.ego.security;
+
+import static bio.overture.ego.utils.Digests.digestsEqual;
+import static bio.overture.ego.utils.Digests.sha256;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.time.Duration;
+import lombok.NonNull;
+import lombok.val;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Decorates a deliberately slow PasswordEncoder (BCrypt) with a cache of encoded hash -> SHA-256
+ * digest of the raw secret that was verified against it. Repeated verifications of the same
+ * client secret become a constant-time digest comparison instead of a full BCrypt round. Only
+ * successful matches are cached, and a different raw value for a cached hash is rejected without
+ * falling back to the delegate, since a hash can only match one secret. The least recently used
+ * entries are evicted past MAX_ENTRIES, and unused entries expire after EXPIRY.
+ */
+public class MatchCachingPasswordEncoder implements PasswordEncoder {
+
+  /** Constants */
+  private static final int MAX_ENTRIES = 10_000;
+
+  private static final Duration EXPIRY = Duration.ofHours(1);
+
+  /** Dependencies */
+  private final PasswordEncoder delegate;
+
+  /** State */
+  private final Cache<String, byte[]> verifiedDigests =
+      CacheBuilder.newBuilder().maximumSize(MAX_ENTRIES).expireAfterAccess(EXPIRY).build();
+
+  public MatchCachingPasswordEncoder(@NonNull PasswordEncoder delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public String encode(CharSequence rawPassword) {
+    return delegate.encode(rawPassword);
+  }
+
+  @Override
+  public boolean matches(CharSequence rawPassword, String encodedPassword) {
+    if (rawPassword == null || encodedPassword == null) {
+      return delegate.matches(rawPassword, encodedPassword);
+    }
+    val digest = sha256(rawPassword);
+    val verified = verifiedDigests.getIfPresent(encodedPassword);
+    if (verified != null) {
+      return digestsEqual(verified, digest);
+    }
+    val matches = delegate.matches(rawPassword, encodedPassword);
+    if (matches) {
+      verifiedDigests.put(encodedPassword, digest);
+    }
+    return matches;
+  }
+
+  @Override
+  public boolean upgradeEncoding(String encodedPassword) {
+    return delegate.upgradeEncoding(encodedPassword);
+  }
+}
@@ -6,15 +6,21 @@ import static bio.overture.ego.utils.Converters.convertToIds;
 import static bio.overture.ego.utils.EntityServices.checkEntityExistence;
 import static bio.overture.ego.utils.EntityServices.getManyEntities;
 import static bio.overture.ego.utils.Joiners.COMMA;
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toUnmodifiableList;
 
 import bio.overture.ego.model.entity.Identifiable;
+import bio.overture.ego.model.enums.JavaFields;
 import bio.overture.ego.repository.BaseRepository;
 import bio.overture.ego.repository.queryspecification.builder.AbstractSpecificationBuilder;
 import com.google.common.collect.ImmutableSet;
 import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
@@ -92,6 +98,25 @@ public abstract class AbstractBaseService<T extends Identifiable<ID>, ID>
     return entities;
   }
 
+  /**
+   * Reads the given projection of the entities with the given ids, in the order of the ids. Ids
+   * without an entity are skipped.
+   */
+  protected <R> List<R> getProjections(
+      @NonNull List<ID> ids, @NonNull Class<R> projection, @NonNull Function<R, ID> idFunction) {
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+    Specification<T> byIds = (root, query, builder) -> root.get(JavaFields.ID).in(ids);
+    val projectionsById =
+        getRepository().findAll(byIds, Pageable.unpaged(), projection).stream()
+            .collect(toMap(idFunction, identity()));
+    return ids.stream()
+        .map(projectionsById::get)
+        .filter(Objects::nonNull)
+        .collect(toUnmodifiableList());
+  }
+
   @Override
   public Set<T> getMany(@NonNull Collection<ID> ids) {
     return getManyEntities(entityType, repository, ids);
@@ -2,6 +2,7 @@ package bio.overture.ego.service;
 
 import bio.overture.ego.model.dto.PolicyResponse;
 import bio.overture.ego.model.entity.*;
+import bio.overture.ego.model.enums.ChangeEntityType;
 import bio.overture.ego.repository.NameablePermissionRepository;
 import java.util.*;
 import lombok.NonNull;
@@ -25,10 +26,19 @@ public abstract class AbstractNameablePermissionService<
   public AbstractNameablePermissionService(
       @NonNull Class<O> ownerType,
       @NonNull Class<P> entityType,
+      @NonNull ChangeEntityType changeEntityType,
       @NonNull BaseService<O, UUID> ownerBaseService,
       @NonNull BaseService<Policy, UUID> policyBaseService,
-      @NonNull NameablePermissionRepository repository) {
-    super(ownerType, entityType, ownerBaseService, policyBaseService, repository);
+      @NonNull NameablePermissionRepository repository,
+      @NonNull ChangeFeedService changeFeedService) {
+    super(
+        ownerType,
+        entityType,
+        changeEntityType,
+        ownerBaseService,
+        policyBaseService,
+        repository,
+        changeFeedService);
     this.nameablePermissionRepository = repository;
     this.ownerType = ownerType;
     this.policyBaseService = policyBaseService;
@@ -1,6 +1,9 @@
 package bio.overture.ego.service;
 
 import static bio.overture.ego.model.dto.Scope.createScope;
+import static bio.overture.ego.model.enums.ChangeOperation.CREATED;
+import static bio.overture.ego.model.enums.ChangeOperation.DELETED;
+import static bio.overture.ego.model.enums.ChangeOperation.UPDATED;
 import static bio.overture.ego.model.enums.JavaFields.ID;
 import static bio.overture.ego.model.enums.JavaFields.POLICY;
 import static bio.overture.ego.model.exceptions.MalformedRequestException.checkMalformedRequest;
@@ -21,13 +24,18 @@ import static java.util.function.Function.identity;
 import static java.util.stream.Collectors.*;
 import static javax.persistence.criteria.JoinType.LEFT;
 
+import bio.overture.ego.model.dto.OwnerPermissionRequest;
 import bio.overture.ego.model.dto.PermissionRequest;
 import bio.overture.ego.model.dto.ResolvedPermissionResponse;
 import bio.overture.ego.model.dto.Scope;
 import bio.overture.ego.model.entity.*;
+import bio.overture.ego.model.enums.AccessLevel;
+import bio.overture.ego.model.enums.ChangeEntityType;
+import bio.overture.ego.model.exceptions.RequestValidationException;
 import bio.overture.ego.repository.PermissionRepository;
 import bio.overture.ego.utils.PermissionRequestAnalyzer.PermissionAnalysis;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
 import java.util.*;
 import lombok.NonNull;
@@ -51,19 +59,25 @@ public abstract class AbstractPermissionService<
 
   private final BaseService<O, UUID> ownerBaseService;
   private final PermissionRepository<O, P> permissionRepository;
+  private final ChangeFeedService changeFeedService;
   private final Class<O> ownerType;
+  private final ChangeEntityType changeEntityType;
 
   public AbstractPermissionService(
       @NonNull Class<O> ownerType,
       @NonNull Class<P> entityType,
+      @NonNull ChangeEntityType changeEntityType,
       @NonNull BaseService<O, UUID> ownerBaseService,
       @NonNull BaseService<Policy, UUID> policyBaseService,
-      @NonNull PermissionRepository<O, P> repository) {
+      @NonNull PermissionRepository<O, P> repository,
+      @NonNull ChangeFeedService changeFeedService) {
     super(entityType, repository);
     this.permissionRepository = repository;
     this.ownerType = ownerType;
+    this.changeEntityType = changeEntityType;
     this.policyBaseService = policyBaseService;
     this.ownerBaseService = ownerBaseService;
+    this.changeFeedService = changeFeedService;
   }
 
   protected abstract Collection<P> getPermissionsFromOwner(O owner);
@@ -87,6 +101,7 @@ public abstract class AbstractPermissionService<
   public void deleteByPolicyAndOwner(@NonNull UUID policyId, @NonNull UUID ownerId) {
     val perm = getByPolicyAndOwner(policyId, ownerId);
     getRepository().delete(perm);
+    changeFeedService.record(changeEntityType, DELETED, ownerId, policyId);
   }
 
   public void deletePermissions(@NonNull UUID ownerId, @NonNull Collection<UUID> idsToDelete) {
@@ -112,9 +127,11 @@ public abstract class AbstractPermissionService<
         getOwnerTypeName(),
         COMMA.join(nonExistingPermissionIds));
     val permissionsToRemove = filteredPermissionMap.values();
+    val policyIdsToRemove = mapToImmutableSet(permissionsToRemove, x -> x.getPolicy().getId());
 
     disassociatePermissions(permissionsToRemove);
     getRepository().deleteAll(permissionsToRemove);
+    changeFeedService.recordRelated(changeEntityType, DELETED, ownerId, policyIdsToRemove);
   }
 
   /**
@@ -160,7 +177,118 @@ public abstract class AbstractPermissionService<
         ownerId,
         COMMA.join(permissionAnalysis.getDuplicates()));
 
-    return createOrUpdatePermissions(owner, permissionAnalysis);
+    val updatedOwner = createOrUpdatePermissions(owner, permissionAnalysis);
+    changeFeedService.recordRelated(
+        changeEntityType,
+        UPDATED,
+        ownerId,
+        mapToImmutableSet(permissionAnalysis.getUpdateables(), PermissionRequest::getPolicyId));
+    changeFeedService.recordRelated(
+        changeEntityType,
+        CREATED,
+        ownerId,
+        mapToImmutableSet(permissionAnalysis.getCreateables(), PermissionRequest::getPolicyId));
+    return updatedOwner;
+  }
+
+  /**
+   * Grants the policy to many owners. The permissions the owners already have for the policy are
+   * read with one query and updated in place when the mask differs, and the missing ones are saved
+   * together. Owners already holding the requested mask are left untouched.
+   *
+   * @param policyId policy granted to every owner
+   * @param requests owner ids with the mask to grant
+   * @return ids of the owners whose permission was created or updated
+   */
+  public Set<UUID> addPolicyPermissions(
+      @NonNull UUID policyId, @NonNull List<OwnerPermissionRequest> requests) {
+    checkMalformedRequest(
+        !requests.isEmpty(),
+        "Must add at least 1 %s for policy '%s'",
+        getEntityTypeName(),
+        policyId);
+    requests.forEach(RequestValidationException::checkRequestValid);
+
+    val requestedMasks =
+        requests.stream()
+            .collect(
+                groupingBy(
+                    OwnerPermissionRequest::getOwnerId,
+                    mapping(OwnerPermissionRequest::getMask, toSet())));
+    val unresolvableOwnerIds =
+        requestedMasks.entrySet().stream()
+            .filter(x -> x.getValue().size() > 1)
+            .map(Map.Entry::getKey)
+            .collect(toImmutableSet());
+    checkUnique(
+        unresolvableOwnerIds.isEmpty(),
+        "Found multiple masks for policy '%s' and the following %s ids: %s",
+        policyId,
+        getOwnerTypeName(),
+        COMMA.join(unresolvableOwnerIds));
+
+    val policy = policyBaseService.getById(policyId);
+    val owners = uniqueIndex(ownerBaseService.getMany(requestedMasks.keySet()), O::getId);
+    val existingPermissions =
+        uniqueIndex(
+            permissionRepository.findAllByPolicy_IdAndOwner_IdIn(policyId, owners.keySet()),
+            x -> x.getOwner().getId());
+
+    val createdOwnerIds = ImmutableSet.<UUID>builder();
+    val updatedOwnerIds = ImmutableSet.<UUID>builder();
+    val permissionsToCreate = ImmutableList.<P>builder();
+    requestedMasks.forEach(
+        (ownerId, masks) -> {
+          val mask = masks.iterator().next();
+          val existing = existingPermissions.get(ownerId);
+          if (isNull(existing)) {
+            permissionsToCreate.add(newPermission(owners.get(ownerId), policy, mask));
+            createdOwnerIds.add(ownerId);
+          } else if (existing.getAccessLevel() != mask) {
+            existing.setAccessLevel(mask);
+            updatedOwnerIds.add(ownerId);
+          }
+        });
+    permissionRepository.saveAll(permissionsToCreate.build());
+
+    val created = createdOwnerIds.build();
+    val updated = updatedOwnerIds.build();
+    changeFeedService.recordEntities(changeEntityType, CREATED, created, policyId);
+    changeFeedService.recordEntities(changeEntityType, UPDATED, updated, policyId);
+    return Sets.union(created, updated).immutableCopy();
+  }
+
+  /**
+   * Revokes the policy from many owners with a single delete statement
+   *
+   * @param policyId policy revoked from every owner
+   * @param ownerIds owners that must each have a permission for the policy
+   * @return ids of the owners whose permission was deleted
+   */
+  public Set<UUID> deletePolicyPermissions(
+      @NonNull UUID policyId, @NonNull Collection<UUID> ownerIds) {
+    checkMalformedRequest(
+        !ownerIds.isEmpty(),
+        "Must delete at least 1 %s for policy '%s'",
+        getEntityTypeName(),
+        policyId);
+    policyBaseService.checkExistence(policyId);
+
+    val existingOwnerIds =
+        ImmutableSet.copyOf(
+            permissionRepository.findOwnerIdsByPolicyIdAndOwnerIdIn(policyId, ownerIds));
+    val nonExistingOwnerIds = difference(ownerIds, existingOwnerIds);
+    checkNotFound(
+        nonExistingOwnerIds.isEmpty(),
+        "%ss for policy '%s' were not found for the following %s ids: %s",
+        getEntityTypeName(),
+        policyId,
+        getOwnerTypeName(),
+        COMMA.join(nonExistingOwnerIds));
+
+    permissionRepository.deleteAllByPolicyIdAndOwnerIdIn(policyId, existingOwnerIds);
+    changeFeedService.recordEntities(changeEntityType, DELETED, existingOwnerIds, policyId);
+    return existingOwnerIds;
   }
 
   private P getByPolicyAndOwner(@NonNull UUID policyId, @NonNull UUID ownerId) {
@@ -264,11 +392,21 @@ public abstract class AbstractPermissionService<
     associatePermission(policy, gp);
   }
 
+  /** Creates a permission without adding it to the collections of its owner and policy */
+  @SneakyThrows
+  private P newPermission(O owner, Policy policy, AccessLevel mask) {
+    val permission = getEntityType().newInstance();
+    permission.setOwner(owner);
+    permission.setPolicy(policy);
+    permission.setAccessLevel(mask);
+    return permission;
+  }
+
   public static Scope buildScope(@NonNull AbstractPermission permission) {
     return createScope(permission.getPolicy(), permission.getAccessLevel());
   }
 
-  private static PermissionRequest convertToPermissionRequest(AbstractPermission p) {
+  protected static PermissionRequest convertToPermissionRequest(AbstractPermission p) {
     return PermissionRequest.builder()
         .mask(p.getAccessLevel())
         .policyId(p.getPolicy().getId())
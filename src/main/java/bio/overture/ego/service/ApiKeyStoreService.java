@@ -22,7 +22,12 @@ import bio.overture.ego.model.dto.CreateTokenRequest;
 import bio.overture.ego.model.entity.ApiKey;
 import bio.overture.ego.repository.TokenStoreRepository;
 import bio.overture.ego.repository.queryspecification.builder.TokenSpecificationBuilder;
+import com.google.common.collect.Iterables;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
@@ -37,13 +42,25 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional
 public class ApiKeyStoreService extends AbstractNamedService<ApiKey, UUID> {
 
+  /** Constants */
+  private static final int CHUNK_SIZE = 1000;
+
+  private static final String BULK_REVOKED_METRIC = "ego.apikey.revoked.bulk";
+
   /** Dependencies */
   private final TokenStoreRepository tokenRepository;
 
+  private final Counter bulkRevokedCounter;
+
   @Autowired
-  public ApiKeyStoreService(@NonNull TokenStoreRepository repository) {
+  public ApiKeyStoreService(
+      @NonNull TokenStoreRepository repository, @NonNull MeterRegistry meterRegistry) {
     super(ApiKey.class, repository);
     this.tokenRepository = repository;
+    this.bulkRevokedCounter =
+        Counter.builder(BULK_REVOKED_METRIC)
+            .description("Api keys revoked by id in bulk")
+            .register(meterRegistry);
   }
 
   @Override
@@ -76,6 +93,43 @@ public class ApiKeyStoreService extends AbstractNamedService<ApiKey, UUID> {
     return res;
   }
 
+  /**
+   * Revokes the active api keys of the owners whose scopes exceed the owner's current effective
+   * permissions, with one set-based statement per chunk of owners.
+   *
+   * @return the number of revoked api keys
+   */
+  public int revokeOverScopedApiKeys(@NonNull Collection<UUID> ownerIds) {
+    int revoked = 0;
+    for (val chunk : Iterables.partition(ownerIds, CHUNK_SIZE)) {
+      revoked += tokenRepository.revokeOverScopedApiKeys(chunk);
+    }
+    return revoked;
+  }
+
+  public Set<UUID> findIdsByPolicy(@NonNull UUID policyId) {
+    return tokenRepository.findIdsByPolicyId(policyId);
+  }
+
+  /**
+   * Revokes the api keys with chunked update-by-id statements, skipping keys already revoked
+   *
+   * @return the number of revoked api keys
+   */
+  public int revokeByIds(@NonNull Collection<UUID> ids) {
+    int revoked = 0;
+    int processed = 0;
+    for (val chunk : Iterables.partition(ids, CHUNK_SIZE)) {
+      val count = tokenRepository.revokeByIdIn(chunk);
+      bulkRevokedCounter.increment(count);
+      revoked += count;
+      processed += chunk.size();
+      log.debug("Bulk api key revocation: processed {}/{} ids", processed, ids.size());
+    }
+    log.info("Revoked {} of {} api keys", revoked, ids.size());
+    return revoked;
+  }
+
   public Optional<ApiKey> findByApiKeyName(String apiKeyName) {
     return tokenRepository.findByName(apiKeyName);
   }
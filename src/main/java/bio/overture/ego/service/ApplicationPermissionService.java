@@ -12,12 +12,14 @@ import bio.overture.ego.model.dto.PermissionRequest;
 import bio.overture.ego.model.dto.PolicyResponse;
 import bio.overture.ego.model.dto.ResolvedPermissionResponse;
 import bio.overture.ego.model.entity.*;
+import bio.overture.ego.model.enums.ChangeEntityType;
 import bio.overture.ego.model.join.GroupApplication;
 import bio.overture.ego.model.join.UserApplication;
 import bio.overture.ego.model.search.SearchFilter;
 import bio.overture.ego.repository.ApplicationPermissionRepository;
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
@@ -37,21 +39,27 @@ public class ApplicationPermissionService
   private final ApplicationService applicationService;
 
   private final ApiKeyEventsPublisher apiKeyEventsPublisher;
+  private final PermissionVersionService permissionVersionService;
 
   @Autowired
   public ApplicationPermissionService(
       @NonNull ApplicationPermissionRepository applicationPermissionRepository,
       @NonNull ApplicationService applicationService,
       @NonNull ApiKeyEventsPublisher apiKeyEventsPublisher,
-      @NonNull PolicyService policyService) {
+      @NonNull PolicyService policyService,
+      @NonNull PermissionVersionService permissionVersionService,
+      @NonNull ChangeFeedService changeFeedService) {
     super(
         Application.class,
         ApplicationPermission.class,
+        ChangeEntityType.APPLICATION_PERMISSION,
         applicationService,
         policyService,
-        applicationPermissionRepository);
+        applicationPermissionRepository,
+        changeFeedService);
     this.applicationService = applicationService;
     this.apiKeyEventsPublisher = apiKeyEventsPublisher;
+    this.permissionVersionService = permissionVersionService;
   }
 
   /**
@@ -66,6 +74,7 @@ public class ApplicationPermissionService
   public Application addPermissions(
       @NonNull UUID applicationId, @NonNull List<PermissionRequest> permissionRequests) {
     val application = super.addPermissions(applicationId, permissionRequests);
+    permissionVersionService.incrementApplications(Set.of(applicationId));
     val users = mapToImmutableSet(application.getUserApplications(), UserApplication::getUser);
     apiKeyEventsPublisher.requestApiKeyCleanupByUsers(users);
     return application;
@@ -81,11 +90,18 @@ public class ApplicationPermissionService
   public void deletePermissions(
       @NonNull UUID applicationId, @NonNull Collection<UUID> idsToDelete) {
     super.deletePermissions(applicationId, idsToDelete);
+    permissionVersionService.incrementApplications(Set.of(applicationId));
     val application = applicationService.getWithRelationships(applicationId);
     val users = mapToImmutableSet(application.getUserApplications(), UserApplication::getUser);
     apiKeyEventsPublisher.requestApiKeyCleanupByUsers(users);
   }
 
+  @Override
+  public void deleteByPolicyAndOwner(@NonNull UUID policyId, @NonNull UUID applicationId) {
+    super.deleteByPolicyAndOwner(policyId, applicationId);
+    permissionVersionService.incrementApplications(Set.of(applicationId));
+  }
+
   @Override
   protected Collection<ApplicationPermission> getPermissionsFromOwner(@NonNull Application owner) {
     return owner.getApplicationPermissions();
@@ -16,32 +16,44 @@
 
 package bio.overture.ego.service;
 
+import static bio.overture.ego.config.EncoderConfig.CLIENT_SECRET_ENCODING_ID;
+import static bio.overture.ego.model.enums.ChangeOperation.CREATED;
+import static bio.overture.ego.model.enums.ChangeOperation.DELETED;
+import static bio.overture.ego.model.enums.ChangeOperation.UPDATED;
 import static bio.overture.ego.model.enums.StatusType.APPROVED;
 import static bio.overture.ego.model.exceptions.NotFoundException.checkNotFound;
 import static bio.overture.ego.model.exceptions.RequestValidationException.checkRequestValid;
 import static bio.overture.ego.model.exceptions.UniqueViolationException.checkUnique;
 import static bio.overture.ego.service.AbstractPermissionService.resolveFinalPermissions;
+import static bio.overture.ego.service.SearchIndex.getFallbackPageable;
 import static bio.overture.ego.token.app.AppTokenClaims.AUTHORIZED_GRANT_TYPES;
 import static bio.overture.ego.utils.CollectionUtils.*;
 import static bio.overture.ego.utils.Collectors.toImmutableSet;
 import static bio.overture.ego.utils.EntityServices.checkEntityExistence;
 import static bio.overture.ego.utils.FieldUtils.onUpdateDetected;
+import static java.lang.String.format;
 import static java.util.Objects.isNull;
 import static org.mapstruct.factory.Mappers.getMapper;
 import static org.springframework.data.jpa.domain.Specification.where;
 
+import bio.overture.ego.event.auth.AuthEventsPublisher;
+import bio.overture.ego.model.dto.ApplicationSummary;
 import bio.overture.ego.model.dto.CreateApplicationRequest;
 import bio.overture.ego.model.dto.Scope;
 import bio.overture.ego.model.dto.UpdateApplicationRequest;
 import bio.overture.ego.model.entity.*;
+import bio.overture.ego.model.enums.ChangeEntityType;
 import bio.overture.ego.model.join.GroupApplication;
-import bio.overture.ego.model.join.UserApplication;
 import bio.overture.ego.model.search.SearchFilter;
+import bio.overture.ego.repository.ApplicationPermissionRepository;
 import bio.overture.ego.repository.ApplicationRepository;
 import bio.overture.ego.repository.GroupRepository;
 import bio.overture.ego.repository.UserRepository;
+import bio.overture.ego.repository.join.GroupApplicationRepository;
+import bio.overture.ego.repository.join.UserApplicationRepository;
 import bio.overture.ego.repository.queryspecification.ApplicationSpecification;
 import bio.overture.ego.repository.queryspecification.builder.ApplicationSpecificationBuilder;
+import bio.overture.ego.service.ClientCredentialsCache.ClientCredentials;
 import com.google.common.collect.ImmutableList;
 import java.util.*;
 import lombok.NonNull;
@@ -55,11 +67,13 @@ import org.mapstruct.TargetType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.core.ClientAuthenticationMethod;
 import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
 import org.springframework.security.oauth2.server.authorization.client.RegisteredClientRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @Slf4j
@@ -70,33 +84,64 @@ public class ApplicationService extends AbstractNamedService<Application, UUID>
   public static final ApplicationConverter APPLICATION_CONVERTER =
       getMapper(ApplicationConverter.class);
 
+  private static final PasswordEncoder CLIENT_SECRET_ENCODER = new BCryptPasswordEncoder();
+
   /*
    Dependencies
   */
   private final ApplicationRepository applicationRepository;
-  private final PasswordEncoder passwordEncoder;
   private final GroupRepository groupRepository;
   private final UserRepository userRepository;
+  private final GroupApplicationRepository groupApplicationRepository;
+  private final UserApplicationRepository userApplicationRepository;
+  private final ApplicationPermissionRepository applicationPermissionRepository;
+  private final RegisteredClientCache registeredClientCache;
+  private final ClientCredentialsCache clientCredentialsCache;
+  private final ChangeFeedService changeFeedService;
+  private final SearchIndex searchIndex;
+  private final AuthEventsPublisher authEventsPublisher;
 
   @Autowired
   public ApplicationService(
       @NonNull ApplicationRepository applicationRepository,
       @NonNull GroupRepository groupRepository,
       @NonNull UserRepository userRepository,
-      @NonNull PasswordEncoder passwordEncoder) {
+      @NonNull GroupApplicationRepository groupApplicationRepository,
+      @NonNull UserApplicationRepository userApplicationRepository,
+      @NonNull ApplicationPermissionRepository applicationPermissionRepository,
+      @NonNull RegisteredClientCache registeredClientCache,
+      @NonNull ClientCredentialsCache clientCredentialsCache,
+      @NonNull ChangeFeedService changeFeedService,
+      @NonNull SearchIndex searchIndex,
+      @NonNull AuthEventsPublisher authEventsPublisher) {
     super(Application.class, applicationRepository);
     this.applicationRepository = applicationRepository;
-    this.passwordEncoder = passwordEncoder;
     this.groupRepository = groupRepository;
     this.userRepository = userRepository;
+    this.groupApplicationRepository = groupApplicationRepository;
+    this.userApplicationRepository = userApplicationRepository;
+    this.applicationPermissionRepository = applicationPermissionRepository;
+    this.registeredClientCache = registeredClientCache;
+    this.clientCredentialsCache = clientCredentialsCache;
+    this.changeFeedService = changeFeedService;
+    this.searchIndex = searchIndex;
+    this.authEventsPublisher = authEventsPublisher;
   }
 
   @Override
-  public void delete(@NonNull UUID groupId) {
-    val application = getWithRelationships(groupId);
-    disassociateAllGroupsFromApplication(application);
-    disassociateAllUsersFromApplication(application);
-    getRepository().delete(application);
+  @Transactional
+  public void delete(@NonNull UUID id) {
+    checkExistence(id);
+    // Remove the relationships with set-based deletes instead of one statement per row
+    groupApplicationRepository.deleteAllByApplicationId(id);
+    userApplicationRepository.deleteAllByApplicationId(id);
+    applicationPermissionRepository.deleteAllByOwnerId(id);
+    getRepository().deleteById(id);
+    changeFeedService.record(ChangeEntityType.APPLICATION, DELETED, id);
+    registeredClientCache.invalidate(id);
+    clientCredentialsCache.invalidate(id);
+    authEventsPublisher.principalChanged(id);
+    searchIndex.removeApplication(id);
   }
 
   @SuppressWarnings("unchecked")
@@ -112,17 +157,28 @@ public class ApplicationService extends AbstractNamedService<Application, UUID>
                     .buildByNameIgnoreCase(name));
   }
 
+  @Transactional
   public Application create(@NonNull CreateApplicationRequest request) {
     validateCreateRequest(request);
     val application = APPLICATION_CONVERTER.convertToApplication(request);
-    return getRepository().save(application);
+    val savedApplication = getRepository().save(application);
+    changeFeedService.record(ChangeEntityType.APPLICATION, CREATED, savedApplication.getId());
+    searchIndex.indexApplication(savedApplication);
+    return savedApplication;
   }
 
+  @Transactional
   public Application partialUpdate(@NonNull UUID id, @NonNull UpdateApplicationRequest request) {
     val app = getById(id);
     validateUpdateRequest(app, request);
     APPLICATION_CONVERTER.updateApplication(request, app);
-    return getRepository().save(app);
+    val updatedApp = getRepository().save(app);
+    changeFeedService.record(ChangeEntityType.APPLICATION, UPDATED, id);
+    registeredClientCache.invalidate(id);
+    clientCredentialsCache.invalidate(id);
+    authEventsPublisher.principalChanged(id);
+    searchIndex.indexApplication(updatedApp);
+    return updatedApp;
   }
 
   @Override
@@ -131,19 +187,46 @@ public class ApplicationService extends AbstractNamedService<Application, UUID>
   }
 
   @SuppressWarnings("unchecked")
-  public Page<Application> listApps(
+  @Transactional(readOnly = true)
+  public Page<ApplicationSummary> listApps(
       @NonNull List<SearchFilter> filters, @NonNull Pageable pageable) {
-    return getRepository().findAll(ApplicationSpecification.filterBy(filters), pageable);
+    // Without filters no specification is passed, so the total can be estimated
+    val spec = filters.isEmpty() ? null : ApplicationSpecification.<Application>filterBy(filters);
+    return getRepository().findAll(spec, pageable, ApplicationSummary.class);
+  }
+
+  /**
+   * Type-ahead search of names served from the in-process search index, best matches first. Only
+   * the matching applications are read, by id. Without the index they are searched in the
+   * database.
+   */
+  @Transactional(readOnly = true)
+  public List<ApplicationSummary> suggestApps(@NonNull String query, int limit) {
+    if (!searchIndex.isAvailable()) {
+      return findApps(query, List.of(), getFallbackPageable(limit)).getContent();
+    }
+    return getProjections(
+        searchIndex.searchApplications(query, limit),
+        ApplicationSummary.class,
+        ApplicationSummary::getId);
+  }
+
+  /** Reads the listed columns of the given applications in the order of their ids */
+  @Transactional(readOnly = true)
+  public List<ApplicationSummary> getSummaries(@NonNull List<UUID> ids) {
+    return getProjections(ids, ApplicationSummary.class, ApplicationSummary::getId);
   }
 
   @SuppressWarnings("unchecked")
-  public Page<Application> findApps(
+  @Transactional(readOnly = true)
+  public Page<ApplicationSummary> findApps(
       @NonNull String query, @NonNull List<SearchFilter> filters, @NonNull Pageable pageable) {
     return getRepository()
         .findAll(
             where(ApplicationSpecification.containsText(query))
                 .and(ApplicationSpecification.filterBy(filters)),
-            pageable);
+            pageable,
+            ApplicationSummary.class);
   }
 
   @SuppressWarnings("unchecked")
@@ -206,8 +289,16 @@ public class ApplicationService extends AbstractNamedService<Application, UUID>
     return null;
   }
 
+  /**
+   * Served from the RegisteredClientCache, so the application is loaded and its secret hashed only
+   * once per cache entry rather than on every token request.
+   */
   @Override
   public RegisteredClient findByClientId(String clientId) {
+    return registeredClientCache.get(clientId, this::buildRegisteredClient);
+  }
+
+  private RegisteredClient buildRegisteredClient(String clientId) {
     val application = getByClientId(clientId);
     if (Objects.isNull(application)) {
       return null;
@@ -221,7 +312,7 @@ public class ApplicationService extends AbstractNamedService<Application, UUID>
     // transform application to client details
     val clientDetails =
         RegisteredClient.withId(application.getId().toString())
-            .clientSecret(passwordEncoder.encode(application.getClientSecret()));
+            .clientSecret(encodeClientSecret(application.getClientSecret()));
 
     approvedScopes.forEach(clientDetails::scope);
     clientDetails.redirectUri(application.getRedirectUri());
@@ -233,6 +324,11 @@ public class ApplicationService extends AbstractNamedService<Application, UUID>
     return clientDetails.build();
   }
 
+  /** Tags the hash with its id, so the PasswordEncoder verifies it through the match cache */
+  private static String encodeClientSecret(String clientSecret) {
+    return format("{%s}%s", CLIENT_SECRET_ENCODING_ID, CLIENT_SECRET_ENCODER.encode(clientSecret));
+  }
+
   public Application getByClientId(@NonNull String clientId) {
     val result = getClientApplication(clientId);
     checkNotFound(
@@ -255,6 +351,18 @@ public class ApplicationService extends AbstractNamedService<Application, UUID>
                     .buildByClientIdIgnoreCase(clientId));
   }
 
+  /** Identity and secret digest of the application, served from the ClientCredentialsCache */
+  public Optional<ClientCredentials> getClientCredentials(@NonNull String clientId) {
+    return clientCredentialsCache.get(clientId, this::findClientApplicationWithoutRelationships);
+  }
+
+  @SuppressWarnings("unchecked")
+  private Optional<Application> findClientApplicationWithoutRelationships(String clientId) {
+    return (Optional<Application>)
+        getRepository()
+            .findOne(new ApplicationSpecificationBuilder().buildByClientIdIgnoreCase(clientId));
+  }
+
   private static Collection<AbstractPermission> getResolvedPermissions(
       @NonNull Application application) {
     val applicationPermissions = application.getApplicationPermissions();
@@ -328,38 +436,6 @@ public class ApplicationService extends AbstractNamedService<Application, UUID>
     return result.get();
   }
 
-  public static void disassociateAllGroupsFromApplication(@NonNull Application a) {
-    val groupApplications = a.getGroupApplications();
-    disassociateGroupApplicationsFromApplication(a, groupApplications);
-  }
-
-  public static void disassociateAllUsersFromApplication(@NonNull Application a) {
-    val userApplications = a.getUserApplications();
-    disassociateUserApplicationsFromApplication(a, userApplications);
-  }
-
-  public static void disassociateUserApplicationsFromApplication(
-      @NonNull Application application, @NonNull Collection<UserApplication> userApplications) {
-    userApplications.forEach(
-        ua -> {
-          ua.getUser().getUserApplications().remove(ua);
-          ua.setUser(null);
-          ua.setApplication(null);
-        });
-    application.getUserApplications().removeAll(userApplications);
-  }
-
-  public static void disassociateGroupApplicationsFromApplication(
-      @NonNull Application application, @NonNull Collection<GroupApplication> groupApplications) {
-    groupApplications.forEach(
-        ga -> {
-          ga.getGroup().getGroupApplications().remove(ga);
-          ga.setGroup(null);
-          ga.setApplication(null);
-        });
-    application.getGroupApplications().removeAll(groupApplications);
-  }
-
   @Mapper(
       nullValueCheckStrategy = NullValueCheckStrategy.ALWAYS,
       unmappedTargetPolicy = ReportingPolicy.WARN)
@@ -0,0 +1,174 @@
+package bio.overture.ego.service;
+
+import static bio.overture.ego.model.exceptions.MalformedRequestException.buildMalformedRequest;
+import static bio.overture.ego.model.exceptions.MalformedRequestException.checkMalformedRequest;
+import static bio.overture.ego.utils.CollectionUtils.mapToUnmodifiableList;
+import static java.lang.String.format;
+import static org.springframework.transaction.annotation.Propagation.MANDATORY;
+
+import bio.overture.ego.model.dto.ChangeEventResponse;
+import bio.overture.ego.model.entity.ChangeEvent;
+import bio.overture.ego.model.enums.ChangeEntityType;
+import bio.overture.ego.model.enums.ChangeOperation;
+import bio.overture.ego.repository.ChangeEventRepository;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Transactional outbox of identity and permission mutations. Events are recorded in the
+ * transaction of the mutation itself, so the feed contains exactly the committed changes, and are
+ * read back in commit-safe order through an opaque cursor.
+ */
+@Slf4j
+@Service
+@Transactional(propagation = MANDATORY)
+public class ChangeFeedService {
+
+  /** Constants */
+  public static final int DEFAULT_LIMIT = 1000;
+
+  public static final int MAX_LIMIT = 10000;
+  private static final String CURSOR_SEPARATOR = "-";
+
+  /** Dependencies */
+  private final ChangeEventRepository changeEventRepository;
+
+  @Autowired
+  public ChangeFeedService(@NonNull ChangeEventRepository changeEventRepository) {
+    this.changeEventRepository = changeEventRepository;
+  }
+
+  public void record(
+      @NonNull ChangeEntityType entityType,
+      @NonNull ChangeOperation operation,
+      @NonNull UUID entityId) {
+    record(entityType, operation, entityId, null);
+  }
+
+  public void record(
+      @NonNull ChangeEntityType entityType,
+      @NonNull ChangeOperation operation,
+      @NonNull UUID entityId,
+      UUID relatedId) {
+    changeEventRepository.save(buildEvent(entityType, operation, entityId, relatedId));
+  }
+
+  /** Records one event per related id, all for the same entity */
+  public void recordRelated(
+      @NonNull ChangeEntityType entityType,
+      @NonNull ChangeOperation operation,
+      @NonNull UUID entityId,
+      @NonNull Collection<UUID> relatedIds) {
+    changeEventRepository.saveAll(
+        mapToUnmodifiableList(
+            relatedIds, relatedId -> buildEvent(entityType, operation, entityId, relatedId)));
+  }
+
+  /** Records one event per entity id */
+  public void recordEntities(
+      @NonNull ChangeEntityType entityType,
+      @NonNull ChangeOperation operation,
+      @NonNull Collection<UUID> entityIds) {
+    changeEventRepository.saveAll(
+        mapToUnmodifiableList(
+            entityIds, entityId -> buildEvent(entityType, operation, entityId, null)));
+  }
+
+  /** Records one event per entity id, all related to the same id */
+  public void recordEntities(
+      @NonNull ChangeEntityType entityType,
+      @NonNull ChangeOperation operation,
+      @NonNull Collection<UUID> entityIds,
+      @NonNull UUID relatedId) {
+    changeEventRepository.saveAll(
+        mapToUnmodifiableList(
+            entityIds, entityId -> buildEvent(entityType, operation, entityId, relatedId)));
+  }
+
+  /**
+   * Reads the committed events following the cursor. A missing cursor reads from the beginning of
+   * the feed. An empty result means the reader is caught up.
+   */
+  @Transactional(readOnly = true)
+  public List<ChangeEventResponse> readChanges(String cursor, int limit) {
+    checkLimit(limit);
+    val position = parseCursor(cursor);
+    val events = changeEventRepository.findAfter(position[0], position[1], limit);
+    return mapToUnmodifiableList(events, ChangeFeedService::convertToResponse);
+  }
+
+  /**
+   * Reads the cursor of the last of the next {@code limit} committed events, or returns the cursor
+   * unchanged when the reader is caught up.
+   */
+  @Transactional(readOnly = true)
+  public String readNextCursor(String cursor, int limit) {
+    checkLimit(limit);
+    val position = parseCursor(cursor);
+    return changeEventRepository
+        .findLastAfter(position[0], position[1], limit)
+        .map(x -> convertToResponse(x).getCursor())
+        .orElse(cursor);
+  }
+
+  /** Reads the events following the cursor up to and including an end cursor from readNextCursor */
+  @Transactional(readOnly = true)
+  public List<ChangeEventResponse> readChanges(
+      String cursor, @NonNull String endCursor, int limit) {
+    checkLimit(limit);
+    val position = parseCursor(cursor);
+    val end = parseCursor(endCursor);
+    val events =
+        changeEventRepository.findBetween(position[0], position[1], end[0], end[1], limit);
+    return mapToUnmodifiableList(events, ChangeFeedService::convertToResponse);
+  }
+
+  private static void checkLimit(int limit) {
+    checkMalformedRequest(
+        limit > 0 && limit <= MAX_LIMIT,
+        "The limit '%s' must be between 1 and %s",
+        limit,
+        MAX_LIMIT);
+  }
+
+  private static ChangeEvent buildEvent(
+      ChangeEntityType entityType, ChangeOperation operation, UUID entityId, UUID relatedId) {
+    return ChangeEvent.builder()
+        .entityType(entityType)
+        .operation(operation)
+        .entityId(entityId)
+        .relatedId(relatedId)
+        .build();
+  }
+
+  private static ChangeEventResponse convertToResponse(ChangeEvent event) {
+    return ChangeEventResponse.builder()
+        .cursor(format("%s%s%s", event.getTxId(), CURSOR_SEPARATOR, event.getId()))
+        .entityType(event.getEntityType())
+        .operation(event.getOperation())
+        .entityId(event.getEntityId())
+        .relatedId(event.getRelatedId())
+        .createdAt(event.getCreatedAt())
+        .build();
+  }
+
+  private static long[] parseCursor(String cursor) {
+    if (cursor == null || cursor.isBlank()) {
+      return new long[] {0L, 0L};
+    }
+    val parts = cursor.split(CURSOR_SEPARATOR);
+    try {
+      checkMalformedRequest(parts.length == 2, "The cursor '%s' is malformed", cursor);
+      return new long[] {Long.parseLong(parts[0]), Long.parseLong(parts[1])};
+    } catch (NumberFormatException e) {
+      throw buildMalformedRequest("The cursor '%s' is malformed", cursor);
+    }
+  }
+}
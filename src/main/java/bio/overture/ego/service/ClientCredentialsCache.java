@@ -0,0 +1,99 @@
+package bio.overture.ego.service;
+
+import static bio.overture.ego.utils.Digests.digestsEqual;
+import static bio.overture.ego.utils.Digests.sha256;
+import static bio.overture.ego.utils.Transactions.runNowAndAfterCompletion;
+import static org.springframework.transaction.support.TransactionSynchronizationManager.isActualTransactionActive;
+
+import bio.overture.ego.model.entity.Application;
+import bio.overture.ego.model.enums.ApplicationType;
+import bio.overture.ego.model.enums.StatusType;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caches the identity and a secret digest of each application by clientId, so Basic
+ * authentication of an application does not hit the database on every request. Entries are
+ * evicted by application id when the application is updated or deleted, and otherwise once unused
+ * for EXPIRY or when more than MAX_ENTRIES applications are cached.
+ */
+@Component
+public class ClientCredentialsCache {
+
+  /** Constants */
+  private static final int MAX_ENTRIES = 10_000;
+
+  private static final Duration EXPIRY = Duration.ofHours(1);
+
+  /** State */
+  private final Cache<String, ClientCredentials> cache =
+      CacheBuilder.newBuilder().maximumSize(MAX_ENTRIES).expireAfterAccess(EXPIRY).build();
+
+  /** Entries loaded inside a transaction are not cached, since that state may still roll back. */
+  public Optional<ClientCredentials> get(
+      @NonNull String clientId, @NonNull Function<String, Optional<Application>> loader) {
+    val cached = cache.getIfPresent(clientId);
+    if (cached != null) {
+      return Optional.of(cached);
+    }
+    val credentials = loader.apply(clientId).map(ClientCredentials::from);
+    if (credentials.isPresent() && !isActualTransactionActive()) {
+      cache.put(clientId, credentials.get());
+    }
+    return credentials;
+  }
+
+  public void invalidate(@NonNull UUID applicationId) {
+    runNowAndAfterCompletion(
+        () -> cache.asMap().values().removeIf(x -> x.getId().equals(applicationId)));
+  }
+
+  @Getter
+  @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+  public static class ClientCredentials {
+    private final UUID id;
+    private final String name;
+    private final String clientId;
+    private final ApplicationType type;
+    private final StatusType status;
+
+    @Getter(AccessLevel.NONE)
+    private final byte[] secretDigest;
+
+    public static ClientCredentials from(@NonNull Application application) {
+      return new ClientCredentials(
+          application.getId(),
+          application.getName(),
+          application.getClientId(),
+          application.getType(),
+          application.getStatus(),
+          sha256(application.getClientSecret()));
+    }
+
+    /** Constant-time comparison of the presented secret against the stored one */
+    public boolean secretMatches(@NonNull String clientSecret) {
+      return digestsEqual(secretDigest, sha256(clientSecret));
+    }
+
+    /** Builds a principal carrying only the identity fields, without secret or relationships */
+    public Application toApplication() {
+      return Application.builder()
+          .id(id)
+          .name(name)
+          .clientId(clientId)
+          .type(type)
+          .status(status)
+          .build();
+    }
+  }
+}
@@ -0,0 +1,81 @@
+package bio.overture.ego.service;
+
+import static bio.overture.ego.utils.CollectionUtils.mapToImmutableSet;
+import static bio.overture.ego.utils.Transactions.runNowAndAfterCompletion;
+
+import bio.overture.ego.model.entity.Group;
+import bio.overture.ego.model.entity.GroupPermission;
+import bio.overture.ego.model.entity.Policy;
+import bio.overture.ego.repository.GroupPermissionRepository;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caches the permission vector (policy -> access level) of each group, so that resolving the
+ * permissions of many members of the same group does not re-read the group's permission rows and
+ * policies for every user. Cached permissions are detached copies and must be treated as read-only:
+ * their policy carries only its id and name, and their owner only its id. Groups are evicted once
+ * unused for EXPIRY or when more than MAX_ENTRIES groups are cached.
+ */
+@Slf4j
+@Component
+public class GroupPermissionCache {
+
+  /** Constants */
+  private static final int MAX_ENTRIES = 10_000;
+
+  private static final Duration EXPIRY = Duration.ofHours(1);
+
+  /** Dependencies */
+  private final GroupPermissionRepository groupPermissionRepository;
+
+  /** State */
+  private final Cache<UUID, Set<GroupPermission>> cache =
+      CacheBuilder.newBuilder().maximumSize(MAX_ENTRIES).expireAfterAccess(EXPIRY).build();
+
+  @Autowired
+  public GroupPermissionCache(@NonNull GroupPermissionRepository groupPermissionRepository) {
+    this.groupPermissionRepository = groupPermissionRepository;
+  }
+
+  public Set<GroupPermission> getPermissions(@NonNull Group group) {
+    return cache.asMap().computeIfAbsent(group.getId(), this::loadPermissions);
+  }
+
+  /**
+   * Evicts the group now and again once the surrounding transaction completes, so a concurrent
+   * reader cannot re-populate the entry with the pre-commit state.
+   */
+  public void invalidate(@NonNull UUID groupId) {
+    runNowAndAfterCompletion(() -> cache.invalidate(groupId));
+  }
+
+  public void invalidateAll() {
+    runNowAndAfterCompletion(cache::invalidateAll);
+  }
+
+  private Set<GroupPermission> loadPermissions(UUID groupId) {
+    log.debug("Loading permissions for group '{}' into cache", groupId);
+    val owner = Group.builder().id(groupId).build();
+    return mapToImmutableSet(
+        groupPermissionRepository.findAllByOwner_Id(groupId), x -> detach(x, owner));
+  }
+
+  private static GroupPermission detach(GroupPermission permission, Group owner) {
+    val policy = permission.getPolicy();
+    val detached = new GroupPermission();
+    detached.setId(permission.getId());
+    detached.setAccessLevel(permission.getAccessLevel());
+    detached.setOwner(owner);
+    detached.setPolicy(Policy.builder().id(policy.getId()).name(policy.getName()).build());
+    return detached;
+  }
+}
@@ -1,21 +1,38 @@
 package bio.overture.ego.service;
 
+import static bio.overture.ego.model.enums.ChangeOperation.CREATED;
+import static bio.overture.ego.model.enums.ChangeOperation.UPDATED;
 import static bio.overture.ego.repository.queryspecification.GroupPermissionSpecification.buildFilterAndQuerySpecification;
 import static bio.overture.ego.repository.queryspecification.GroupPermissionSpecification.buildFilterSpecification;
 import static bio.overture.ego.utils.CollectionUtils.mapToImmutableSet;
+import static bio.overture.ego.utils.CollectionUtils.mapToList;
+import static bio.overture.ego.utils.PermissionRequestAnalyzer.analyze;
+import static com.google.common.collect.Maps.uniqueIndex;
+import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.toUnmodifiableList;
 
 import bio.overture.ego.event.token.ApiKeyEventsPublisher;
+import bio.overture.ego.model.dto.OwnerPermissionRequest;
 import bio.overture.ego.model.dto.PermissionRequest;
 import bio.overture.ego.model.dto.PolicyResponse;
+import bio.overture.ego.model.dto.TransactionalGroupPermissionRequest;
 import bio.overture.ego.model.entity.Group;
 import bio.overture.ego.model.entity.GroupPermission;
 import bio.overture.ego.model.entity.Policy;
+import bio.overture.ego.model.enums.AccessLevel;
+import bio.overture.ego.model.enums.ChangeEntityType;
 import bio.overture.ego.model.join.UserGroup;
 import bio.overture.ego.model.search.SearchFilter;
 import bio.overture.ego.repository.GroupPermissionRepository;
+import bio.overture.ego.repository.join.GroupApplicationRepository;
+import bio.overture.ego.repository.join.UserGroupRepository;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
@@ -34,17 +51,189 @@ public class GroupPermissionService
   /** Dependencies */
   private final GroupService groupService;
 
+  private final PolicyService policyService;
+  private final GroupPermissionRepository groupPermissionRepository;
+  private final UserGroupRepository userGroupRepository;
+  private final GroupApplicationRepository groupApplicationRepository;
   private final ApiKeyEventsPublisher apiKeyEventsPublisher;
+  private final GroupPermissionCache groupPermissionCache;
+  private final PermissionVersionService permissionVersionService;
+  private final ChangeFeedService changeFeedService;
 
   @Autowired
   public GroupPermissionService(
       @NonNull GroupPermissionRepository repository,
       @NonNull GroupService groupService,
       @NonNull ApiKeyEventsPublisher apiKeyEventsPublisher,
-      @NonNull PolicyService policyService) {
-    super(Group.class, GroupPermission.class, groupService, policyService, repository);
+      @NonNull PolicyService policyService,
+      @NonNull UserGroupRepository userGroupRepository,
+      @NonNull GroupApplicationRepository groupApplicationRepository,
+      @NonNull GroupPermissionCache groupPermissionCache,
+      @NonNull PermissionVersionService permissionVersionService,
+      @NonNull ChangeFeedService changeFeedService) {
+    super(
+        Group.class,
+        GroupPermission.class,
+        ChangeEntityType.GROUP_PERMISSION,
+        groupService,
+        policyService,
+        repository,
+        changeFeedService);
     this.groupService = groupService;
+    this.policyService = policyService;
+    this.groupPermissionRepository = repository;
+    this.userGroupRepository = userGroupRepository;
+    this.groupApplicationRepository = groupApplicationRepository;
     this.apiKeyEventsPublisher = apiKeyEventsPublisher;
+    this.groupPermissionCache = groupPermissionCache;
+    this.permissionVersionService = permissionVersionService;
+    this.changeFeedService = changeFeedService;
+  }
+
+  /**
+   * Ensures every group has the requested permission, creating any missing groups and policies.
+   * Requests are applied in order, so the last mask requested for a group and policy wins. Groups,
+   * policies and existing permissions are each resolved with a single query and all permission
+   * requests of a group are analyzed at once.
+   *
+   * @param requests group and policy names with the mask to grant
+   */
+  public void upsertPermissionsByName(
+      @NonNull List<TransactionalGroupPermissionRequest> requests) {
+    if (requests.isEmpty()) {
+      return;
+    }
+    val groups =
+        groupService.getGroupsByNameCreateIfNecessary(
+            mapToImmutableSet(requests, TransactionalGroupPermissionRequest::getGroupName));
+    val policies =
+        policyService.getPoliciesByNameCreateIfNecessary(
+            mapToImmutableSet(requests, TransactionalGroupPermissionRequest::getPolicyName));
+
+    val groupsById = uniqueIndex(groups.values(), Group::getId);
+    val policiesById = uniqueIndex(policies.values(), Policy::getId);
+
+    // Index the requested masks by group and then by policy, keeping the last one requested
+    val requestedMasks = new LinkedHashMap<UUID, Map<UUID, AccessLevel>>();
+    requests.forEach(
+        r ->
+            requestedMasks
+                .computeIfAbsent(
+                    groups.get(r.getGroupName().toLowerCase()).getId(),
+                    x -> new LinkedHashMap<>())
+                .put(policies.get(r.getPolicyName().toLowerCase()).getId(), r.getMask()));
+
+    val existingPermissionsByGroupId =
+        groupPermissionRepository.findAllWithPolicyByOwnerIdIn(requestedMasks.keySet()).stream()
+            .collect(groupingBy(x -> x.getOwner().getId()));
+
+    val changedGroupIds = ImmutableSet.<UUID>builder();
+    val permissionsToCreate = ImmutableList.<GroupPermission>builder();
+    for (val entry : requestedMasks.entrySet()) {
+      val groupId = entry.getKey();
+      val permissionRequests =
+          mapToList(
+              entry.getValue().entrySet(), e -> new PermissionRequest(e.getKey(), e.getValue()));
+      val changed =
+          upsertGroupPermissions(
+              groupsById.get(groupId),
+              existingPermissionsByGroupId.getOrDefault(groupId, ImmutableList.of()),
+              permissionRequests,
+              policiesById,
+              permissionsToCreate);
+      if (changed) {
+        changedGroupIds.add(groupId);
+      }
+    }
+    groupPermissionRepository.saveAll(permissionsToCreate.build());
+    permissionsChanged(changedGroupIds.build());
+  }
+
+  /**
+   * Decorates the call to addPolicyPermissions with one api key cleanup for the members of all
+   * affected groups
+   *
+   * @param policyId Id of the policy granted to the groups
+   * @param requests group ids with the mask to grant
+   */
+  @Override
+  public Set<UUID> addPolicyPermissions(
+      @NonNull UUID policyId, @NonNull List<OwnerPermissionRequest> requests) {
+    val groupIds = super.addPolicyPermissions(policyId, requests);
+    permissionsChanged(groupIds);
+    return groupIds;
+  }
+
+  /**
+   * Decorates the call to deletePolicyPermissions with one api key cleanup for the members of all
+   * affected groups
+   *
+   * @param policyId Id of the policy revoked from the groups
+   * @param groupIds Ids of the groups losing the policy
+   */
+  @Override
+  public Set<UUID> deletePolicyPermissions(
+      @NonNull UUID policyId, @NonNull Collection<UUID> groupIds) {
+    val deletedGroupIds = super.deletePolicyPermissions(policyId, groupIds);
+    permissionsChanged(deletedGroupIds);
+    return deletedGroupIds;
+  }
+
+  /** Invalidates the groups and bumps the versions and api keys of their members, all at once */
+  private void permissionsChanged(Set<UUID> groupIds) {
+    if (groupIds.isEmpty()) {
+      return;
+    }
+    groupIds.forEach(groupPermissionCache::invalidate);
+    val userIds = userGroupRepository.findUserIdsByGroupIdIn(groupIds);
+    permissionVersionService.incrementGroups(groupIds);
+    permissionVersionService.incrementUsers(userIds);
+    permissionVersionService.incrementApplications(
+        groupApplicationRepository.findApplicationIdsByGroupIdIn(groupIds));
+    apiKeyEventsPublisher.requestApiKeyCleanupByUserIds(userIds);
+  }
+
+  /**
+   * Updates the existing permissions of the group in place, so they are flushed by dirty checking,
+   * and collects the new ones so all of them are saved together.
+   *
+   * @return true if any permission of the group was created or updated
+   */
+  private boolean upsertGroupPermissions(
+      Group group,
+      Collection<GroupPermission> existingPermissions,
+      Collection<PermissionRequest> permissionRequests,
+      Map<UUID, Policy> policiesById,
+      ImmutableList.Builder<GroupPermission> permissionsToCreate) {
+    val existingPermissionIndex = uniqueIndex(existingPermissions, x -> x.getPolicy().getId());
+    val permissionAnalysis =
+        analyze(
+            mapToList(existingPermissions, AbstractPermissionService::convertToPermissionRequest),
+            permissionRequests);
+
+    permissionAnalysis
+        .getUpdateables()
+        .forEach(r -> existingPermissionIndex.get(r.getPolicyId()).setAccessLevel(r.getMask()));
+    permissionAnalysis
+        .getCreateables()
+        .forEach(
+            r -> {
+              val gp = new GroupPermission();
+              gp.setOwner(group);
+              gp.setPolicy(policiesById.get(r.getPolicyId()));
+              gp.setAccessLevel(r.getMask());
+              permissionsToCreate.add(gp);
+            });
+
+    val updatedPolicyIds =
+        mapToImmutableSet(permissionAnalysis.getUpdateables(), PermissionRequest::getPolicyId);
+    val createdPolicyIds =
+        mapToImmutableSet(permissionAnalysis.getCreateables(), PermissionRequest::getPolicyId);
+    changeFeedService.recordRelated(
+        ChangeEntityType.GROUP_PERMISSION, UPDATED, group.getId(), updatedPolicyIds);
+    changeFeedService.recordRelated(
+        ChangeEntityType.GROUP_PERMISSION, CREATED, group.getId(), createdPolicyIds);
+    return !updatedPolicyIds.isEmpty() || !createdPolicyIds.isEmpty();
   }
 
   /**
@@ -58,6 +247,8 @@ public class GroupPermissionService
   public Group addPermissions(
       @NonNull UUID groupId, @NonNull List<PermissionRequest> permissionRequests) {
     val group = super.addPermissions(groupId, permissionRequests);
+    groupPermissionCache.invalidate(groupId);
+    permissionVersionService.incrementGroupAndMembers(group);
     val users = mapToImmutableSet(group.getUserGroups(), UserGroup::getUser);
     apiKeyEventsPublisher.requestApiKeyCleanupByUsers(users);
     return group;
@@ -72,11 +263,20 @@ public class GroupPermissionService
   @Override
   public void deletePermissions(@NonNull UUID groupId, @NonNull Collection<UUID> idsToDelete) {
     super.deletePermissions(groupId, idsToDelete);
+    groupPermissionCache.invalidate(groupId);
     val group = groupService.getWithRelationships(groupId);
+    permissionVersionService.incrementGroupAndMembers(group);
     val users = mapToImmutableSet(group.getUserGroups(), UserGroup::getUser);
     apiKeyEventsPublisher.requestApiKeyCleanupByUsers(users);
   }
 
+  @Override
+  public void deleteByPolicyAndOwner(@NonNull UUID policyId, @NonNull UUID groupId) {
+    super.deleteByPolicyAndOwner(policyId, groupId);
+    groupPermissionCache.invalidate(groupId);
+    permissionVersionService.incrementGroupAndMembers(groupService.getWithRelationships(groupId));
+  }
+
   @Override
   protected Collection<GroupPermission> getPermissionsFromOwner(@NonNull Group owner) {
     return owner.getPermissions();
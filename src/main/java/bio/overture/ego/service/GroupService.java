@@ -16,18 +16,20 @@
 
 package bio.overture.ego.service;
 
+import static bio.overture.ego.model.enums.ChangeOperation.CREATED;
+import static bio.overture.ego.model.enums.ChangeOperation.DELETED;
+import static bio.overture.ego.model.enums.ChangeOperation.UPDATED;
 import static bio.overture.ego.model.exceptions.NotFoundException.buildNotFoundException;
 import static bio.overture.ego.model.exceptions.NotFoundException.checkNotFound;
 import static bio.overture.ego.model.exceptions.RequestValidationException.checkRequestValid;
 import static bio.overture.ego.model.exceptions.UniqueViolationException.checkUnique;
+import static bio.overture.ego.service.SearchIndex.getFallbackPageable;
 import static bio.overture.ego.utils.CollectionUtils.difference;
 import static bio.overture.ego.utils.CollectionUtils.intersection;
 import static bio.overture.ego.utils.CollectionUtils.mapToImmutableSet;
-import static bio.overture.ego.utils.CollectionUtils.mapToSet;
 import static bio.overture.ego.utils.Collectors.toImmutableSet;
 import static bio.overture.ego.utils.Converters.convertToGroupApplication;
 import static bio.overture.ego.utils.Converters.convertToIds;
-import static bio.overture.ego.utils.Converters.convertToUserGroup;
 import static bio.overture.ego.utils.EntityServices.checkEntityExistence;
 import static bio.overture.ego.utils.EntityServices.getManyEntities;
 import static bio.overture.ego.utils.FieldUtils.onUpdateDetected;
@@ -38,24 +40,30 @@ import static org.springframework.data.jpa.domain.Specification.where;
 
 import bio.overture.ego.event.token.ApiKeyEventsPublisher;
 import bio.overture.ego.model.dto.GroupRequest;
+import bio.overture.ego.model.dto.GroupSummary;
 import bio.overture.ego.model.entity.Application;
 import bio.overture.ego.model.entity.Group;
 import bio.overture.ego.model.entity.User;
+import bio.overture.ego.model.enums.ChangeEntityType;
 import bio.overture.ego.model.enums.StatusType;
 import bio.overture.ego.model.join.GroupApplication;
-import bio.overture.ego.model.join.UserGroup;
 import bio.overture.ego.model.search.SearchFilter;
+import bio.overture.ego.repository.GroupPermissionRepository;
 import bio.overture.ego.repository.GroupRepository;
 import bio.overture.ego.repository.UserRepository;
+import bio.overture.ego.repository.join.GroupApplicationRepository;
+import bio.overture.ego.repository.join.UserGroupRepository;
 import bio.overture.ego.repository.queryspecification.GroupSpecification;
 import bio.overture.ego.repository.queryspecification.builder.GroupSpecificationBuilder;
 import bio.overture.ego.utils.EntityServices;
 import com.google.common.collect.ImmutableSet;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
-import javax.transaction.Transactional;
 import lombok.NonNull;
 import lombok.val;
 import org.mapstruct.Mapper;
@@ -67,6 +75,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @Transactional
@@ -79,20 +88,41 @@ public class GroupService extends AbstractNamedService<Group, UUID> {
   private final GroupRepository groupRepository;
 
   private final UserRepository userRepository;
+  private final UserGroupRepository userGroupRepository;
+  private final GroupApplicationRepository groupApplicationRepository;
+  private final GroupPermissionRepository groupPermissionRepository;
   private final ApplicationService applicationService;
   private final ApiKeyEventsPublisher apiKeyEventsPublisher;
+  private final GroupPermissionCache groupPermissionCache;
+  private final PermissionVersionService permissionVersionService;
+  private final ChangeFeedService changeFeedService;
+  private final SearchIndex searchIndex;
 
   @Autowired
   public GroupService(
       @NonNull GroupRepository groupRepository,
       @NonNull UserRepository userRepository,
+      @NonNull UserGroupRepository userGroupRepository,
+      @NonNull GroupApplicationRepository groupApplicationRepository,
+      @NonNull GroupPermissionRepository groupPermissionRepository,
       @NonNull ApplicationService applicationService,
-      @NonNull ApiKeyEventsPublisher apiKeyEventsPublisher) {
+      @NonNull ApiKeyEventsPublisher apiKeyEventsPublisher,
+      @NonNull GroupPermissionCache groupPermissionCache,
+      @NonNull PermissionVersionService permissionVersionService,
+      @NonNull ChangeFeedService changeFeedService,
+      @NonNull SearchIndex searchIndex) {
     super(Group.class, groupRepository);
     this.groupRepository = groupRepository;
     this.applicationService = applicationService;
     this.apiKeyEventsPublisher = apiKeyEventsPublisher;
     this.userRepository = userRepository;
+    this.userGroupRepository = userGroupRepository;
+    this.groupApplicationRepository = groupApplicationRepository;
+    this.groupPermissionRepository = groupPermissionRepository;
+    this.groupPermissionCache = groupPermissionCache;
+    this.permissionVersionService = permissionVersionService;
+    this.changeFeedService = changeFeedService;
+    this.searchIndex = searchIndex;
   }
 
   @SuppressWarnings("unchecked")
@@ -118,25 +148,56 @@ public class GroupService extends AbstractNamedService<Group, UUID> {
     return create(new GroupRequest(name, "", StatusType.APPROVED));
   }
 
+  /**
+   * Bulk version of getGroupByNameCreateIfNecessary. Names are matched ignoring case.
+   *
+   * @return groups indexed by their lower case name
+   */
+  public Map<String, Group> getGroupsByNameCreateIfNecessary(@NonNull Collection<String> names) {
+    val groups = new HashMap<String, Group>();
+    groupRepository
+        .findAllByLowerCaseNameIn(mapToImmutableSet(names, String::toLowerCase))
+        .forEach(g -> groups.putIfAbsent(g.getName().toLowerCase(), g));
+    names.forEach(
+        name ->
+            groups.computeIfAbsent(
+                name.toLowerCase(),
+                x -> create(new GroupRequest(name, "", StatusType.APPROVED))));
+    return groups;
+  }
+
   public Group create(@NonNull GroupRequest request) {
     validateCreateRequest(request);
     val group = GROUP_CONVERTER.convertToGroup(request);
-    return getRepository().save(group);
+    val savedGroup = getRepository().save(group);
+    changeFeedService.record(ChangeEntityType.GROUP, CREATED, savedGroup.getId());
+    searchIndex.indexGroup(savedGroup);
+    return savedGroup;
   }
 
   /**
    * Decorate the delete method for group's users to also trigger a token check after group delete.
+   * The memberships and permissions are removed with set-based deletes, so the cost does not grow
+   * with one statement per member.
    *
    * @param groupId The ID of the group to be deleted.
    */
   @Override
   public void delete(@NonNull UUID groupId) {
-    val group = getWithRelationships(groupId);
-    val users = mapToSet(group.getUserGroups(), UserGroup::getUser);
-    disassociateAllUsersFromGroup(group);
-    disassociateAllApplicationsFromGroup(group);
-    apiKeyEventsPublisher.requestApiKeyCleanupByUsers(users);
-    getRepository().delete(group);
+    checkExistence(groupId);
+    val userIds = userGroupRepository.findUserIdsByGroupId(groupId);
+    val applicationIds = groupApplicationRepository.findApplicationIdsByGroupId(groupId);
+    permissionVersionService.incrementGroups(Set.of(groupId));
+    permissionVersionService.incrementUsers(userIds);
+    permissionVersionService.incrementApplications(applicationIds);
+    userGroupRepository.deleteAllByGroupId(groupId);
+    groupApplicationRepository.deleteAllByGroupId(groupId);
+    groupPermissionRepository.deleteAllByOwnerId(groupId);
+    apiKeyEventsPublisher.requestApiKeyCleanupByUserIds(userIds);
+    getRepository().deleteById(groupId);
+    changeFeedService.record(ChangeEntityType.GROUP, DELETED, groupId);
+    groupPermissionCache.invalidate(groupId);
+    searchIndex.removeGroup(groupId);
   }
 
   public Group getWithRelationships(@NonNull UUID id) {
@@ -154,15 +215,15 @@ public class GroupService extends AbstractNamedService<Group, UUID> {
   public void disassociateUsersFromGroup(@NonNull UUID id, @NonNull Collection<UUID> userIds) {
     // check duplicate userIds
     checkDuplicates(User.class, userIds);
+    checkExistence(id);
+    if (userIds.isEmpty()) {
+      return;
+    }
 
-    // Get existing associated child ids with the parent
-    val groupWithUserGroups = getWithUserGroups(id);
-    val users = mapToImmutableSet(groupWithUserGroups.getUserGroups(), UserGroup::getUser);
-    val existingAssociatedUserIds = convertToIds(users);
-
-    // Get existing and non-existing non-associated user ids. Error out if there are existing and
-    // non-existing non-associated user ids
-    val nonAssociatedUserIds = difference(userIds, existingAssociatedUserIds);
+    // Get the requested user ids that are associated with the group, without loading the other
+    // members. Error out if there are existing and non-existing non-associated user ids
+    val associatedUserIds = userGroupRepository.findUserIdsByGroupIdAndUserIdIn(id, userIds);
+    val nonAssociatedUserIds = difference(userIds, associatedUserIds);
     if (!nonAssociatedUserIds.isEmpty()) {
       EntityServices.checkEntityExistence(User.class, userRepository, nonAssociatedUserIds);
       throw buildNotFoundException(
@@ -171,35 +232,29 @@ public class GroupService extends AbstractNamedService<Group, UUID> {
           User.class.getSimpleName(), getEntityTypeName(), id);
     }
 
-    // Since all user ids exist and are associated with the group, disassociate them from
-    // eachother
-    val userIdsToDisassociate = ImmutableSet.copyOf(userIds);
-    val userGroupsToDisassociate =
-        groupWithUserGroups.getUserGroups().stream()
-            .filter(ug -> userIdsToDisassociate.contains(ug.getId().getUserId()))
-            .collect(toImmutableSet());
-
-    disassociateUserGroupsFromGroup(groupWithUserGroups, userGroupsToDisassociate);
+    // Since all user ids exist and are associated with the group, delete their memberships in a
+    // single statement
+    val usersToCheck = getManyEntities(User.class, userRepository, userIds);
+    userGroupRepository.deleteUsersFromGroup(id, userIds);
+    changeFeedService.recordEntities(ChangeEntityType.USER_GROUP, DELETED, userIds, id);
+    permissionVersionService.incrementUsers(userIds);
 
     // Only request cleanup check for disassociated users
-    val usersToCheck =
-        users.stream()
-            .filter(u -> userIdsToDisassociate.contains(u.getId()))
-            .collect(toImmutableSet());
     apiKeyEventsPublisher.requestApiKeyCleanupByUsers(usersToCheck);
   }
 
   public Group associateUsersWithGroup(@NonNull UUID id, @NonNull Collection<UUID> userIds) {
     // check duplicate userIds
     checkDuplicates(User.class, userIds);
+    val group = getById(id);
+    if (userIds.isEmpty()) {
+      return group;
+    }
 
-    // Get existing associated user ids with the group
-    val groupWithUserGroups = getWithUserGroups(id);
-    val users = mapToImmutableSet(groupWithUserGroups.getUserGroups(), UserGroup::getUser);
-    val existingAssociatedUserIds = convertToIds(users);
-
-    // Check there are no user ids that are already associated with the group
-    val existingAlreadyAssociatedUserIds = intersection(existingAssociatedUserIds, userIds);
+    // Check there are no user ids that are already associated with the group, without loading
+    // the other members
+    val existingAlreadyAssociatedUserIds =
+        userGroupRepository.findUserIdsByGroupIdAndUserIdIn(id, userIds);
     checkUnique(
         existingAlreadyAssociatedUserIds.isEmpty(),
         "The following %s ids are already associated with %s '%s': [%s]",
@@ -208,37 +263,64 @@ public class GroupService extends AbstractNamedService<Group, UUID> {
         id,
         PRETTY_COMMA.join(existingAlreadyAssociatedUserIds));
 
-    // Get all unassociated user ids. If they do not exist, an error is thrown
-    val nonAssociatedUserIds = difference(userIds, existingAssociatedUserIds);
-    val nonAssociatedUsers = getManyEntities(User.class, userRepository, nonAssociatedUserIds);
+    // Get the requested users. If they do not exist, an error is thrown
+    val users = getManyEntities(User.class, userRepository, userIds);
 
-    // Associate the existing users with the group
-    nonAssociatedUsers.stream()
-        .map(u -> convertToUserGroup(u, groupWithUserGroups))
-        .forEach(UserGroupService::associateSelf);
-    apiKeyEventsPublisher.requestApiKeyCleanupByUsers(nonAssociatedUsers);
-    return groupWithUserGroups;
+    // Associate the users with the group in a single statement
+    userGroupRepository.insertUsersIntoGroup(id, userIds);
+    changeFeedService.recordEntities(ChangeEntityType.USER_GROUP, CREATED, userIds, id);
+    permissionVersionService.incrementUsers(userIds);
+    apiKeyEventsPublisher.requestApiKeyCleanupByUsers(users);
+    return group;
   }
 
   public Group partialUpdate(@NonNull UUID id, @NonNull GroupRequest r) {
     val group = getById(id);
     validateUpdateRequest(group, r);
     GROUP_CONVERTER.updateGroup(r, group);
-    return getRepository().save(group);
+    val updatedGroup = getRepository().save(group);
+    changeFeedService.record(ChangeEntityType.GROUP, UPDATED, id);
+    searchIndex.indexGroup(updatedGroup);
+    return updatedGroup;
   }
 
   @SuppressWarnings("unchecked")
-  public Page<Group> listGroups(@NonNull List<SearchFilter> filters, @NonNull Pageable pageable) {
-    return getRepository().findAll(GroupSpecification.filterBy(filters), pageable);
+  @Transactional(readOnly = true)
+  public Page<GroupSummary> listGroups(
+      @NonNull List<SearchFilter> filters, @NonNull Pageable pageable) {
+    // Without filters no specification is passed, so the total can be estimated
+    val spec = filters.isEmpty() ? null : GroupSpecification.<Group>filterBy(filters);
+    return getRepository().findAll(spec, pageable, GroupSummary.class);
+  }
+
+  /**
+   * Type-ahead search of names served from the in-process search index, best matches first. Only
+   * the matching groups are read, by id. Without the index they are searched in the database.
+   */
+  @Transactional(readOnly = true)
+  public List<GroupSummary> suggestGroups(@NonNull String query, int limit) {
+    if (!searchIndex.isAvailable()) {
+      return findGroups(query, List.of(), getFallbackPageable(limit)).getContent();
+    }
+    return getProjections(
+        searchIndex.searchGroups(query, limit), GroupSummary.class, GroupSummary::getId);
+  }
+
+  /** Reads the listed columns of the given groups in the order of their ids */
+  @Transactional(readOnly = true)
+  public List<GroupSummary> getSummaries(@NonNull List<UUID> ids) {
+    return getProjections(ids, GroupSummary.class, GroupSummary::getId);
   }
 
   @SuppressWarnings("unchecked")
-  public Page<Group> findGroups(
+  @Transactional(readOnly = true)
+  public Page<GroupSummary> findGroups(
       @NonNull String query, @NonNull List<SearchFilter> filters, @NonNull Pageable pageable) {
     return getRepository()
         .findAll(
             where(GroupSpecification.containsText(query)).and(GroupSpecification.filterBy(filters)),
-            pageable);
+            pageable,
+            GroupSummary.class);
   }
 
   @SuppressWarnings("unchecked")
@@ -324,6 +406,9 @@ public class GroupService extends AbstractNamedService<Group, UUID> {
     nonAssociatedApplications.stream()
         .map(a -> convertToGroupApplication(groupWithApplications, a))
         .forEach(GroupService::associateSelf);
+    changeFeedService.recordRelated(
+        ChangeEntityType.GROUP_APPLICATION, CREATED, id, nonAssociatedApplicationIds);
+    permissionVersionService.incrementApplications(nonAssociatedApplicationIds);
     return groupWithApplications;
   }
 
@@ -360,6 +445,9 @@ public class GroupService extends AbstractNamedService<Group, UUID> {
             .collect(toImmutableSet());
 
     disassociateGroupApplicationsFromGroup(groupWithApplications, groupApplicationsToDisassociate);
+    changeFeedService.recordRelated(
+        ChangeEntityType.GROUP_APPLICATION, DELETED, id, applicationIdsToDisassociate);
+    permissionVersionService.incrementApplications(applicationIdsToDisassociate);
   }
 
   @SuppressWarnings("unchecked")
@@ -406,27 +494,6 @@ public class GroupService extends AbstractNamedService<Group, UUID> {
     g.getGroupApplications().removeAll(groupApplications);
   }
 
-  public static void disassociateUserGroupsFromGroup(
-      @NonNull Group g, @NonNull Collection<UserGroup> userGroups) {
-    userGroups.forEach(
-        ug -> {
-          ug.getUser().getUserGroups().remove(ug);
-          ug.setUser(null);
-          ug.setGroup(null);
-        });
-    g.getUserGroups().removeAll(userGroups);
-  }
-
-  public static void disassociateAllUsersFromGroup(@NonNull Group g) {
-    val userGroups = g.getUserGroups();
-    disassociateUserGroupsFromGroup(g, userGroups);
-  }
-
-  public static void disassociateAllApplicationsFromGroup(@NonNull Group g) {
-    val groupApplications = g.getGroupApplications();
-    disassociateGroupApplicationsFromGroup(g, groupApplications);
-  }
-
   private static void associateSelf(@NonNull GroupApplication ga) {
     ga.getGroup().getGroupApplications().add(ga);
     ga.getApplication().getGroupApplications().add(ga);
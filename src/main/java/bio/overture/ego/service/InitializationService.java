@@ -8,12 +8,12 @@ import bio.overture.ego.config.InitializationConfig;
 import bio.overture.ego.model.dto.CreateApplicationRequest;
 import bio.overture.ego.model.entity.InitTripWire;
 import bio.overture.ego.repository.InitTripWireRepository;
-import javax.transaction.Transactional;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Slf4j
 @Service
@@ -0,0 +1,93 @@
+package bio.overture.ego.service;
+
+import static bio.overture.ego.model.exceptions.NotFoundException.buildNotFoundException;
+import static bio.overture.ego.utils.CollectionUtils.mapToImmutableSet;
+
+import bio.overture.ego.model.entity.Group;
+import bio.overture.ego.repository.ApplicationRepository;
+import bio.overture.ego.repository.GroupRepository;
+import bio.overture.ego.repository.UserRepository;
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Maintains the permission version counters of users, groups and applications. Every path that
+ * changes effective permissions increments the version of the affected owners, so that clients
+ * can detect stale scopes without re-resolving them. Cached registered clients of affected
+ * applications are evicted along with the increment.
+ */
+@Slf4j
+@Service
+@Transactional
+public class PermissionVersionService {
+
+  /** Dependencies */
+  private final UserRepository userRepository;
+
+  private final GroupRepository groupRepository;
+  private final ApplicationRepository applicationRepository;
+  private final RegisteredClientCache registeredClientCache;
+
+  @Autowired
+  public PermissionVersionService(
+      @NonNull UserRepository userRepository,
+      @NonNull GroupRepository groupRepository,
+      @NonNull ApplicationRepository applicationRepository,
+      @NonNull RegisteredClientCache registeredClientCache) {
+    this.userRepository = userRepository;
+    this.groupRepository = groupRepository;
+    this.applicationRepository = applicationRepository;
+    this.registeredClientCache = registeredClientCache;
+  }
+
+  public long getUserPermissionVersion(@NonNull UUID userId) {
+    return userRepository
+        .getPermissionVersionById(userId)
+        .orElseThrow(() -> buildNotFoundException("The user with id '%s' does not exist", userId));
+  }
+
+  public void incrementUsers(@NonNull Collection<UUID> userIds) {
+    if (!userIds.isEmpty()) {
+      userRepository.incrementPermissionVersions(userIds);
+    }
+  }
+
+  public void incrementGroups(@NonNull Collection<UUID> groupIds) {
+    if (!groupIds.isEmpty()) {
+      groupRepository.incrementPermissionVersions(groupIds);
+    }
+  }
+
+  public void incrementApplications(@NonNull Collection<UUID> applicationIds) {
+    if (!applicationIds.isEmpty()) {
+      applicationRepository.incrementPermissionVersions(applicationIds);
+      registeredClientCache.invalidate(applicationIds);
+    }
+  }
+
+  /**
+   * Increments the group along with its member users and applications
+   *
+   * @param group assumed to be loaded with its userGroups and groupApplications
+   */
+  public void incrementGroupAndMembers(@NonNull Group group) {
+    incrementGroups(Set.of(group.getId()));
+    incrementUsers(mapToImmutableSet(group.getUserGroups(), x -> x.getUser().getId()));
+    incrementApplications(
+        mapToImmutableSet(group.getGroupApplications(), x -> x.getApplication().getId()));
+  }
+
+  /** Increments every owner with a direct or inherited permission on the policy */
+  public void incrementByPolicy(@NonNull UUID policyId) {
+    userRepository.incrementPermissionVersionsByPolicy(policyId);
+    groupRepository.incrementPermissionVersionsByPolicy(policyId);
+    applicationRepository.incrementPermissionVersionsByPolicy(policyId);
+    registeredClientCache.invalidateAll();
+  }
+}
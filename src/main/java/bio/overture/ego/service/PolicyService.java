@@ -1,24 +1,35 @@
 package bio.overture.ego.service;
 
+import static bio.overture.ego.model.enums.ChangeOperation.CREATED;
+import static bio.overture.ego.model.enums.ChangeOperation.DELETED;
+import static bio.overture.ego.model.enums.ChangeOperation.UPDATED;
 import static bio.overture.ego.model.enums.JavaFields.ID;
 import static bio.overture.ego.model.enums.JavaFields.PERMISSIONS;
 import static bio.overture.ego.model.enums.JavaFields.USERPERMISSIONS;
 import static bio.overture.ego.model.exceptions.NotFoundException.checkNotFound;
 import static bio.overture.ego.model.exceptions.RequestValidationException.checkRequestValid;
 import static bio.overture.ego.model.exceptions.UniqueViolationException.checkUnique;
+import static bio.overture.ego.utils.CollectionUtils.mapToImmutableSet;
+import static bio.overture.ego.utils.CollectionUtils.mapToUnmodifiableList;
 import static bio.overture.ego.utils.FieldUtils.onUpdateDetected;
+import static java.util.Objects.isNull;
 import static javax.persistence.criteria.JoinType.LEFT;
 import static org.mapstruct.factory.Mappers.getMapper;
 
 import bio.overture.ego.event.token.ApiKeyEventsPublisher;
 import bio.overture.ego.model.dto.PolicyRequest;
-import bio.overture.ego.model.entity.ApiKeyScope;
+import bio.overture.ego.model.dto.PolicyResponse;
 import bio.overture.ego.model.entity.Policy;
+import bio.overture.ego.model.enums.AccessLevel;
+import bio.overture.ego.model.enums.ChangeEntityType;
 import bio.overture.ego.model.search.SearchFilter;
 import bio.overture.ego.repository.PolicyRepository;
+import bio.overture.ego.repository.PolicyRepository.EffectivePermission;
 import bio.overture.ego.repository.queryspecification.PolicySpecification;
-import bio.overture.ego.utils.Collectors;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import lombok.NonNull;
@@ -31,6 +42,7 @@ import org.mapstruct.ReportingPolicy;
 import org.mapstruct.TargetType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
@@ -48,20 +60,37 @@ public class PolicyService extends AbstractNamedService<Policy, UUID> {
   private final PolicyRepository policyRepository;
 
   private final ApiKeyEventsPublisher apiKeyEventsPublisher;
+  private final GroupPermissionCache groupPermissionCache;
+  private final PermissionVersionService permissionVersionService;
+  private final RegisteredClientCache registeredClientCache;
+  private final ApiKeyStoreService apiKeyStoreService;
+  private final ChangeFeedService changeFeedService;
 
   @Autowired
   public PolicyService(
       @NonNull PolicyRepository policyRepository,
-      @NonNull ApiKeyEventsPublisher apiKeyEventsPublisher) {
+      @NonNull ApiKeyEventsPublisher apiKeyEventsPublisher,
+      @NonNull GroupPermissionCache groupPermissionCache,
+      @NonNull PermissionVersionService permissionVersionService,
+      @NonNull RegisteredClientCache registeredClientCache,
+      @NonNull ApiKeyStoreService apiKeyStoreService,
+      @NonNull ChangeFeedService changeFeedService) {
     super(Policy.class, policyRepository);
     this.policyRepository = policyRepository;
     this.apiKeyEventsPublisher = apiKeyEventsPublisher;
+    this.groupPermissionCache = groupPermissionCache;
+    this.permissionVersionService = permissionVersionService;
+    this.registeredClientCache = registeredClientCache;
+    this.apiKeyStoreService = apiKeyStoreService;
+    this.changeFeedService = changeFeedService;
   }
 
   public Policy create(@NonNull PolicyRequest createRequest) {
     validateCreateRequest(createRequest);
     val policy = POLICY_CONVERTER.convertToPolicy(createRequest);
-    return getRepository().save(policy);
+    val savedPolicy = getRepository().save(policy);
+    changeFeedService.record(ChangeEntityType.POLICY, CREATED, savedPolicy.getId());
+    return savedPolicy;
   }
 
   public Policy getPolicyByNameCreateIfNecessary(String name) {
@@ -72,6 +101,22 @@ public class PolicyService extends AbstractNamedService<Policy, UUID> {
     return create(new PolicyRequest(name));
   }
 
+  /**
+   * Bulk version of getPolicyByNameCreateIfNecessary. Names are matched ignoring case.
+   *
+   * @return policies indexed by their lower case name
+   */
+  public Map<String, Policy> getPoliciesByNameCreateIfNecessary(
+      @NonNull Collection<String> names) {
+    val policies = new HashMap<String, Policy>();
+    policyRepository
+        .findAllByLowerCaseNameIn(mapToImmutableSet(names, String::toLowerCase))
+        .forEach(p -> policies.putIfAbsent(p.getName().toLowerCase(), p));
+    names.forEach(
+        name -> policies.computeIfAbsent(name.toLowerCase(), x -> create(new PolicyRequest(name))));
+    return policies;
+  }
+
   @Override
   public Policy getWithRelationships(@NonNull UUID id) {
     val result = (Optional<Policy>) getRepository().findOne(fetchSpecification(id, true, true));
@@ -81,27 +126,69 @@ public class PolicyService extends AbstractNamedService<Policy, UUID> {
 
   public void delete(@NonNull UUID id) {
     checkExistence(id);
-    val policy = this.getById(id);
 
     // For semantic/readability reasons, revoke api keys AFTER policy is deleted.
-    val apiKeysToRevoke =
-        policy.getApiKeyScopes().stream()
-            .map(ApiKeyScope::getToken)
-            .collect(Collectors.toImmutableSet());
+    val apiKeyIdsToRevoke = apiKeyStoreService.findIdsByPolicy(id);
+    permissionVersionService.incrementByPolicy(id);
     super.delete(id);
-    apiKeyEventsPublisher.requestApiKeyCleanup(apiKeysToRevoke);
+    changeFeedService.record(ChangeEntityType.POLICY, DELETED, id);
+    groupPermissionCache.invalidateAll();
+    apiKeyEventsPublisher.requestApiKeyCleanup(apiKeyIdsToRevoke);
+  }
+
+  /**
+   * Lists every user with access to the policy, either directly or through a group, with their
+   * resolved access level (DENY takes precedence). Results are ordered by name.
+   *
+   * @param accessLevel optional, only returns users whose resolved access level matches
+   */
+  public Page<PolicyResponse> listEffectiveUserPermissions(
+      @NonNull UUID policyId, AccessLevel accessLevel, @NonNull Pageable pageable) {
+    checkExistence(policyId);
+    val mask = isNull(accessLevel) ? "" : accessLevel.toString();
+    val results =
+        policyRepository.findEffectiveUserPermissions(
+            policyId, mask, pageable.getPageSize(), pageable.getOffset());
+    val count = policyRepository.countEffectiveUserPermissions(policyId, mask);
+    return new PageImpl<>(
+        mapToUnmodifiableList(results, PolicyService::convertToPolicyResponse), pageable, count);
+  }
+
+  /**
+   * Lists every application with access to the policy, either directly or through a group, with
+   * their resolved access level (DENY takes precedence). Results are ordered by name.
+   *
+   * @param accessLevel optional, only returns applications whose resolved access level matches
+   */
+  public Page<PolicyResponse> listEffectiveApplicationPermissions(
+      @NonNull UUID policyId, AccessLevel accessLevel, @NonNull Pageable pageable) {
+    checkExistence(policyId);
+    val mask = isNull(accessLevel) ? "" : accessLevel.toString();
+    val results =
+        policyRepository.findEffectiveApplicationPermissions(
+            policyId, mask, pageable.getPageSize(), pageable.getOffset());
+    val count = policyRepository.countEffectiveApplicationPermissions(policyId, mask);
+    return new PageImpl<>(
+        mapToUnmodifiableList(results, PolicyService::convertToPolicyResponse), pageable, count);
   }
 
   public Page<Policy> listPolicies(
       @NonNull List<SearchFilter> filters, @NonNull Pageable pageable) {
-    return policyRepository.findAll(PolicySpecification.filterBy(filters), pageable);
+    // Without filters no specification is passed, so the total can be estimated
+    val spec = filters.isEmpty() ? null : PolicySpecification.<Policy>filterBy(filters);
+    return policyRepository.findAll(spec, pageable);
   }
 
   public Policy partialUpdate(@NonNull UUID id, @NonNull PolicyRequest updateRequest) {
     val policy = getById(id);
     validateUpdateRequest(policy, updateRequest);
     POLICY_CONVERTER.updatePolicy(updateRequest, policy);
-    return getRepository().save(policy);
+    // cached group permissions and registered client scopes hold a copy of the policy name
+    groupPermissionCache.invalidateAll();
+    registeredClientCache.invalidateAll();
+    val updatedPolicy = getRepository().save(policy);
+    changeFeedService.record(ChangeEntityType.POLICY, UPDATED, id);
+    return updatedPolicy;
   }
 
   private void validateCreateRequest(PolicyRequest createRequest) {
@@ -121,6 +208,14 @@ public class PolicyService extends AbstractNamedService<Policy, UUID> {
         !policyRepository.existsByNameIgnoreCase(name), "A policy with same name already exists");
   }
 
+  private static PolicyResponse convertToPolicyResponse(EffectivePermission p) {
+    return PolicyResponse.builder()
+        .id(p.getId())
+        .name(p.getName())
+        .mask(AccessLevel.fromValue(p.getMask()))
+        .build();
+  }
+
   private static Specification<Policy> fetchSpecification(
       UUID id, boolean fetchGroupPermissions, boolean fetchUserPermissions) {
     return (fromPolicy, query, builder) -> {
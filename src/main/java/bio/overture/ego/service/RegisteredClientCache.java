@@ -0,0 +1,69 @@
+package bio.overture.ego.service;
+
+import static bio.overture.ego.utils.CollectionUtils.mapToImmutableSet;
+import static bio.overture.ego.utils.Transactions.runNowAndAfterCompletion;
+import static org.springframework.transaction.support.TransactionSynchronizationManager.isActualTransactionActive;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caches the RegisteredClient built for each clientId, so client-credentials token requests do
+ * not re-load the application, re-resolve its scopes and re-hash its secret on every call. Entries
+ * are evicted by application id whenever the application, its status or its permissions change,
+ * and otherwise once unused for EXPIRY or when more than MAX_ENTRIES clients are cached.
+ */
+@Slf4j
+@Component
+public class RegisteredClientCache {
+
+  /** Constants */
+  private static final int MAX_ENTRIES = 10_000;
+
+  private static final Duration EXPIRY = Duration.ofHours(1);
+
+  /** State */
+  private final Cache<String, RegisteredClient> cache =
+      CacheBuilder.newBuilder().maximumSize(MAX_ENTRIES).expireAfterAccess(EXPIRY).build();
+
+  /** Entries loaded inside a transaction are not cached, since that state may still roll back. */
+  public RegisteredClient get(
+      @NonNull String clientId, @NonNull Function<String, RegisteredClient> loader) {
+    val cached = cache.getIfPresent(clientId);
+    if (cached != null) {
+      return cached;
+    }
+    val registeredClient = loader.apply(clientId);
+    if (registeredClient != null && !isActualTransactionActive()) {
+      cache.put(clientId, registeredClient);
+    }
+    return registeredClient;
+  }
+
+  public void invalidate(@NonNull UUID applicationId) {
+    invalidate(Set.of(applicationId));
+  }
+
+  public void invalidate(@NonNull Collection<UUID> applicationIds) {
+    if (applicationIds.isEmpty()) {
+      return;
+    }
+    val ids = mapToImmutableSet(applicationIds, UUID::toString);
+    runNowAndAfterCompletion(
+        () -> cache.asMap().values().removeIf(x -> ids.contains(x.getId())));
+  }
+
+  public void invalidateAll() {
+    runNowAndAfterCompletion(cache::invalidateAll);
+  }
+}
@@ -0,0 +1,273 @@
+package bio.overture.ego.service;
+
+import static bio.overture.ego.utils.Transactions.runAfterCommit;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static java.util.Arrays.asList;
+
+import bio.overture.ego.config.SearchIndexProperties;
+import bio.overture.ego.model.dto.ApplicationSummary;
+import bio.overture.ego.model.dto.GroupSummary;
+import bio.overture.ego.model.dto.UserSummary;
+import bio.overture.ego.model.entity.Application;
+import bio.overture.ego.model.entity.Group;
+import bio.overture.ego.model.entity.User;
+import bio.overture.ego.model.search.IdKeysetPageRequest;
+import bio.overture.ego.repository.ApplicationRepository;
+import bio.overture.ego.repository.GroupRepository;
+import bio.overture.ego.repository.UserRepository;
+import bio.overture.ego.utils.NgramIndex;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-process search index over user emails and names, group names and application names, for
+ * type-ahead search that does not touch the database. It is built once the application is ready
+ * and kept up to date by the create, update and delete paths of the services once their
+ * transaction commits, so it only reflects changes made through this instance until it is rebuilt.
+ * It is unavailable when disabled, before it is built and once an index outgrows maxDocuments, and
+ * the services then search the database instead.
+ */
+@Slf4j
+@Component
+public class SearchIndex implements ApplicationListener<ApplicationReadyEvent> {
+
+  /** Constants */
+  public static final int DEFAULT_LIMIT = 10;
+
+  public static final int MAX_LIMIT = 100;
+  private static final int REBUILD_CHUNK_SIZE = 1000;
+
+  /** Dependencies */
+  private final SearchIndexProperties properties;
+
+  private final UserRepository userRepository;
+
+  private final GroupRepository groupRepository;
+  private final ApplicationRepository applicationRepository;
+
+  /** State */
+  private volatile Indexes indexes = new Indexes();
+
+  private volatile boolean available;
+
+  private final AtomicBoolean built = new AtomicBoolean();
+  private final Object writeLock = new Object();
+
+  /**
+   * Writes committed while a rebuild is loading, replayed onto the new indexes before they are
+   * swapped in since the chunk holding a written row may have been read before the commit. Null
+   * when no rebuild is running. Guarded by writeLock.
+   */
+  private List<Consumer<Indexes>> pendingWrites;
+
+  @Autowired
+  public SearchIndex(
+      @NonNull SearchIndexProperties properties,
+      @NonNull UserRepository userRepository,
+      @NonNull GroupRepository groupRepository,
+      @NonNull ApplicationRepository applicationRepository) {
+    this.properties = properties;
+    this.userRepository = userRepository;
+    this.groupRepository = groupRepository;
+    this.applicationRepository = applicationRepository;
+  }
+
+  @Override
+  public void onApplicationEvent(ApplicationReadyEvent event) {
+    if (!properties.isEnabled()) {
+      log.info("Search index disabled, suggestions are searched in the database");
+    } else if (built.compareAndSet(false, true)) {
+      rebuild();
+    }
+  }
+
+  /**
+   * Reads the searchable columns of every user, group and application into fresh indexes, in
+   * keyset chunks so the rows are never held in memory all at once
+   */
+  public synchronized void rebuild() {
+    synchronized (writeLock) {
+      pendingWrites = new ArrayList<>();
+    }
+    try {
+      val next = new Indexes();
+      val loaded =
+          load(
+                  p -> userRepository.findAll(null, p, UserSummary.class),
+                  UserSummary::getId,
+                  u -> fields(u.getEmail(), u.getFirstName(), u.getLastName()),
+                  next.getUsers())
+              && load(
+                  p -> groupRepository.findAll(null, p, GroupSummary.class),
+                  GroupSummary::getId,
+                  g -> fields(g.getName()),
+                  next.getGroups())
+              && load(
+                  p -> applicationRepository.findAll(null, p, ApplicationSummary.class),
+                  ApplicationSummary::getId,
+                  a -> fields(a.getName()),
+                  next.getApplications());
+      if (!loaded) {
+        synchronized (writeLock) {
+          drop();
+        }
+        return;
+      }
+
+      synchronized (writeLock) {
+        pendingWrites.forEach(w -> w.accept(next));
+        indexes = next;
+        available = true;
+      }
+      log.info(
+          "Built search index of {} users, {} groups and {} applications",
+          next.getUsers().size(),
+          next.getGroups().size(),
+          next.getApplications().size());
+    } finally {
+      synchronized (writeLock) {
+        pendingWrites = null;
+      }
+    }
+  }
+
+  /** Whether searches are answered, otherwise they must be made against the database */
+  public boolean isAvailable() {
+    return available;
+  }
+
+  /** First page of a database search standing in for the index, unranked and never counted */
+  public static Pageable getFallbackPageable(int limit) {
+    return new IdKeysetPageRequest(null, Math.max(1, Math.min(limit, MAX_LIMIT)));
+  }
+
+  public List<UUID> searchUsers(@NonNull String query, int limit) {
+    return indexes.getUsers().search(query, Math.min(limit, MAX_LIMIT));
+  }
+
+  public List<UUID> searchGroups(@NonNull String query, int limit) {
+    return indexes.getGroups().search(query, Math.min(limit, MAX_LIMIT));
+  }
+
+  public List<UUID> searchApplications(@NonNull String query, int limit) {
+    return indexes.getApplications().search(query, Math.min(limit, MAX_LIMIT));
+  }
+
+  public void indexUser(@NonNull User user) {
+    indexUsers(List.of(user));
+  }
+
+  public void indexUsers(@NonNull Collection<User> users) {
+    // Read the fields now, the entities may change or be detached by the time of the commit
+    val documents =
+        users.stream()
+            .collect(
+                toImmutableMap(
+                    User::getId, u -> fields(u.getEmail(), u.getFirstName(), u.getLastName())));
+    write(x -> documents.forEach(x.getUsers()::put));
+  }
+
+  public void removeUser(@NonNull UUID id) {
+    write(x -> x.getUsers().remove(id));
+  }
+
+  public void indexGroup(@NonNull Group group) {
+    val id = group.getId();
+    val name = group.getName();
+    write(x -> x.getGroups().put(id, fields(name)));
+  }
+
+  public void removeGroup(@NonNull UUID id) {
+    write(x -> x.getGroups().remove(id));
+  }
+
+  public void indexApplication(@NonNull Application application) {
+    val id = application.getId();
+    val name = application.getName();
+    write(x -> x.getApplications().put(id, fields(name)));
+  }
+
+  public void removeApplication(@NonNull UUID id) {
+    write(x -> x.getApplications().remove(id));
+  }
+
+  /** Applies the write to the live indexes once the transaction commits */
+  private void write(Consumer<Indexes> write) {
+    runAfterCommit(
+        () -> {
+          synchronized (writeLock) {
+            if (pendingWrites != null) {
+              pendingWrites.add(write);
+            }
+            if (available) {
+              write.accept(indexes);
+              if (indexes.isOverCapacity(properties.getMaxDocuments())) {
+                drop();
+              }
+            }
+          }
+        });
+  }
+
+  /** Loads every row into the index, false as soon as it holds more than maxDocuments */
+  private <R> boolean load(
+      Function<Pageable, Page<R>> reader,
+      Function<R, UUID> idOf,
+      Function<R, List<String>> fieldsOf,
+      NgramIndex<UUID> index) {
+    UUID afterId = null;
+    while (true) {
+      val chunk = reader.apply(new IdKeysetPageRequest(afterId, REBUILD_CHUNK_SIZE)).getContent();
+      chunk.forEach(x -> index.put(idOf.apply(x), fieldsOf.apply(x)));
+      if (index.size() > properties.getMaxDocuments()) {
+        return false;
+      }
+      if (chunk.size() < REBUILD_CHUNK_SIZE) {
+        return true;
+      }
+      afterId = idOf.apply(chunk.get(chunk.size() - 1));
+    }
+  }
+
+  /** Frees the indexes until the next rebuild. Guarded by writeLock. */
+  private void drop() {
+    log.warn(
+        "Search index dropped, an index holds more than {} documents. "
+            + "Suggestions are searched in the database.",
+        properties.getMaxDocuments());
+    indexes = new Indexes();
+    available = false;
+  }
+
+  private static List<String> fields(String... values) {
+    return asList(values);
+  }
+
+  @Getter
+  private static class Indexes {
+    private final NgramIndex<UUID> users = new NgramIndex<>();
+    private final NgramIndex<UUID> groups = new NgramIndex<>();
+    private final NgramIndex<UUID> applications = new NgramIndex<>();
+
+    private boolean isOverCapacity(int maxDocuments) {
+      return users.size() > maxDocuments
+          || groups.size() > maxDocuments
+          || applications.size() > maxDocuments;
+    }
+  }
+}
@@ -20,7 +20,6 @@ import static bio.overture.ego.model.dto.Scope.effectiveScopes;
 import static bio.overture.ego.model.dto.Scope.explicitScopes;
 import static bio.overture.ego.model.enums.ApplicationType.ADMIN;
 import static bio.overture.ego.service.ApplicationService.extractScopes;
-import static bio.overture.ego.service.UserService.extractScopes;
 import static bio.overture.ego.utils.CollectionUtils.mapToSet;
 import static bio.overture.ego.utils.EntityServices.checkEntityExistence;
 import static bio.overture.ego.utils.TypeUtils.convertToAnotherType;
@@ -75,7 +74,6 @@ import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -216,7 +214,7 @@ public class TokenService extends AbstractNamedService<ApiKey, UUID> {
                 () -> new UsernameNotFoundException(format("Can't find user '%s'", str(user_id))));
 
     log.info(format("Got user with id '%s'", str(u.getId())));
-    val userScopes = extractScopes(u);
+    val userScopes = userService.resolveScopes(u);
 
     log.info(format("User's scopes are '%s'", str(userScopes)));
 
@@ -416,18 +414,23 @@ public class TokenService extends AbstractNamedService<ApiKey, UUID> {
     // they have not changed since the apiKey was issued.
 
     val owner = aK.getOwner();
-    val scopes = explicitScopes(effectiveScopes(extractScopes(owner), aK.scopes()));
+    val scopes = explicitScopes(effectiveScopes(userService.resolveScopes(owner), aK.scopes()));
     val scopeNames = mapToSet(scopes, Scope::toString);
 
-    return new ApiKeyScopeResponse(owner.getId(), aK.getSecondsUntilExpiry(), scopeNames);
+    return new ApiKeyScopeResponse(
+        owner.getId(), aK.getSecondsUntilExpiry(), scopeNames, owner.getPermissionVersion());
   }
 
   public UserScopesResponse userScopes(@NonNull UUID userId) {
     val user = userService.getById(userId);
-    val scopes = extractScopes(user);
+    val scopes = userService.resolveScopes(user);
     val names = mapToSet(scopes, Scope::toString);
 
-    return new UserScopesResponse(names);
+    return new UserScopesResponse(names, user.getPermissionVersion());
+  }
+
+  public long userPermissionVersion(@NonNull UUID userId) {
+    return userService.getPermissionVersion(userId);
   }
 
   public void revokeApiKey(@NonNull String apiKeyName) {
@@ -515,12 +518,7 @@ public class TokenService extends AbstractNamedService<ApiKey, UUID> {
                         .and(TokenStoreSpecification.filterBy(filters)),
                     pageable);
 
-    val apiKeyResponses =
-        ImmutableList.copyOf(apiKeys).stream()
-            .map(this::createApiKeyResponse)
-            .collect(Collectors.toList());
-
-    return new PageImpl<>(apiKeyResponses, pageable, apiKeys.getTotalElements());
+    return apiKeys.map(this::createApiKeyResponse);
   }
 
   public Page<ApiKeyResponse> findApiKeysForUser(
@@ -535,12 +533,7 @@ public class TokenService extends AbstractNamedService<ApiKey, UUID> {
                         .and(TokenStoreSpecification.filterBy(filters)),
                     pageable);
 
-    val apiKeyResponses =
-        ImmutableList.copyOf(apiKeys).stream()
-            .map(this::createApiKeyResponse)
-            .collect(Collectors.toList());
-
-    return new PageImpl<>(apiKeyResponses, pageable, apiKeys.getTotalElements());
+    return apiKeys.map(this::createApiKeyResponse);
   }
   /** DEPRECATED: To be removed in next major release */
   @Deprecated
@@ -572,8 +565,8 @@ public class TokenService extends AbstractNamedService<ApiKey, UUID> {
         .build();
   }
 
-  private static Set<String> extractExplicitScopes(User u) {
-    return mapToSet(explicitScopes(extractScopes(u)), Scope::toString);
+  private Set<String> extractExplicitScopes(User u) {
+    return mapToSet(explicitScopes(userService.resolveScopes(u)), Scope::toString);
   }
 
   private static Set<String> extractExplicitScopes(Application a) {
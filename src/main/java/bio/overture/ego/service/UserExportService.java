@@ -0,0 +1,206 @@
+package bio.overture.ego.service;
+
+import static bio.overture.ego.service.AbstractPermissionService.resolveFinalPermissions;
+import static bio.overture.ego.utils.CollectionUtils.mapToImmutableSet;
+import static bio.overture.ego.utils.CollectionUtils.mapToList;
+import static java.util.Objects.isNull;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toUnmodifiableList;
+import static org.springframework.data.jpa.domain.Specification.where;
+
+import bio.overture.ego.model.dto.Scope;
+import bio.overture.ego.model.dto.UserExport;
+import bio.overture.ego.model.entity.GroupPermission;
+import bio.overture.ego.model.entity.User;
+import bio.overture.ego.model.entity.UserPermission;
+import bio.overture.ego.model.join.UserApplication;
+import bio.overture.ego.model.join.UserGroup;
+import bio.overture.ego.model.search.IdKeysetPageRequest;
+import bio.overture.ego.repository.UserPermissionRepository;
+import bio.overture.ego.repository.UserRepository;
+import bio.overture.ego.repository.join.UserApplicationRepository;
+import bio.overture.ego.repository.join.UserGroupRepository;
+import bio.overture.ego.repository.queryspecification.UserSpecification;
+import com.google.common.collect.ImmutableList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import javax.persistence.EntityManager;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Reads every user with its groups, applications and resolved scopes in id order, one chunk at a
+ * time. Each chunk is located with a keyset query and its relationships are loaded with one query
+ * per relationship, so exporting does not get slower with depth and memory does not grow with the
+ * number of users.
+ */
+@Slf4j
+@Service
+public class UserExportService {
+
+  /** Constants */
+  public static final int DEFAULT_CHUNK_SIZE = 500;
+
+  public static final int MAX_CHUNK_SIZE = 5000;
+
+  /** Dependencies */
+  private final UserRepository userRepository;
+
+  private final UserGroupRepository userGroupRepository;
+  private final UserApplicationRepository userApplicationRepository;
+  private final UserPermissionRepository userPermissionRepository;
+  private final GroupPermissionCache groupPermissionCache;
+  private final EntityManager entityManager;
+
+  @Autowired
+  public UserExportService(
+      @NonNull UserRepository userRepository,
+      @NonNull UserGroupRepository userGroupRepository,
+      @NonNull UserApplicationRepository userApplicationRepository,
+      @NonNull UserPermissionRepository userPermissionRepository,
+      @NonNull GroupPermissionCache groupPermissionCache,
+      @NonNull EntityManager entityManager) {
+    this.userRepository = userRepository;
+    this.userGroupRepository = userGroupRepository;
+    this.userApplicationRepository = userApplicationRepository;
+    this.userPermissionRepository = userPermissionRepository;
+    this.groupPermissionCache = groupPermissionCache;
+    this.entityManager = entityManager;
+  }
+
+  /**
+   * Reads the chunk of users following the given id. A missing id reads from the first user. An
+   * empty chunk means the export is complete.
+   *
+   * @param afterId id of the last user already read
+   * @param chunkSize maximum number of users to read, capped at MAX_CHUNK_SIZE
+   */
+  @Transactional(readOnly = true)
+  public List<UserExport> readUsers(UUID afterId, int chunkSize) {
+    val pageable = PageRequest.of(0, Math.max(1, Math.min(chunkSize, MAX_CHUNK_SIZE)));
+    val users =
+        isNull(afterId)
+            ? userRepository.findAllByOrderByIdAsc(pageable)
+            : userRepository.findAllByIdGreaterThanOrderByIdAsc(afterId, pageable);
+    return exportUsers(users);
+  }
+
+  /**
+   * Reads the chunk following the given id of the users that match the text query and belong to
+   * any of the groups. The chunk is located with a keyset predicate and never counted. An empty
+   * collection of groups does not restrict the users.
+   *
+   * @param query text matched against the searchable fields, empty to match every user
+   * @param groupIds groups the users must belong to
+   * @param afterId id of the last user already read
+   * @param chunkSize maximum number of users to read, capped at MAX_CHUNK_SIZE
+   */
+  @Transactional(readOnly = true)
+  public List<UserExport> readUsers(
+      @NonNull String query, @NonNull Collection<UUID> groupIds, UUID afterId, int chunkSize) {
+    val spec =
+        where(UserSpecification.containsText(query))
+            .and(groupIds.isEmpty() ? null : UserSpecification.inGroups(groupIds));
+    val pageable =
+        new IdKeysetPageRequest(afterId, Math.max(1, Math.min(chunkSize, MAX_CHUNK_SIZE)));
+    return exportUsers(userRepository.findAll(spec, pageable).getContent());
+  }
+
+  /**
+   * Reads the given users in the order of their ids, with their relationships loaded the same way
+   * as an export chunk. Ids of users that do not exist are skipped.
+   */
+  @Transactional(readOnly = true)
+  public List<UserExport> readUsers(@NonNull List<UUID> userIds) {
+    if (userIds.isEmpty()) {
+      return ImmutableList.of();
+    }
+    val positions = new HashMap<UUID, Integer>();
+    for (int i = 0; i < userIds.size(); i++) {
+      positions.putIfAbsent(userIds.get(i), i);
+    }
+    val ordered = new User[userIds.size()];
+    userRepository
+        .findAllById(positions.keySet())
+        .forEach(u -> ordered[positions.get(u.getId())] = u);
+    return exportUsers(
+        Arrays.stream(ordered).filter(Objects::nonNull).collect(toUnmodifiableList()));
+  }
+
+  private List<UserExport> exportUsers(List<User> users) {
+    if (users.isEmpty()) {
+      return ImmutableList.of();
+    }
+
+    val userIds = mapToImmutableSet(users, User::getId);
+    val userGroups =
+        userGroupRepository.findAllByUserIdIn(userIds).stream()
+            .collect(groupingBy(x -> x.getId().getUserId()));
+    val userApplications =
+        userApplicationRepository.findAllByUserIdIn(userIds).stream()
+            .collect(groupingBy(x -> x.getId().getUserId()));
+    val userPermissions =
+        userPermissionRepository.findAllWithPolicyByOwnerIdIn(userIds).stream()
+            .collect(groupingBy(x -> x.getOwner().getId()));
+
+    val exports =
+        mapToList(
+            users,
+            u ->
+                convertToExport(
+                    u,
+                    userGroups.getOrDefault(u.getId(), ImmutableList.of()),
+                    userApplications.getOrDefault(u.getId(), ImmutableList.of()),
+                    userPermissions.getOrDefault(u.getId(), ImmutableList.of())));
+
+    // The persistence context can outlive the transaction, so keep it from growing with the export
+    entityManager.clear();
+    return exports;
+  }
+
+  private UserExport convertToExport(
+      User user,
+      List<UserGroup> userGroups,
+      List<UserApplication> userApplications,
+      List<UserPermission> userPermissions) {
+    // Group permissions come from the cache, so each group is read at most once per export
+    val groupPermissions =
+        userGroups.stream()
+            .map(UserGroup::getGroup)
+            .map(groupPermissionCache::getPermissions)
+            .flatMap(Set::stream)
+            .collect(ImmutableList.<GroupPermission>toImmutableList());
+    val scopes =
+        mapToImmutableSet(
+            resolveFinalPermissions(userPermissions, groupPermissions),
+            p -> new Scope(p).toString());
+
+    return UserExport.builder()
+        .id(user.getId())
+        .email(user.getEmail())
+        .firstName(user.getFirstName())
+        .lastName(user.getLastName())
+        .type(user.getType())
+        .status(user.getStatus())
+        .providerType(user.getProviderType())
+        .providerSubjectId(user.getProviderSubjectId())
+        .preferredLanguage(user.getPreferredLanguage())
+        .createdAt(user.getCreatedAt())
+        .lastLogin(user.getLastLogin())
+        .permissionVersion(user.getPermissionVersion())
+        .groups(mapToImmutableSet(userGroups, x -> x.getId().getGroupId()))
+        .applications(mapToImmutableSet(userApplications, x -> x.getId().getApplicationId()))
+        .scopes(scopes)
+        .build();
+  }
+}
@@ -0,0 +1,276 @@
+package bio.overture.ego.service;
+
+import static bio.overture.ego.model.enums.ChangeOperation.CREATED;
+import static bio.overture.ego.model.enums.UserType.ADMIN;
+import static bio.overture.ego.model.exceptions.MalformedRequestException.checkMalformedRequest;
+import static bio.overture.ego.model.exceptions.RequestValidationException.checkRequestValid;
+import static bio.overture.ego.service.UserService.USER_CONVERTER;
+import static bio.overture.ego.utils.CollectionUtils.mapToImmutableSet;
+import static bio.overture.ego.utils.EntityServices.checkEntityExistence;
+import static java.lang.String.format;
+import static java.util.Objects.isNull;
+
+import bio.overture.ego.config.UserDefaultsConfig;
+import bio.overture.ego.model.dto.CreateUserRequest;
+import bio.overture.ego.model.dto.UserImportResult;
+import bio.overture.ego.model.entity.Group;
+import bio.overture.ego.model.entity.User;
+import bio.overture.ego.model.enums.ChangeEntityType;
+import bio.overture.ego.model.enums.ImportStatus;
+import bio.overture.ego.model.enums.ProviderType;
+import bio.overture.ego.model.enums.StatusType;
+import bio.overture.ego.model.exceptions.MalformedRequestException;
+import bio.overture.ego.model.exceptions.RequestValidationException;
+import bio.overture.ego.repository.GroupRepository;
+import bio.overture.ego.repository.UserRepository;
+import bio.overture.ego.repository.join.UserGroupRepository;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import javax.persistence.EntityManager;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Imports users in batches. The provider info of a batch is checked for uniqueness with a single
+ * query and the batch is inserted in its own transaction with JDBC batching, so the memory used
+ * does not grow with the size of the import and a failing batch does not roll back the batches
+ * already imported. Only the rows of the current batch are held, since rows repeating an earlier
+ * batch are caught by the uniqueness query once that batch is committed.
+ */
+@Slf4j
+@Service
+public class UserImportService {
+
+  /** Constants */
+  public static final int BATCH_SIZE = 1000;
+
+  private static final String DUPLICATE_MESSAGE =
+      "A user with the same provider info already exists";
+
+  /** Dependencies */
+  private final UserRepository userRepository;
+
+  private final GroupRepository groupRepository;
+  private final UserGroupRepository userGroupRepository;
+  private final ChangeFeedService changeFeedService;
+  private final SearchIndex searchIndex;
+  private final UserDefaultsConfig userDefaultsConfig;
+  private final EntityManager entityManager;
+  private final TransactionTemplate transactionTemplate;
+
+  @Autowired
+  public UserImportService(
+      @NonNull UserRepository userRepository,
+      @NonNull GroupRepository groupRepository,
+      @NonNull UserGroupRepository userGroupRepository,
+      @NonNull ChangeFeedService changeFeedService,
+      @NonNull SearchIndex searchIndex,
+      @NonNull UserDefaultsConfig userDefaultsConfig,
+      @NonNull EntityManager entityManager,
+      @NonNull PlatformTransactionManager transactionManager) {
+    this.userRepository = userRepository;
+    this.groupRepository = groupRepository;
+    this.userGroupRepository = userGroupRepository;
+    this.changeFeedService = changeFeedService;
+    this.searchIndex = searchIndex;
+    this.userDefaultsConfig = userDefaultsConfig;
+    this.entityManager = entityManager;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+  }
+
+  /** Checks the groups exist, so the import can be rejected before any row is read */
+  public void checkGroupsExist(@NonNull Collection<UUID> groupIds) {
+    checkEntityExistence(Group.class, groupRepository, groupIds);
+  }
+
+  /**
+   * Imports the users and reports one result per row, in order. Rows that fail validation or
+   * conflict with an existing user are reported as failed without affecting the other rows. Reading
+   * stops at the first row that cannot be parsed.
+   *
+   * @param requests rows of the import, throwing RuntimeJsonMappingException for unparsable rows
+   * @param groupIds groups every imported user is added to
+   * @param resultConsumer receives the result of each row as soon as its batch is done
+   */
+  public void importUsers(
+      @NonNull Iterator<CreateUserRequest> requests,
+      @NonNull Set<UUID> groupIds,
+      @NonNull Consumer<UserImportResult> resultConsumer) {
+    val context =
+        new ImportContext(
+            groupIds,
+            resultConsumer,
+            userDefaultsConfig.isFirstUserAsAdmin() && isNull(userRepository.findFirstBy()));
+    val batch = new ArrayList<CreateUserRequest>(BATCH_SIZE);
+    try {
+      while (requests.hasNext()) {
+        batch.add(requests.next());
+        if (batch.size() == BATCH_SIZE) {
+          importBatch(batch, context);
+          batch.clear();
+        }
+      }
+    } catch (RuntimeJsonMappingException e) {
+      importBatch(batch, context);
+      val row = context.nextRow;
+      log.info("User import stopped at unparsable row {}: {}", row, e.getMessage());
+      resultConsumer.accept(failed(row, format("Could not parse row: %s", e.getMessage())));
+      return;
+    }
+    importBatch(batch, context);
+  }
+
+  private void importBatch(List<CreateUserRequest> batch, ImportContext context) {
+    if (batch.isEmpty()) {
+      return;
+    }
+    val firstRow = context.nextRow;
+    context.nextRow += batch.size();
+
+    // Validate the rows and drop the ones repeating provider info seen earlier in the batch
+    val results = new UserImportResult[batch.size()];
+    val batchProviderKeys = new HashSet<String>();
+    val validIndices = new ArrayList<Integer>();
+    for (int i = 0; i < batch.size(); i++) {
+      val request = batch.get(i);
+      try {
+        checkRequestValid(request);
+        checkMalformedRequest(
+            !request.getProviderSubjectId().isBlank(), "ProviderSubjectId cannot be blank.");
+      } catch (RequestValidationException | MalformedRequestException e) {
+        results[i] = failed(firstRow + i, e.getMessage());
+        continue;
+      }
+      val key = providerKey(request.getProviderType(), request.getProviderSubjectId());
+      if (!batchProviderKeys.add(key)) {
+        results[i] = failed(firstRow + i, DUPLICATE_MESSAGE);
+      } else {
+        validIndices.add(i);
+      }
+    }
+
+    try {
+      val created =
+          transactionTemplate.execute(
+              status -> createUsers(batch, validIndices, context.groupIds, context.adminPending));
+      for (int i = 0; i < validIndices.size(); i++) {
+        val index = validIndices.get(i);
+        val user = created.get(i);
+        results[index] =
+            isNull(user)
+                ? failed(firstRow + index, DUPLICATE_MESSAGE)
+                : UserImportResult.builder()
+                    .row(firstRow + index)
+                    .status(ImportStatus.CREATED)
+                    .id(user.getId())
+                    .build();
+        if (!isNull(user)) {
+          context.adminPending = false;
+        }
+      }
+    } catch (DataAccessException | TransactionException e) {
+      log.error("User import failed for rows {} to {}", firstRow, context.nextRow - 1, e);
+      for (val index : validIndices) {
+        results[index] =
+            failed(firstRow + index, format("Could not import row: %s", e.getMessage()));
+      }
+    }
+
+    for (val result : results) {
+      context.resultConsumer.accept(result);
+    }
+  }
+
+  /**
+   * Creates the users of the valid rows that do not exist yet
+   *
+   * @return the created user of each valid row, or null for rows matching an existing user
+   */
+  private List<User> createUsers(
+      List<CreateUserRequest> batch,
+      List<Integer> validIndices,
+      Set<UUID> groupIds,
+      boolean adminPending) {
+    if (validIndices.isEmpty()) {
+      return List.of();
+    }
+    val subjectIds = mapToImmutableSet(validIndices, i -> batch.get(i).getProviderSubjectId());
+    val existingProviderKeys =
+        mapToImmutableSet(
+            userRepository.findAllByProviderSubjectIdIn(subjectIds),
+            u -> providerKey(u.getProviderType(), u.getProviderSubjectId()));
+
+    val created = new ArrayList<User>(validIndices.size());
+    val usersToSave = new ArrayList<User>(validIndices.size());
+    for (val index : validIndices) {
+      val request = batch.get(index);
+      if (existingProviderKeys.contains(
+          providerKey(request.getProviderType(), request.getProviderSubjectId()))) {
+        created.add(null);
+        continue;
+      }
+      val user = USER_CONVERTER.convertToUser(request);
+      if (adminPending && usersToSave.isEmpty()) {
+        user.setType(ADMIN);
+        user.setStatus(StatusType.APPROVED);
+      }
+      created.add(user);
+      usersToSave.add(user);
+    }
+    if (usersToSave.isEmpty()) {
+      return created;
+    }
+
+    userRepository.saveAll(usersToSave);
+    val userIds = mapToImmutableSet(usersToSave, User::getId);
+    changeFeedService.recordEntities(ChangeEntityType.USER, CREATED, userIds);
+    searchIndex.indexUsers(usersToSave);
+    for (val groupId : groupIds) {
+      userGroupRepository.insertUsersIntoGroup(groupId, userIds);
+      changeFeedService.recordEntities(ChangeEntityType.USER_GROUP, CREATED, userIds, groupId);
+    }
+
+    // With open-in-view every batch of the request shares one entity manager, detach this one
+    entityManager.flush();
+    entityManager.clear();
+    return created;
+  }
+
+  private static String providerKey(ProviderType providerType, String providerSubjectId) {
+    return providerType + ":" + providerSubjectId;
+  }
+
+  private static UserImportResult failed(long row, String error) {
+    return UserImportResult.builder().row(row).status(ImportStatus.FAILED).error(error).build();
+  }
+
+  /** State of a single import */
+  private static class ImportContext {
+
+    private final Set<UUID> groupIds;
+    private final Consumer<UserImportResult> resultConsumer;
+    private boolean adminPending;
+    private long nextRow = 1;
+
+    private ImportContext(
+        Set<UUID> groupIds, Consumer<UserImportResult> resultConsumer, boolean adminPending) {
+      this.groupIds = groupIds;
+      this.resultConsumer = resultConsumer;
+      this.adminPending = adminPending;
+    }
+  }
+}
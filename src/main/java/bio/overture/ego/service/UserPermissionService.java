@@ -7,6 +7,7 @@ import static java.util.stream.Collectors.toUnmodifiableList;
 import static java.util.stream.Collectors.toUnmodifiableSet;
 
 import bio.overture.ego.event.token.ApiKeyEventsPublisher;
+import bio.overture.ego.model.dto.OwnerPermissionRequest;
 import bio.overture.ego.model.dto.PermissionRequest;
 import bio.overture.ego.model.dto.PolicyResponse;
 import bio.overture.ego.model.dto.ResolvedPermissionResponse;
@@ -14,12 +15,14 @@ import bio.overture.ego.model.entity.Group;
 import bio.overture.ego.model.entity.Policy;
 import bio.overture.ego.model.entity.User;
 import bio.overture.ego.model.entity.UserPermission;
+import bio.overture.ego.model.enums.ChangeEntityType;
 import bio.overture.ego.model.join.UserGroup;
 import bio.overture.ego.model.search.SearchFilter;
 import bio.overture.ego.repository.UserPermissionRepository;
 import com.google.common.collect.ImmutableSet;
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
@@ -40,16 +43,27 @@ public class UserPermissionService extends AbstractPermissionService<User, UserP
   private final UserService userService;
 
   private final ApiKeyEventsPublisher apiKeyEventsPublisher;
+  private final PermissionVersionService permissionVersionService;
 
   @Autowired
   public UserPermissionService(
       @NonNull UserPermissionRepository repository,
       @NonNull UserService userService,
       @NonNull ApiKeyEventsPublisher apiKeyEventsPublisher,
-      @NonNull PolicyService policyService) {
-    super(User.class, UserPermission.class, userService, policyService, repository);
+      @NonNull PolicyService policyService,
+      @NonNull PermissionVersionService permissionVersionService,
+      @NonNull ChangeFeedService changeFeedService) {
+    super(
+        User.class,
+        UserPermission.class,
+        ChangeEntityType.USER_PERMISSION,
+        userService,
+        policyService,
+        repository,
+        changeFeedService);
     this.userService = userService;
     this.apiKeyEventsPublisher = apiKeyEventsPublisher;
+    this.permissionVersionService = permissionVersionService;
   }
 
   private PolicyResponse convertToPolicyResponse(@NonNull UserPermission userPermission) {
@@ -108,6 +122,7 @@ public class UserPermissionService extends AbstractPermissionService<User, UserP
   public User addPermissions(
       @NonNull UUID userId, @NonNull List<PermissionRequest> permissionRequests) {
     val user = super.addPermissions(userId, permissionRequests);
+    permissionVersionService.incrementUsers(Set.of(userId));
     apiKeyEventsPublisher.requestApiKeyCleanupByUsers(ImmutableSet.of(userService.getById(userId)));
     return user;
   }
@@ -121,9 +136,52 @@ public class UserPermissionService extends AbstractPermissionService<User, UserP
   @Override
   public void deletePermissions(@NonNull UUID userId, @NonNull Collection<UUID> idsToDelete) {
     super.deletePermissions(userId, idsToDelete);
+    permissionVersionService.incrementUsers(Set.of(userId));
     apiKeyEventsPublisher.requestApiKeyCleanupByUsers(ImmutableSet.of(userService.getById(userId)));
   }
 
+  /**
+   * Decorates the call to addPolicyPermissions with one api key cleanup for all affected users
+   *
+   * @param policyId Id of the policy granted to the users
+   * @param requests user ids with the mask to grant
+   */
+  @Override
+  public Set<UUID> addPolicyPermissions(
+      @NonNull UUID policyId, @NonNull List<OwnerPermissionRequest> requests) {
+    val userIds = super.addPolicyPermissions(policyId, requests);
+    permissionsChanged(userIds);
+    return userIds;
+  }
+
+  /**
+   * Decorates the call to deletePolicyPermissions with one api key cleanup for all affected users
+   *
+   * @param policyId Id of the policy revoked from the users
+   * @param userIds Ids of the users losing the policy
+   */
+  @Override
+  public Set<UUID> deletePolicyPermissions(
+      @NonNull UUID policyId, @NonNull Collection<UUID> userIds) {
+    val deletedUserIds = super.deletePolicyPermissions(policyId, userIds);
+    permissionsChanged(deletedUserIds);
+    return deletedUserIds;
+  }
+
+  private void permissionsChanged(Set<UUID> userIds) {
+    if (userIds.isEmpty()) {
+      return;
+    }
+    permissionVersionService.incrementUsers(userIds);
+    apiKeyEventsPublisher.requestApiKeyCleanupByUserIds(userIds);
+  }
+
+  @Override
+  public void deleteByPolicyAndOwner(@NonNull UUID policyId, @NonNull UUID userId) {
+    super.deleteByPolicyAndOwner(policyId, userId);
+    permissionVersionService.incrementUsers(Set.of(userId));
+  }
+
   @Override
   protected Collection<UserPermission> getPermissionsFromOwner(@NonNull User owner) {
     return owner.getUserPermissions();
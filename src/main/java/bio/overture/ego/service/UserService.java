@@ -16,6 +16,9 @@
 
 package bio.overture.ego.service;
 
+import static bio.overture.ego.model.enums.ChangeOperation.CREATED;
+import static bio.overture.ego.model.enums.ChangeOperation.DELETED;
+import static bio.overture.ego.model.enums.ChangeOperation.UPDATED;
 import static bio.overture.ego.model.enums.UserType.ADMIN;
 import static bio.overture.ego.model.exceptions.MalformedRequestException.checkMalformedRequest;
 import static bio.overture.ego.model.exceptions.NotFoundException.buildNotFoundException;
@@ -23,6 +26,7 @@ import static bio.overture.ego.model.exceptions.NotFoundException.checkNotFound;
 import static bio.overture.ego.model.exceptions.RequestValidationException.checkRequestValid;
 import static bio.overture.ego.model.exceptions.UniqueViolationException.checkUnique;
 import static bio.overture.ego.service.AbstractPermissionService.resolveFinalPermissions;
+import static bio.overture.ego.service.SearchIndex.getFallbackPageable;
 import static bio.overture.ego.utils.CollectionUtils.*;
 import static bio.overture.ego.utils.Collectors.toImmutableSet;
 import static bio.overture.ego.utils.Converters.*;
@@ -34,25 +38,31 @@ import static java.util.Objects.isNull;
 import static org.springframework.data.jpa.domain.Specification.where;
 
 import bio.overture.ego.config.UserDefaultsConfig;
+import bio.overture.ego.event.auth.AuthEventsPublisher;
 import bio.overture.ego.event.token.ApiKeyEventsPublisher;
 import bio.overture.ego.model.dto.CreateUserRequest;
 import bio.overture.ego.model.dto.Scope;
 import bio.overture.ego.model.dto.UpdateUserRequest;
+import bio.overture.ego.model.dto.UserSummary;
 import bio.overture.ego.model.entity.*;
+import bio.overture.ego.model.enums.ChangeEntityType;
 import bio.overture.ego.model.enums.ProviderType;
 import bio.overture.ego.model.enums.StatusType;
 import bio.overture.ego.model.join.UserApplication;
 import bio.overture.ego.model.join.UserGroup;
 import bio.overture.ego.model.search.SearchFilter;
 import bio.overture.ego.repository.GroupRepository;
+import bio.overture.ego.repository.UserPermissionRepository;
 import bio.overture.ego.repository.UserRepository;
+import bio.overture.ego.repository.join.UserApplicationRepository;
+import bio.overture.ego.repository.join.UserGroupRepository;
 import bio.overture.ego.repository.queryspecification.UserSpecification;
 import bio.overture.ego.repository.queryspecification.builder.UserSpecificationBuilder;
 import bio.overture.ego.token.IDToken;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import java.util.*;
-import javax.transaction.Transactional;
+import java.util.function.Function;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
@@ -62,6 +72,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Slf4j
 @Service
@@ -74,9 +85,17 @@ public class UserService extends AbstractBaseService<User, UUID> {
   /** Dependencies */
   private final GroupRepository groupRepository;
 
+  private final UserGroupRepository userGroupRepository;
+  private final UserApplicationRepository userApplicationRepository;
+  private final UserPermissionRepository userPermissionRepository;
   private final ApiKeyEventsPublisher apiKeyEventsPublisher;
   private final ApplicationService applicationService;
   private final UserRepository userRepository;
+  private final GroupPermissionCache groupPermissionCache;
+  private final PermissionVersionService permissionVersionService;
+  private final ChangeFeedService changeFeedService;
+  private final SearchIndex searchIndex;
+  private final AuthEventsPublisher authEventsPublisher;
 
   /** Configuration */
   private final UserDefaultsConfig userDefaultsConfig;
@@ -85,15 +104,35 @@ public class UserService extends AbstractBaseService<User, UUID> {
   public UserService(
       @NonNull UserRepository userRepository,
       @NonNull GroupRepository groupRepository,
+      @NonNull UserGroupRepository userGroupRepository,
+      @NonNull UserApplicationRepository userApplicationRepository,
+      @NonNull UserPermissionRepository userPermissionRepository,
       @NonNull ApplicationService applicationService,
       @NonNull UserDefaultsConfig userDefaultsConfig,
-      @NonNull ApiKeyEventsPublisher apiKeyEventsPublisher) {
+      @NonNull ApiKeyEventsPublisher apiKeyEventsPublisher,
+      @NonNull GroupPermissionCache groupPermissionCache,
+      @NonNull PermissionVersionService permissionVersionService,
+      @NonNull ChangeFeedService changeFeedService,
+      @NonNull SearchIndex searchIndex,
+      @NonNull AuthEventsPublisher authEventsPublisher) {
     super(User.class, userRepository);
     this.userRepository = userRepository;
     this.groupRepository = groupRepository;
+    this.userGroupRepository = userGroupRepository;
+    this.userApplicationRepository = userApplicationRepository;
+    this.userPermissionRepository = userPermissionRepository;
     this.applicationService = applicationService;
     this.userDefaultsConfig = userDefaultsConfig;
     this.apiKeyEventsPublisher = apiKeyEventsPublisher;
+    this.groupPermissionCache = groupPermissionCache;
+    this.permissionVersionService = permissionVersionService;
+    this.changeFeedService = changeFeedService;
+    this.searchIndex = searchIndex;
+    this.authEventsPublisher = authEventsPublisher;
+  }
+
+  public long getPermissionVersion(@NonNull UUID id) {
+    return permissionVersionService.getUserPermissionVersion(id);
   }
 
   public User create(@NonNull CreateUserRequest request) {
@@ -104,7 +143,10 @@ public class UserService extends AbstractBaseService<User, UUID> {
       user.setType(ADMIN);
       user.setStatus(StatusType.APPROVED);
     }
-    return getRepository().save(user);
+    val savedUser = getRepository().save(user);
+    changeFeedService.record(ChangeEntityType.USER, CREATED, savedUser.getId());
+    searchIndex.indexUser(savedUser);
+    return savedUser;
   }
 
   @SuppressWarnings("unchecked")
@@ -179,9 +221,18 @@ public class UserService extends AbstractBaseService<User, UUID> {
   }
 
   private User updateUserFromToken(User user, IDToken idToken) {
+    val changed =
+        user.getProviderType() != idToken.getProviderType()
+            || !Objects.equals(user.getProviderSubjectId(), idToken.getProviderSubjectId())
+            || !Objects.equals(user.getEmail(), idToken.getEmail());
+    if (!changed) {
+      return user;
+    }
     user.setProviderType(idToken.getProviderType());
     user.setProviderSubjectId(idToken.getProviderSubjectId());
     user.setEmail(idToken.getEmail());
+    changeFeedService.record(ChangeEntityType.USER, UPDATED, user.getId());
+    searchIndex.indexUser(user);
 
     return user;
   }
@@ -273,22 +324,45 @@ public class UserService extends AbstractBaseService<User, UUID> {
   public User partialUpdate(@NonNull UUID id, @NonNull UpdateUserRequest r) {
     val user = getById(id);
     USER_CONVERTER.updateUser(r, user);
-    return getRepository().save(user);
+    val updatedUser = getRepository().save(user);
+    changeFeedService.record(ChangeEntityType.USER, UPDATED, id);
+    authEventsPublisher.principalChanged(id);
+    searchIndex.indexUser(updatedUser);
+    return updatedUser;
   }
 
   @SuppressWarnings("unchecked")
-  public Page<User> listUsers(@NonNull List<SearchFilter> filters, @NonNull Pageable pageable) {
-    val spec = UserSpecification.filterBy(filters);
-    return getRepository().findAll(spec, pageable);
+  @Transactional(readOnly = true)
+  public Page<UserSummary> listUsers(
+      @NonNull List<SearchFilter> filters, @NonNull Pageable pageable) {
+    // Without filters no specification is passed, so the total can be estimated
+    val spec = filters.isEmpty() ? null : UserSpecification.<User>filterBy(filters);
+    return getRepository().findAll(spec, pageable, UserSummary.class);
+  }
+
+  /**
+   * Type-ahead search of emails and names served from the in-process search index, best matches
+   * first. Only the matching users are read, by id. Without the index they are searched in the
+   * database.
+   */
+  @Transactional(readOnly = true)
+  public List<UserSummary> suggestUsers(@NonNull String query, int limit) {
+    if (!searchIndex.isAvailable()) {
+      return findUsers(query, List.of(), getFallbackPageable(limit)).getContent();
+    }
+    return getProjections(
+        searchIndex.searchUsers(query, limit), UserSummary.class, UserSummary::getId);
   }
 
   @SuppressWarnings("unchecked")
-  public Page<User> findUsers(
+  @Transactional(readOnly = true)
+  public Page<UserSummary> findUsers(
       @NonNull String query, @NonNull List<SearchFilter> filters, @NonNull Pageable pageable) {
     return getRepository()
         .findAll(
             where(UserSpecification.containsText(query)).and(UserSpecification.filterBy(filters)),
-            pageable);
+            pageable,
+            UserSummary.class);
   }
 
   @SuppressWarnings("Duplicates")
@@ -323,21 +397,23 @@ public class UserService extends AbstractBaseService<User, UUID> {
     nonAssociatedApplications.stream()
         .map(a -> convertToUserApplication(userWithUserApplications, a))
         .forEach(UserService::associateSelf);
+    changeFeedService.recordRelated(
+        ChangeEntityType.USER_APPLICATION, CREATED, id, nonAssociatedApplicationIds);
     return userWithUserApplications;
   }
 
-  @SuppressWarnings("Duplicates")
   public User associateGroupsWithUser(@NonNull UUID id, @NonNull Collection<UUID> groupIds) {
     // check duplicate groupIds
     checkDuplicates(Group.class, groupIds);
+    checkExistence(id);
+    if (groupIds.isEmpty()) {
+      return getWithGroups(id);
+    }
 
-    // Get existing associated group ids with the user
-    val userWithUserGroups = getWithGroups(id);
-    val groups = mapToImmutableSet(userWithUserGroups.getUserGroups(), UserGroup::getGroup);
-    val existingAssociatedGroupIds = convertToIds(groups);
-
-    // Check there are no group ids that are already associated with the user
-    val existingAlreadyAssociatedGroupIds = intersection(existingAssociatedGroupIds, groupIds);
+    // Check there are no group ids that are already associated with the user, without loading
+    // the user's other memberships
+    val existingAlreadyAssociatedGroupIds =
+        userGroupRepository.findGroupIdsByUserIdAndGroupIdIn(id, groupIds);
     checkUnique(
         existingAlreadyAssociatedGroupIds.isEmpty(),
         "The following %s ids are already associated with %s '%s': [%s]",
@@ -346,16 +422,16 @@ public class UserService extends AbstractBaseService<User, UUID> {
         id,
         PRETTY_COMMA.join(existingAlreadyAssociatedGroupIds));
 
-    // Get all unassociated group ids. If they do not exist, an error is thrown
-    val nonAssociatedGroupIds = difference(groupIds, existingAssociatedGroupIds);
-    val nonAssociatedGroups = getManyEntities(Group.class, groupRepository, nonAssociatedGroupIds);
+    // Check the requested groups exist. If they do not exist, an error is thrown
+    getManyEntities(Group.class, groupRepository, groupIds);
 
-    // Associate the existing groups with the user
-    nonAssociatedGroups.stream()
-        .map(g -> convertToUserGroup(userWithUserGroups, g))
-        .forEach(UserGroupService::associateSelf);
-    apiKeyEventsPublisher.requestApiKeyCleanupByUsers(ImmutableSet.of(userWithUserGroups));
-    return userWithUserGroups;
+    // Associate the groups with the user in a single statement
+    userGroupRepository.insertUserIntoGroups(id, groupIds);
+    val userWithGroups = getWithGroups(id);
+    changeFeedService.recordRelated(ChangeEntityType.USER_GROUP, CREATED, id, groupIds);
+    permissionVersionService.incrementUsers(Set.of(id));
+    apiKeyEventsPublisher.requestApiKeyCleanupByUsers(ImmutableSet.of(userWithGroups));
+    return userWithGroups;
   }
 
   @SuppressWarnings("Duplicates")
@@ -391,21 +467,22 @@ public class UserService extends AbstractBaseService<User, UUID> {
             .collect(toImmutableSet());
 
     disassociateUserApplicationsFromUser(userWithApplications, userApplicationsToDisassociate);
+    changeFeedService.recordRelated(
+        ChangeEntityType.USER_APPLICATION, DELETED, id, applicationIdsToDisassociate);
   }
 
-  @SuppressWarnings("Duplicates")
   public void disassociateGroupsFromUser(@NonNull UUID id, @NonNull Collection<UUID> groupIds) {
     // check duplicate groupIds
     checkDuplicates(Group.class, groupIds);
+    val user = getById(id);
+    if (groupIds.isEmpty()) {
+      return;
+    }
 
-    // Get existing associated child ids with the parent
-    val userWithGroups = getWithGroups(id);
-    val groups = mapToImmutableSet(userWithGroups.getUserGroups(), UserGroup::getGroup);
-    val existingAssociatedGroupIds = convertToIds(groups);
-
-    // Get existing and non-existing non-associated group ids. Error out if there are existing
-    // and non-existing non-associated group ids
-    val nonAssociatedGroupIds = difference(groupIds, existingAssociatedGroupIds);
+    // Get the requested group ids that are associated with the user, without loading the user's
+    // other memberships. Error out if there are existing and non-existing non-associated group ids
+    val associatedGroupIds = userGroupRepository.findGroupIdsByUserIdAndGroupIdIn(id, groupIds);
+    val nonAssociatedGroupIds = difference(groupIds, associatedGroupIds);
     if (!nonAssociatedGroupIds.isEmpty()) {
       checkEntityExistence(Group.class, groupRepository, nonAssociatedGroupIds);
       throw buildNotFoundException(
@@ -414,25 +491,26 @@ public class UserService extends AbstractBaseService<User, UUID> {
           Group.class.getSimpleName(), getEntityTypeName(), id);
     }
 
-    // Since all group ids exist and are associated with the user, disassociate them from
-    // each other
-    val groupIdsToDisassociate = ImmutableSet.copyOf(groupIds);
-    val userGroupsToDisassociate =
-        userWithGroups.getUserGroups().stream()
-            .filter(ga -> groupIdsToDisassociate.contains(ga.getId().getGroupId()))
-            .collect(toImmutableSet());
-
-    disassociateUserGroupsFromUser(userWithGroups, userGroupsToDisassociate);
-    apiKeyEventsPublisher.requestApiKeyCleanupByUsers(ImmutableSet.of(userWithGroups));
+    // Since all group ids exist and are associated with the user, delete the memberships in a
+    // single statement
+    userGroupRepository.deleteUserFromGroups(id, groupIds);
+    changeFeedService.recordRelated(ChangeEntityType.USER_GROUP, DELETED, id, groupIds);
+    permissionVersionService.incrementUsers(Set.of(id));
+    apiKeyEventsPublisher.requestApiKeyCleanupByUsers(ImmutableSet.of(user));
   }
 
   @Override
   public void delete(@NonNull UUID id) {
-    val user = getWithRelationships(id);
-    disassociateAllGroupsFromUser(user);
-    disassociateAllApplicationsFromUser(user);
-    apiKeyEventsPublisher.requestApiKeyCleanupByUsers(ImmutableSet.of(user));
+    checkExistence(id);
+    // Remove the relationships with set-based deletes instead of one statement per row
+    userGroupRepository.deleteAllByUserId(id);
+    userApplicationRepository.deleteAllByUserId(id);
+    userPermissionRepository.deleteAllByOwnerId(id);
+    apiKeyEventsPublisher.requestApiKeyCleanupByUserIds(Set.of(id));
     super.delete(id);
+    changeFeedService.record(ChangeEntityType.USER, DELETED, id);
+    authEventsPublisher.principalChanged(id);
+    searchIndex.removeUser(id);
   }
 
   @SuppressWarnings("unchecked")
@@ -514,8 +592,25 @@ public class UserService extends AbstractBaseService<User, UUID> {
         "A user with the same provider info already exists");
   }
 
-  @SuppressWarnings("unchecked")
+  /**
+   * Resolves the user's permissions using the cached permission vectors of the user's groups,
+   * instead of loading the permissions of every group for every user.
+   */
+  public Set<AbstractPermission> resolvePermissions(@NonNull User user) {
+    return resolveUsersPermissions(user, groupPermissionCache::getPermissions);
+  }
+
+  public Set<Scope> resolveScopes(@NonNull User user) {
+    return buildScopes(resolvePermissions(user));
+  }
+
   public static Set<AbstractPermission> resolveUsersPermissions(User user) {
+    return resolveUsersPermissions(user, Group::getPermissions);
+  }
+
+  @SuppressWarnings("unchecked")
+  public static Set<AbstractPermission> resolveUsersPermissions(
+      User user, Function<Group, ? extends Collection<GroupPermission>> groupPermissionResolver) {
     val up = user.getUserPermissions();
     Collection<UserPermission> userPermissions = isNull(up) ? ImmutableList.of() : up;
 
@@ -526,14 +621,17 @@ public class UserService extends AbstractBaseService<User, UUID> {
             ? ImmutableList.of()
             : userGroups.stream()
                 .map(UserGroup::getGroup)
-                .map(Group::getPermissions)
+                .map(groupPermissionResolver)
                 .flatMap(Collection::stream)
                 .collect(toImmutableSet());
     return resolveFinalPermissions(userPermissions, groupPermissions);
   }
 
   public static Set<Scope> extractScopes(@NonNull User user) {
-    val resolvedPermissions = resolveUsersPermissions(user);
+    return buildScopes(resolveUsersPermissions(user));
+  }
+
+  private static Set<Scope> buildScopes(Set<AbstractPermission> resolvedPermissions) {
     val output = mapToSet(resolvedPermissions, AbstractPermissionService::buildScope);
     if (output.isEmpty()) {
       output.add(Scope.defaultScope());
@@ -552,31 +650,11 @@ public class UserService extends AbstractBaseService<User, UUID> {
     g.getUserApplications().removeAll(userApplications);
   }
 
-  public static void disassociateAllApplicationsFromUser(@NonNull User u) {
-    val userApplications = u.getUserApplications();
-    disassociateUserApplicationsFromUser(u, userApplications);
-  }
-
   private static void associateSelf(@NonNull UserApplication ua) {
     ua.getUser().getUserApplications().add(ua);
     ua.getApplication().getUserApplications().add(ua);
   }
 
-  public static void disassociateAllGroupsFromUser(@NonNull User userWithRelationships) {
-    disassociateUserGroupsFromUser(userWithRelationships, userWithRelationships.getUserGroups());
-  }
-
-  public static void disassociateUserGroupsFromUser(
-      @NonNull User user, @NonNull Collection<UserGroup> userGroups) {
-    userGroups.forEach(
-        ug -> {
-          ug.getGroup().getUserGroups().remove(ug);
-          ug.setUser(null);
-          ug.setGroup(null);
-        });
-    user.getUserGroups().removeAll(userGroups);
-  }
-
   @Mapper(
       nullValueCheckStrategy = NullValueCheckStrategy.ALWAYS,
       unmappedTargetPolicy = ReportingPolicy.WARN)
@@ -0,0 +1,25 @@
+package bio.overture.ego.utils;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.security.MessageDigest;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+
+@NoArgsConstructor
+public final class Digests {
+
+  /** Constants */
+  private static final String SHA_256 = "SHA-256";
+
+  @SneakyThrows
+  public static byte[] sha256(@NonNull CharSequence value) {
+    return MessageDigest.getInstance(SHA_256).digest(value.toString().getBytes(UTF_8));
+  }
+
+  /** Compares two digests in time independent of where they first differ */
+  public static boolean digestsEqual(byte[] left, byte[] right) {
+    return MessageDigest.isEqual(left, right);
+  }
+}
@@ -3,6 +3,9 @@ package bio.overture.ego.utils;
 import static java.util.stream.Collectors.toUnmodifiableList;
 import static org.springframework.util.StringUtils.isEmpty;
 
+import bio.overture.ego.model.search.CountMode;
+import bio.overture.ego.model.search.CursorPageable;
+import bio.overture.ego.model.search.PageCursor;
 import java.util.Map;
 import java.util.Optional;
 import lombok.NonNull;
@@ -12,7 +15,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 
 @RequiredArgsConstructor
-public class IgnoreCaseSortDecorator implements Pageable {
+public class IgnoreCaseSortDecorator implements CursorPageable {
 
   private static final Map<String, String> SORT_MAP =
       Map.of("name", "owner.name", "id", "owner.id", "mask", "accessLevel");
@@ -51,6 +54,16 @@ public class IgnoreCaseSortDecorator implements Pageable {
   }
 
   /** Delegated methods */
+  @Override
+  public Optional<PageCursor> getCursor() {
+    return CursorPageable.getCursor(delegate);
+  }
+
+  @Override
+  public CountMode getCountMode() {
+    return CursorPageable.getCountMode(delegate);
+  }
+
   @Override
   public int getPageNumber() {
     return delegate.getPageNumber();
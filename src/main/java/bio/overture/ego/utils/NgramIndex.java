@@ -0,0 +1,200 @@
+package bio.overture.ego.utils;
+
+import static java.util.Comparator.comparing;
+import static java.util.Comparator.comparingInt;
+import static java.util.stream.Collectors.toUnmodifiableList;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.NonNull;
+import lombok.Value;
+import lombok.val;
+
+/**
+ * In-memory inverted index from the n-grams of short text fields to the ids of their documents,
+ * answering case-insensitive substring search without scanning every document. A query of up to
+ * GRAM_SIZE characters is itself a gram. A longer query is narrowed to the documents of its rarest
+ * gram, which are then checked. Matches are ranked by whether a field equals the query, starts
+ * with it, has a word starting with it or only contains it. Safe for concurrent use.
+ */
+public class NgramIndex<ID extends Comparable<ID>> {
+
+  /** Constants */
+  public static final int GRAM_SIZE = 3;
+
+  private static final int EQUALS = 0;
+  private static final int PREFIX = 1;
+  private static final int WORD_PREFIX = 2;
+  private static final int SUBSTRING = 3;
+  private static final int NO_MATCH = -1;
+
+  /** State */
+  private final Map<ID, List<String>> documents = new HashMap<>();
+
+  private final Map<String, Set<ID>> postings = new HashMap<>();
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  /** Adds the document, replacing its previous fields. Missing fields are skipped. */
+  public void put(@NonNull ID id, @NonNull Collection<String> fields) {
+    val normalized =
+        fields.stream()
+            .filter(Objects::nonNull)
+            .map(NgramIndex::normalize)
+            .filter(x -> !x.isEmpty())
+            .collect(toUnmodifiableList());
+    lock.writeLock().lock();
+    try {
+      removeDocument(id);
+      documents.put(id, normalized);
+      grams(normalized).forEach(g -> postings.computeIfAbsent(g, x -> new HashSet<>()).add(id));
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void remove(@NonNull ID id) {
+    lock.writeLock().lock();
+    try {
+      removeDocument(id);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return documents.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Ids of the documents with a field containing the query, best ranked first. Equally ranked
+   * documents are ordered by their matching field, then by id. Only the best {@code limit} matches
+   * are kept while the candidates are checked, so a short query matching most documents costs one
+   * pass over them rather than a sort of all of them.
+   */
+  public List<ID> search(@NonNull String query, int limit) {
+    val normalized = normalize(query);
+    if (normalized.isEmpty() || limit <= 0) {
+      return List.of();
+    }
+    Comparator<Match<ID>> order =
+        comparingInt(Match<ID>::getRank)
+            .thenComparing(Match::getField)
+            .thenComparing(Match::getId);
+
+    // The worst of the best matches so far sits on top of the heap
+    val best = new PriorityQueue<Match<ID>>(order.reversed());
+    lock.readLock().lock();
+    try {
+      for (val id : candidates(normalized)) {
+        val match = match(id, documents.get(id), normalized);
+        if (match.getRank() == NO_MATCH) {
+          continue;
+        }
+        if (best.size() < limit) {
+          best.add(match);
+        } else if (order.compare(match, best.peek()) < 0) {
+          best.poll();
+          best.add(match);
+        }
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    return best.stream().sorted(order).map(Match::getId).collect(toUnmodifiableList());
+  }
+
+  private Set<ID> candidates(String query) {
+    if (query.length() <= GRAM_SIZE) {
+      return postings.getOrDefault(query, Set.of());
+    }
+    return grams(List.of(query)).stream()
+        .filter(g -> g.length() == GRAM_SIZE)
+        .map(g -> postings.getOrDefault(g, Set.of()))
+        .min(comparing(Set::size))
+        .orElse(Set.of());
+  }
+
+  private void removeDocument(ID id) {
+    val previous = documents.remove(id);
+    if (previous == null) {
+      return;
+    }
+    for (val gram : grams(previous)) {
+      val ids = postings.get(gram);
+      ids.remove(id);
+      if (ids.isEmpty()) {
+        postings.remove(gram);
+      }
+    }
+  }
+
+  private static <ID> Match<ID> match(ID id, List<String> fields, String query) {
+    Match<ID> best = new Match<>(id, NO_MATCH, "");
+    for (val field : fields) {
+      val rank = rank(field, query);
+      if (rank != NO_MATCH && (best.getRank() == NO_MATCH || rank < best.getRank())) {
+        best = new Match<>(id, rank, field);
+      }
+    }
+    return best;
+  }
+
+  private static int rank(String field, String query) {
+    if (field.equals(query)) {
+      return EQUALS;
+    }
+    if (field.startsWith(query)) {
+      return PREFIX;
+    }
+    int position = field.indexOf(query);
+    if (position < 0) {
+      return NO_MATCH;
+    }
+    while (position >= 0) {
+      if (!Character.isLetterOrDigit(field.charAt(position - 1))) {
+        return WORD_PREFIX;
+      }
+      position = field.indexOf(query, position + 1);
+    }
+    return SUBSTRING;
+  }
+
+  /** Every substring of at most GRAM_SIZE characters */
+  private static Set<String> grams(Collection<String> fields) {
+    val grams = new HashSet<String>();
+    for (val field : fields) {
+      for (int i = 0; i < field.length(); i++) {
+        for (int n = 1; n <= GRAM_SIZE && i + n <= field.length(); n++) {
+          grams.add(field.substring(i, i + n));
+        }
+      }
+    }
+    return grams;
+  }
+
+  private static String normalize(String value) {
+    return value.trim().toLowerCase(Locale.ROOT);
+  }
+
+  @Value
+  private static class Match<ID> {
+    ID id;
+    int rank;
+    String field;
+  }
+}
@@ -0,0 +1,43 @@
+package bio.overture.ego.utils;
+
+import static org.springframework.transaction.support.TransactionSynchronizationManager.isSynchronizationActive;
+import static org.springframework.transaction.support.TransactionSynchronizationManager.registerSynchronization;
+
+import lombok.NonNull;
+import org.springframework.transaction.support.TransactionSynchronization;
+
+public class Transactions {
+
+  /**
+   * Runs the action immediately and, when called inside a transaction, once more after it
+   * completes. Used for cache eviction, so a concurrent reader cannot re-populate an entry with
+   * the pre-commit state.
+   */
+  public static void runNowAndAfterCompletion(@NonNull Runnable action) {
+    action.run();
+    if (isSynchronizationActive()) {
+      registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+              action.run();
+            }
+          });
+    }
+  }
+
+  /** Runs the action once the surrounding transaction commits, or immediately outside of one */
+  public static void runAfterCommit(@NonNull Runnable action) {
+    if (isSynchronizationActive()) {
+      registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              action.run();
+            }
+          });
+    } else {
+      action.run();
+    }
+  }
+}
@@ -0,0 +1,3 @@
+ALTER TABLE egouser ADD COLUMN permissionversion BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE egogroup ADD COLUMN permissionversion BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE egoapplication ADD COLUMN permissionversion BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,9 @@
+CREATE TABLE apikeycleanup (
+  user_id       UUID PRIMARY KEY,
+  enqueuedat    TIMESTAMP NOT NULL DEFAULT now(),
+  requestcount  BIGINT NOT NULL DEFAULT 1,
+  attempts      INT NOT NULL DEFAULT 0,
+  nextattemptat TIMESTAMP NOT NULL DEFAULT now()
+);
+
+CREATE INDEX idx_apikeycleanup_nextattemptat ON apikeycleanup(nextattemptat);
@@ -0,0 +1,11 @@
+CREATE TABLE changeevent (
+  id          BIGSERIAL PRIMARY KEY,
+  txid        BIGINT NOT NULL DEFAULT txid_current(),
+  entitytype  VARCHAR(64) NOT NULL,
+  operation   VARCHAR(16) NOT NULL,
+  entityid    UUID NOT NULL,
+  relatedid   UUID,
+  createdat   TIMESTAMP NOT NULL DEFAULT now()
+);
+
+CREATE INDEX idx_changeevent_cursor ON changeevent(txid, id);
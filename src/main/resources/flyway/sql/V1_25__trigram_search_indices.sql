@@ -0,0 +1,23 @@
+-- Serve the lower(field) LIKE '%text%' predicates of the search queries
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_egouser_email_trgm ON egouser USING gin (lower(email) gin_trgm_ops);
+CREATE INDEX idx_egouser_firstname_trgm ON egouser USING gin (lower(firstname) gin_trgm_ops);
+CREATE INDEX idx_egouser_lastname_trgm ON egouser USING gin (lower(lastname) gin_trgm_ops);
+
+CREATE INDEX idx_egogroup_name_trgm ON egogroup USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX idx_egogroup_description_trgm ON egogroup USING gin (lower(description) gin_trgm_ops);
+
+CREATE INDEX idx_egoapplication_name_trgm ON egoapplication USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX idx_egoapplication_clientid_trgm ON egoapplication USING gin (lower(clientid) gin_trgm_ops);
+CREATE INDEX idx_egoapplication_clientsecret_trgm ON egoapplication USING gin (lower(clientsecret) gin_trgm_ops);
+CREATE INDEX idx_egoapplication_description_trgm ON egoapplication USING gin (lower(description) gin_trgm_ops);
+
+CREATE INDEX idx_token_name_trgm ON token USING gin (lower(name) gin_trgm_ops);
+
+CREATE INDEX idx_policy_name_trgm ON policy USING gin (lower(name) gin_trgm_ops);
+
+-- Enum search terms become exact matches, which these serve
+CREATE INDEX idx_egouser_status ON egouser(status);
+CREATE INDEX idx_egogroup_status ON egogroup(status);
+CREATE INDEX idx_egoapplication_status ON egoapplication(status);
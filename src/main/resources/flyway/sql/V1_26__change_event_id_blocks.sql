@@ -0,0 +1,2 @@
+-- Hibernate draws change event ids in blocks of 50, so the sequence hands out the top of a block
+ALTER SEQUENCE changeevent_id_seq INCREMENT BY 50;
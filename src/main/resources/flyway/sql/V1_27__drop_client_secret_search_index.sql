@@ -0,0 +1,2 @@
+-- Client secrets are no longer searched, and an index over their hashes only adds write cost
+DROP INDEX IF EXISTS idx_egoapplication_clientsecret_trgm;
@@ -5,6 +5,7 @@ import static bio.overture.ego.model.enums.AccessLevel.READ;
 import static bio.overture.ego.model.enums.AccessLevel.WRITE;
 import static bio.overture.ego.model.enums.StatusType.APPROVED;
 import static bio.overture.ego.model.enums.UserType.ADMIN;
+import static java.lang.String.format;
 import static java.util.Arrays.asList;
 import static net.javacrumbs.jsonunit.core.Option.IGNORING_ARRAY_ORDER;
 import static net.javacrumbs.jsonunit.fluent.JsonFluentAssert.assertThatJson;
@@ -553,4 +554,42 @@ public class ApiKeyControllerTest extends AbstractControllerTest {
     assertNotEquals(0, secondsValue);
     assertTrue(secondsValue > 0);
   }
+
+  @SneakyThrows
+  @Test
+  public void getPermissionVersion_PermissionAdded_VersionIncremented() {
+    val user = entityGenerator.setupUser("Version User");
+    val policy = entityGenerator.setupSinglePolicy("PermissionVersionPolicy");
+
+    val before =
+        initStringRequest()
+            .endpoint("o/scopes/version")
+            .queryParam("userId", user.getId())
+            .get();
+    assertEquals(HttpStatus.OK, before.getStatusCode());
+    val versionBefore = MAPPER.readTree(before.getBody()).get("permissionVersion").asLong();
+    assertEquals(format("\"%d\"", versionBefore), before.getHeaders().getETag());
+
+    entityGenerator.addPermissionToUsers(List.of(user), policy, READ);
+
+    val after =
+        initStringRequest()
+            .endpoint("o/scopes/version")
+            .queryParam("userId", user.getId())
+            .get();
+    assertEquals(HttpStatus.OK, after.getStatusCode());
+    val versionAfter = MAPPER.readTree(after.getBody()).get("permissionVersion").asLong();
+    assertTrue(versionAfter > versionBefore);
+  }
+
+  @SneakyThrows
+  @Test
+  public void getPermissionVersion_NonExistentUser_NotFound() {
+    val response =
+        initStringRequest()
+            .endpoint("o/scopes/version")
+            .queryParam("userId", UUID.randomUUID())
+            .get();
+    assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+  }
 }
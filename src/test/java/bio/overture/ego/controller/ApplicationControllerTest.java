@@ -17,8 +17,10 @@
 
 package bio.overture.ego.controller;
 
+import static bio.overture.ego.controller.resolver.PageableResolver.CURSOR;
 import static bio.overture.ego.controller.resolver.PageableResolver.LIMIT;
 import static bio.overture.ego.controller.resolver.PageableResolver.OFFSET;
+import static bio.overture.ego.controller.resolver.PageableResolver.SORT;
 import static bio.overture.ego.model.enums.AccessLevel.READ;
 import static bio.overture.ego.model.enums.AccessLevel.WRITE;
 import static bio.overture.ego.model.enums.JavaFields.*;
@@ -43,10 +45,12 @@ import bio.overture.ego.model.dto.UpdateApplicationRequest;
 import bio.overture.ego.model.entity.*;
 import bio.overture.ego.model.enums.ApplicationType;
 import bio.overture.ego.model.enums.StatusType;
+import bio.overture.ego.model.search.PageCursor;
 import bio.overture.ego.service.ApplicationService;
 import bio.overture.ego.utils.EntityGenerator;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import java.util.List;
+import java.util.UUID;
 import lombok.Builder;
 import lombok.NonNull;
 import lombok.SneakyThrows;
@@ -59,6 +63,7 @@ import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
@@ -654,6 +659,23 @@ public class ApplicationControllerTest extends AbstractControllerTest {
     getUsersForApplicationGetRequestAnd(nonExistentId).assertNotFound();
   }
 
+  @Test
+  public void listApplications_SortByClientSecret_BadRequest() {
+    entityGenerator.generateRandomApplication();
+    listApplicationsEndpointAnd().queryParam(SORT, "clientSecret").getAnd().assertBadRequest();
+
+    // A cursor cannot sort by it either, which would hand back the secret of the last row
+    val cursor =
+        PageCursor.builder()
+            .property("clientSecret")
+            .direction(Sort.Direction.ASC)
+            .value("a")
+            .id(UUID.randomUUID())
+            .build()
+            .encode();
+    listApplicationsEndpointAnd().queryParam(CURSOR, cursor).getAnd().assertBadRequest();
+  }
+
   @SneakyThrows
   private TestApplicationData generateUniqueTestApplicationData() {
     val applications = repeatedCallsOf(() -> entityGenerator.generateRandomApplication(), 2);
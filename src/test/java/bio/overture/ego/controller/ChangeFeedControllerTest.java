@@ -0,0 +1,167 @@
+package bio.overture.ego.controller;
+
+import static bio.overture.ego.controller.ChangeFeedController.NEXT_CURSOR_HEADER;
+import static bio.overture.ego.model.enums.ChangeEntityType.GROUP;
+import static bio.overture.ego.model.enums.ChangeEntityType.USER;
+import static bio.overture.ego.model.enums.ChangeEntityType.USER_GROUP;
+import static bio.overture.ego.model.enums.ChangeOperation.CREATED;
+import static bio.overture.ego.model.enums.ChangeOperation.DELETED;
+import static bio.overture.ego.model.enums.ChangeOperation.UPDATED;
+import static bio.overture.ego.model.enums.ProviderType.GOOGLE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.http.HttpStatus.OK;
+
+import bio.overture.ego.AuthorizationServiceMain;
+import bio.overture.ego.service.UserService;
+import bio.overture.ego.utils.EntityGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+@Slf4j
+@ActiveProfiles("test")
+@RunWith(SpringRunner.class)
+@SpringBootTest(
+    classes = AuthorizationServiceMain.class,
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class ChangeFeedControllerTest extends AbstractControllerTest {
+
+  /** Dependencies */
+  @Autowired private EntityGenerator entityGenerator;
+
+  @Autowired private UserService userService;
+
+  @Value("${logging.test.controller.enable}")
+  private boolean enableLogging;
+
+  @Override
+  protected boolean enableLogging() {
+    return enableLogging;
+  }
+
+  @Override
+  protected void beforeTest() {}
+
+  @Test
+  @SneakyThrows
+  public void getChanges_GroupMembershipMutations_StreamedInCommitOrder() {
+    val cursor = readToHead();
+
+    val user = entityGenerator.setupUser("ChangeFeed Member");
+    val group = entityGenerator.setupGroup("ChangeFeedGroup");
+    addUsersToGroupPostRequestAnd(group, List.of(user)).assertOk();
+    initStringRequest().endpoint("/groups/%s", group.getId()).deleteAnd().assertOk();
+
+    val groupId = group.getId().toString();
+    val groupChanges =
+        readChanges(cursor).stream()
+            .filter(
+                x ->
+                    groupId.equals(x.get("entityId").asText())
+                        || groupId.equals(x.get("relatedId").asText()))
+            .collect(ImmutableList.toImmutableList());
+
+    assertEquals(3, groupChanges.size());
+    assertChange(groupChanges.get(0), GROUP.toString(), CREATED.toString(), group.getId(), null);
+    assertChange(
+        groupChanges.get(1),
+        USER_GROUP.toString(),
+        CREATED.toString(),
+        user.getId(),
+        group.getId());
+    assertChange(groupChanges.get(2), GROUP.toString(), DELETED.toString(), group.getId(), null);
+  }
+
+  @Test
+  public void getChanges_LoginWithChangedEmail_UserUpdatedOnlyWhenChanged() {
+    val idToken = entityGenerator.setupUserIDToken(GOOGLE, UUID.randomUUID().toString());
+    val user = userService.getUserByToken(idToken);
+    val cursor = readToHead();
+
+    // Logging in again with the same identity leaves the user untouched
+    userService.getUserByToken(idToken);
+    idToken.setEmail("changed." + idToken.getEmail());
+    userService.getUserByToken(idToken);
+
+    val userId = user.getId().toString();
+    val userChanges =
+        readChanges(cursor).stream()
+            .filter(x -> userId.equals(x.get("entityId").asText()))
+            .collect(ImmutableList.toImmutableList());
+
+    assertEquals(1, userChanges.size());
+    assertChange(userChanges.get(0), USER.toString(), UPDATED.toString(), user.getId(), null);
+  }
+
+  @Test
+  public void getChanges_MalformedCursor_BadRequest() {
+    initStringRequest()
+        .endpoint("/changes")
+        .queryParam("cursor", "notACursor")
+        .getAnd()
+        .assertBadRequest();
+  }
+
+  /** Follows the feed until it is caught up and returns the cursor at that point */
+  private String readToHead() {
+    String cursor = null;
+    while (true) {
+      val response = getChanges(cursor);
+      val nextCursor = response.getHeaders().getFirst(NEXT_CURSOR_HEADER);
+      if (Objects.equals(cursor, nextCursor)) {
+        return cursor;
+      }
+      cursor = nextCursor;
+    }
+  }
+
+  @SneakyThrows
+  private List<JsonNode> readChanges(String cursor) {
+    val body = getChanges(cursor).getBody();
+    val changes = ImmutableList.<JsonNode>builder();
+    if (body != null) {
+      for (val line : body.split("\n")) {
+        if (!line.isBlank()) {
+          changes.add(MAPPER.readTree(line));
+        }
+      }
+    }
+    return changes.build();
+  }
+
+  private ResponseEntity<String> getChanges(String cursor) {
+    val request = initStringRequest().endpoint("/changes");
+    if (cursor != null) {
+      request.queryParam("cursor", cursor);
+    }
+    val response = request.get();
+    assertEquals(OK, response.getStatusCode());
+    return response;
+  }
+
+  private static void assertChange(
+      JsonNode change, String entityType, String operation, UUID entityId, UUID relatedId) {
+    assertEquals(entityType, change.get("entityType").asText());
+    assertEquals(operation, change.get("operation").asText());
+    assertEquals(entityId.toString(), change.get("entityId").asText());
+    if (relatedId == null) {
+      assertTrue(change.get("relatedId").isNull());
+    } else {
+      assertEquals(relatedId.toString(), change.get("relatedId").asText());
+    }
+  }
+}
@@ -586,6 +586,35 @@ public class GroupControllerTest extends AbstractControllerTest {
     addUsersToGroupPostRequestAnd(group0, data.getUsers()).assertConflict();
   }
 
+  @Test
+  public void addUsersToGroup_GroupWithOtherMembers_AllMembersVisible() {
+    val data = generateUniqueTestGroupData();
+    val group0 = data.getGroups().get(0);
+    val user0 = data.getUsers().get(0);
+    val user1 = data.getUsers().get(1);
+
+    // Add a first member, then a user that is not one yet
+    addUsersToGroupPostRequestAnd(group0, newArrayList(user0)).assertOk();
+    addUsersToGroupPostRequestAnd(group0, newArrayList(user1)).assertOk();
+
+    // Assert both members are listed for the group, and the group for each of them
+    getUsersForGroupGetRequestAnd(group0)
+        .assertPageResultsOfType(User.class)
+        .containsExactlyInAnyOrderElementsOf(data.getUsers());
+    data.getUsers()
+        .forEach(
+            u ->
+                getGroupsForUserGetRequestAnd(u)
+                    .assertPageResultsOfType(Group.class)
+                    .containsExactly(group0));
+
+    // Assert that re-adding a member is rejected and leaves the members unchanged
+    addUsersToGroupPostRequestAnd(group0, newArrayList(user1)).assertConflict();
+    getUsersForGroupGetRequestAnd(group0)
+        .assertPageResultsOfType(User.class)
+        .containsExactlyInAnyOrderElementsOf(data.getUsers());
+  }
+
   @Test
   public void removeUsersFromGroup_AllExistingAssociatedUsers_Success() {
     val data = generateUniqueTestGroupData();
@@ -18,17 +18,28 @@
 package bio.overture.ego.controller;
 
 import static bio.overture.ego.controller.AbstractPermissionControllerTest.createMaskJson;
+import static bio.overture.ego.model.enums.AccessLevel.DENY;
 import static bio.overture.ego.model.enums.AccessLevel.READ;
 import static bio.overture.ego.model.enums.AccessLevel.WRITE;
+import static bio.overture.ego.utils.EntityGenerator.generateNonExistentId;
+import static bio.overture.ego.utils.Streams.stream;
+import static java.util.stream.Collectors.toMap;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.springframework.http.HttpStatus.*;
 
 import bio.overture.ego.AuthorizationServiceMain;
+import bio.overture.ego.model.dto.OwnerPermissionRequest;
 import bio.overture.ego.model.dto.PolicyRequest;
 import bio.overture.ego.model.entity.Identifiable;
 import bio.overture.ego.service.PolicyService;
+import bio.overture.ego.service.TokenService;
 import bio.overture.ego.utils.EntityGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
@@ -55,6 +66,8 @@ public class PolicyControllerTest extends AbstractControllerTest {
 
   @Autowired private PolicyService policyService;
 
+  @Autowired private TokenService tokenService;
+
   @Value("${logging.test.controller.enable}")
   private boolean enableLogging;
 
@@ -237,4 +250,161 @@ public class PolicyControllerTest extends AbstractControllerTest {
     val testApp = entityGenerator.setupApplication("AppPolicyDelete");
     disassociatePermissionsFromEntity(testApp, "application");
   }
+
+  @Test
+  @SneakyThrows
+  public void listEffectiveUsers_DirectAndGroupPermissions_DenyTakesPrecedence() {
+    val policy = entityGenerator.setupSinglePolicy("EffectiveUsersPolicy");
+    val groupUser = entityGenerator.generateRandomUser();
+    val deniedUser = entityGenerator.generateRandomUser();
+    val directUser = entityGenerator.generateRandomUser();
+    val group = entityGenerator.setupGroup("EffectiveUsersGroup");
+    entityGenerator.addUsersToGroup(List.of(groupUser, deniedUser), group);
+    entityGenerator.setupGroupPermission(group, policy, WRITE);
+    entityGenerator.addPermissionToUsers(List.of(deniedUser), policy, DENY);
+    entityGenerator.addPermissionToUsers(List.of(directUser), policy, READ);
+
+    val response =
+        initStringRequest().endpoint("/policies/%s/effective-users", policy.getId()).get();
+    assertEquals(response.getStatusCode(), OK);
+    val responseJson = MAPPER.readTree(response.getBody());
+    assertEquals(responseJson.get("count").asInt(), 3);
+
+    val masks =
+        stream(responseJson.get("resultSet").iterator())
+            .collect(toMap(x -> x.get("id").asText(), x -> x.get("mask").asText()));
+    assertEquals(masks.get(groupUser.getId().toString()), WRITE.toString());
+    assertEquals(masks.get(deniedUser.getId().toString()), DENY.toString());
+    assertEquals(masks.get(directUser.getId().toString()), READ.toString());
+
+    val writeResponse =
+        initStringRequest()
+            .endpoint("/policies/%s/effective-users", policy.getId())
+            .queryParam("mask", WRITE)
+            .get();
+    assertEquals(writeResponse.getStatusCode(), OK);
+    val writeJson = MAPPER.readTree(writeResponse.getBody());
+    assertEquals(writeJson.get("count").asInt(), 1);
+    assertEquals(
+        writeJson.get("resultSet").get(0).get("id").asText(), groupUser.getId().toString());
+  }
+
+  @Test
+  @SneakyThrows
+  public void listEffectiveApplications_NonExistentPolicy_NotFound() {
+    val policyId = generateNonExistentId(policyService);
+    val response =
+        initStringRequest().endpoint("/policies/%s/effective-applications", policyId).get();
+    assertEquals(response.getStatusCode(), NOT_FOUND);
+  }
+
+  @Test
+  @SneakyThrows
+  public void deletePolicy_ApiKeysWithPolicyScope_RevokedByIds() {
+    val user = entityGenerator.setupUser("PolicyDelete ApiKeyOwner");
+    val deletedPolicy = entityGenerator.setupSinglePolicy("DeletedPolicyWithApiKeys");
+    val keptPolicy = entityGenerator.setupSinglePolicy("KeptPolicyWithApiKeys");
+    val affectedApiKey =
+        entityGenerator.setupApiKey(
+            user,
+            "PolicyDeleteAffectedKey",
+            false,
+            1000,
+            "",
+            entityGenerator.getScopes(deletedPolicy.getName() + ".READ"));
+    val otherApiKey =
+        entityGenerator.setupApiKey(
+            user,
+            "PolicyDeleteOtherKey",
+            false,
+            1000,
+            "",
+            entityGenerator.getScopes(keptPolicy.getName() + ".READ"));
+
+    val response = initStringRequest().endpoint("/policies/%s", deletedPolicy.getId()).delete();
+    assertEquals(response.getStatusCode(), OK);
+
+    assertTrue(tokenService.getById(affectedApiKey.getId()).isRevoked());
+    assertFalse(tokenService.getById(otherApiKey.getId()).isRevoked());
+  }
+
+  @Test
+  @SneakyThrows
+  public void bulkUserPermissions_GrantUpdateAndDelete_Success() {
+    val policy = entityGenerator.setupSinglePolicy("BulkUserPermissionPolicy");
+    val user1 = entityGenerator.generateRandomUser();
+    val user2 = entityGenerator.generateRandomUser();
+    val user3 = entityGenerator.generateRandomUser();
+
+    initStringRequest()
+        .endpoint("/policies/%s/permission/user", policy.getId())
+        .body(
+            List.of(
+                new OwnerPermissionRequest(user1.getId(), READ),
+                new OwnerPermissionRequest(user2.getId(), READ)))
+        .postAnd()
+        .assertOk();
+
+    // Unchanged, updated and created in one call
+    initStringRequest()
+        .endpoint("/policies/%s/permission/user", policy.getId())
+        .body(
+            List.of(
+                new OwnerPermissionRequest(user1.getId(), READ),
+                new OwnerPermissionRequest(user2.getId(), WRITE),
+                new OwnerPermissionRequest(user3.getId(), DENY)))
+        .postAnd()
+        .assertOk();
+
+    val masks = getUserMasks(policy.getId());
+    assertEquals(masks.size(), 3);
+    assertEquals(masks.get(user1.getId().toString()), READ.toString());
+    assertEquals(masks.get(user2.getId().toString()), WRITE.toString());
+    assertEquals(masks.get(user3.getId().toString()), DENY.toString());
+
+    initStringRequest()
+        .endpoint("/policies/%s/permission/user/mass_delete", policy.getId())
+        .body(List.of(user1.getId(), user3.getId()))
+        .postAnd()
+        .assertOk();
+
+    val remainingMasks = getUserMasks(policy.getId());
+    assertEquals(remainingMasks.size(), 1);
+    assertEquals(remainingMasks.get(user2.getId().toString()), WRITE.toString());
+  }
+
+  @Test
+  public void bulkUserPermissions_ConflictingMasks_Conflict() {
+    val policy = entityGenerator.setupSinglePolicy("BulkUserPermissionConflictPolicy");
+    val user = entityGenerator.generateRandomUser();
+
+    initStringRequest()
+        .endpoint("/policies/%s/permission/user", policy.getId())
+        .body(
+            List.of(
+                new OwnerPermissionRequest(user.getId(), READ),
+                new OwnerPermissionRequest(user.getId(), WRITE)))
+        .postAnd()
+        .assertConflict();
+  }
+
+  @Test
+  public void bulkUserPermissions_DeleteNonExistentPermission_NotFound() {
+    val policy = entityGenerator.setupSinglePolicy("BulkUserPermissionMissingPolicy");
+    val user = entityGenerator.generateRandomUser();
+
+    initStringRequest()
+        .endpoint("/policies/%s/permission/user/mass_delete", policy.getId())
+        .body(List.of(user.getId()))
+        .postAnd()
+        .assertNotFound();
+  }
+
+  @SneakyThrows
+  private Map<String, String> getUserMasks(UUID policyId) {
+    val response = initStringRequest().endpoint("/policies/%s/users", policyId).get();
+    assertEquals(response.getStatusCode(), OK);
+    return stream(MAPPER.readTree(response.getBody()).get("resultSet").iterator())
+        .collect(toMap(x -> x.get("id").asText(), x -> x.get("mask").asText()));
+  }
 }
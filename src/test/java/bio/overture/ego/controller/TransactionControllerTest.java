@@ -17,17 +17,21 @@
 
 package bio.overture.ego.controller;
 
+import static bio.overture.ego.utils.CollectionUtils.mapToSet;
 import static org.junit.Assert.assertEquals;
 
 import bio.overture.ego.AuthorizationServiceMain;
 import bio.overture.ego.model.dto.TransactionalDeleteRequest;
 import bio.overture.ego.model.dto.TransactionalGroupPermissionRequest;
 import bio.overture.ego.model.enums.AccessLevel;
+import bio.overture.ego.repository.GroupPermissionRepository;
+import bio.overture.ego.repository.GroupRepository;
 import java.util.*;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.ResponseEntity;
@@ -41,6 +45,12 @@ import org.springframework.test.context.junit4.SpringRunner;
     classes = AuthorizationServiceMain.class,
     webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 public class TransactionControllerTest extends AbstractControllerTest {
+
+  /** Dependencies */
+  @Autowired private GroupRepository groupRepository;
+
+  @Autowired private GroupPermissionRepository groupPermissionRepository;
+
   @Value("${logging.test.controller.enable}")
   private boolean enableLogging;
 
@@ -64,6 +74,29 @@ public class TransactionControllerTest extends AbstractControllerTest {
     assertEquals(200, response.getStatusCodeValue());
   }
 
+  /**
+   * Before: Groups and policies do not exist. After: Both groups exist, names are matched ignoring
+   * case and the last mask requested for a group and policy is the one granted, including when it
+   * updates an existing permission.
+   */
+  @Test
+  public void createGroupPermissions_RepeatedEntries_LastMaskWins() {
+    val request =
+        List.of(
+            new TransactionalGroupPermissionRequest("txGroupA", "txPolicyA", AccessLevel.READ),
+            new TransactionalGroupPermissionRequest("TXGROUPA", "txPolicyA", AccessLevel.WRITE),
+            new TransactionalGroupPermissionRequest("txGroupA", "txPolicyB", AccessLevel.DENY),
+            new TransactionalGroupPermissionRequest("txGroupB", "TXPOLICYA", AccessLevel.READ));
+    assertEquals(200, createPermissions(request).getStatusCodeValue());
+    assertEquals(Set.of("txPolicyA.WRITE", "txPolicyB.DENY"), getPermissionNames("txGroupA"));
+    assertEquals(Set.of("txPolicyA.READ"), getPermissionNames("txGroupB"));
+
+    val updateRequest =
+        List.of(new TransactionalGroupPermissionRequest("txGroupB", "txPolicyA", AccessLevel.DENY));
+    assertEquals(200, createPermissions(updateRequest).getStatusCodeValue());
+    assertEquals(Set.of("txPolicyA.DENY"), getPermissionNames("txGroupB"));
+  }
+
   @Test
   public void deleteSuccessful() {
     val request = new TransactionalDeleteRequest(List.of("group1"), List.of("policy1"));
@@ -71,6 +104,13 @@ public class TransactionControllerTest extends AbstractControllerTest {
     assertEquals(200, response.getStatusCodeValue());
   }
 
+  private Set<String> getPermissionNames(String groupName) {
+    val group = groupRepository.getGroupByNameIgnoreCase(groupName).get();
+    return mapToSet(
+        groupPermissionRepository.findAllByOwner_Id(group.getId()),
+        x -> x.getPolicy().getName() + "." + x.getAccessLevel());
+  }
+
   ResponseEntity<String> createPermissions(List<TransactionalGroupPermissionRequest> request) {
     return initStringRequest().endpoint("transaction/group_permissions").body(request).post();
   }
@@ -17,13 +17,20 @@
 
 package bio.overture.ego.controller;
 
+import static bio.overture.ego.controller.resolver.PageableResolver.COUNT;
+import static bio.overture.ego.controller.resolver.PageableResolver.CURSOR;
 import static bio.overture.ego.controller.resolver.PageableResolver.LIMIT;
 import static bio.overture.ego.controller.resolver.PageableResolver.OFFSET;
+import static bio.overture.ego.controller.resolver.PageableResolver.SORT;
+import static bio.overture.ego.controller.resolver.PageableResolver.SORTORDER;
 import static bio.overture.ego.model.enums.JavaFields.*;
 import static bio.overture.ego.model.enums.LanguageType.*;
 import static bio.overture.ego.model.enums.ProviderType.*;
+import static bio.overture.ego.model.enums.StatusType.DISABLED;
+import static bio.overture.ego.model.enums.StatusType.REJECTED;
 import static bio.overture.ego.model.enums.UserType.USER;
 import static bio.overture.ego.utils.CollectionUtils.mapToImmutableSet;
+import static bio.overture.ego.utils.CollectionUtils.mapToList;
 import static bio.overture.ego.utils.CollectionUtils.mapToSet;
 import static bio.overture.ego.utils.CollectionUtils.repeatedCallsOf;
 import static bio.overture.ego.utils.Collectors.toImmutableList;
@@ -38,17 +45,20 @@ import static org.junit.Assert.*;
 import static org.springframework.http.HttpStatus.OK;
 
 import bio.overture.ego.AuthorizationServiceMain;
+import bio.overture.ego.model.dto.UpdateUserRequest;
 import bio.overture.ego.model.entity.Application;
 import bio.overture.ego.model.entity.Group;
 import bio.overture.ego.model.entity.Identifiable;
 import bio.overture.ego.model.entity.Policy;
 import bio.overture.ego.model.entity.User;
 import bio.overture.ego.model.enums.ProviderType;
+import bio.overture.ego.model.search.PageCursor;
 import bio.overture.ego.service.ApplicationService;
 import bio.overture.ego.service.GroupService;
 import bio.overture.ego.service.UserService;
 import bio.overture.ego.utils.EntityGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Sets;
 import java.util.List;
 import java.util.Set;
@@ -69,6 +79,7 @@ import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 
@@ -265,6 +276,216 @@ public class UserControllerTest extends AbstractControllerTest {
         "FirstUser@domain.com");
   }
 
+  @Test
+  @SneakyThrows
+  public void findUsers_QueryMatchesStatusName_OnlyUsersWithThatStatus() {
+    val user = entityGenerator.setupUser("Refused Searchee");
+    userService.partialUpdate(user.getId(), UpdateUserRequest.builder().status(REJECTED).build());
+
+    val numUsers = userService.getRepository().count();
+    val users =
+        listUsersEndpointAnd()
+            .queryParam("query", "JECTE")
+            .queryParam(LIMIT, numUsers)
+            .getAnd()
+            .assertOk()
+            .extractPageResults(User.class);
+
+    assertTrue(users.stream().anyMatch(u -> u.getId().equals(user.getId())));
+    assertTrue(users.stream().allMatch(u -> u.getStatus() == REJECTED));
+  }
+
+  @Test
+  public void listUsers_ExactFilters_OnlyMatchingUsers() {
+    val user = entityGenerator.setupUser("Filtered Rejectee");
+    userService.partialUpdate(user.getId(), UpdateUserRequest.builder().status(REJECTED).build());
+
+    val numUsers = userService.getRepository().count();
+    val users =
+        listUsersEndpointAnd()
+            .queryParam("status", "rejected,disabled")
+            .queryParam("type", USER)
+            .queryParam(LIMIT, numUsers)
+            .getAnd()
+            .assertOk()
+            .extractPageResults(User.class);
+
+    assertTrue(users.stream().anyMatch(u -> u.getId().equals(user.getId())));
+    assertTrue(users.stream().allMatch(u -> Set.of(REJECTED, DISABLED).contains(u.getStatus())));
+    assertTrue(users.stream().allMatch(u -> u.getType() == USER));
+
+    val byId =
+        listUsersEndpointAnd()
+            .queryParam("id", user.getId())
+            .getAnd()
+            .assertOk()
+            .extractPageResults(User.class);
+    assertEquals(List.of(user.getId()), mapToList(byId, User::getId));
+
+    listUsersEndpointAnd().queryParam("status", "NOT_A_STATUS").getAnd().assertBadRequest();
+    listUsersEndpointAnd().queryParam("id", "not-a-uuid").getAnd().assertBadRequest();
+  }
+
+  @Test
+  public void listUsers_CreatedAtRange_OnlyUsersCreatedInRange() {
+    val user = entityGenerator.setupUser("Recent Createe");
+    val from = user.getCreatedAt().toInstant().minusSeconds(1);
+
+    val numUsers = userService.getRepository().count();
+    val users =
+        listUsersEndpointAnd()
+            .queryParam("createdAt", from + "..")
+            .queryParam(LIMIT, numUsers)
+            .getAnd()
+            .assertOk()
+            .extractPageResults(User.class);
+    assertTrue(users.stream().anyMatch(u -> u.getId().equals(user.getId())));
+
+    listUsersEndpointAnd()
+        .queryParam("createdAt", ".." + from)
+        .queryParam(LIMIT, numUsers)
+        .getAnd()
+        .assertOk()
+        .assertPageResultsOfType(User.class)
+        .noneMatch(u -> u.getId().equals(user.getId()));
+
+    listUsersEndpointAnd().queryParam("createdAt", "yesterday").getAnd().assertBadRequest();
+  }
+
+  @Test
+  @SneakyThrows
+  public void listUsers_CountModes_CountOnlyWhenAsked() {
+    val numUsers = userService.getRepository().count();
+
+    val firstPage = listUsers(1, "none");
+    assertFalse(firstPage.has("count"));
+    assertTrue(firstPage.get("hasNext").asBoolean());
+    assertEquals(1, firstPage.get("resultSet").size());
+
+    val everyUser = listUsers(numUsers, "none");
+    assertFalse(everyUser.has("count"));
+    assertFalse(everyUser.get("hasNext").asBoolean());
+
+    val estimated = listUsers(1, "estimate");
+    assertTrue(estimated.get("count").asLong() >= 1);
+    assertTrue(estimated.get("hasNext").asBoolean());
+
+    val exact = listUsers(1, "exact");
+    assertEquals(numUsers, exact.get("count").asLong());
+
+    listUsersEndpointAnd().queryParam(COUNT, "sometimes").getAnd().assertBadRequest();
+  }
+
+  @Test
+  @SneakyThrows
+  public void listUsers_CursorPages_SameUsersAsOffset() {
+    val numUsers = userService.getRepository().count();
+    val expectedResponse =
+        initStringRequest()
+            .endpoint("/users")
+            .queryParam(LIMIT, numUsers)
+            .queryParam(OFFSET, 0)
+            .queryParam(SORT, "email")
+            .queryParam(SORTORDER, "asc")
+            .get();
+    val expectedIds = extractIds(MAPPER.readTree(expectedResponse.getBody()));
+
+    // Walk every user two at a time, continuing each page from the previous cursor
+    val actualIds = ImmutableList.<String>builder();
+    JsonNode response =
+        MAPPER.readTree(
+            initStringRequest()
+                .endpoint("/users")
+                .queryParam(LIMIT, 2)
+                .queryParam(SORT, "email")
+                .queryParam(SORTORDER, "asc")
+                .get()
+                .getBody());
+    actualIds.addAll(extractIds(response));
+    while (response.hasNonNull("nextCursor")) {
+      val cursor = response.get("nextCursor").asText();
+      response =
+          MAPPER.readTree(
+              initStringRequest()
+                  .endpoint("/users")
+                  .queryParam(LIMIT, 2)
+                  .queryParam(CURSOR, cursor)
+                  .get()
+                  .getBody());
+      assertEquals(numUsers, response.get("count").asLong());
+      actualIds.addAll(extractIds(response));
+    }
+
+    assertEquals(expectedIds, actualIds.build());
+  }
+
+  @Test
+  public void listUsers_MalformedCursor_BadRequest() {
+    listUsersEndpointAnd().queryParam(CURSOR, "notACursor").getAnd().assertBadRequest();
+  }
+
+  @Test
+  public void listUsers_UnknownSortProperty_BadRequest() {
+    listUsersEndpointAnd().queryParam(SORT, "notAField").getAnd().assertBadRequest();
+    listUsersEndpointAnd().queryParam(SORT, "userGroups").getAnd().assertBadRequest();
+  }
+
+  @Test
+  public void listUsers_TamperedCursor_BadRequest() {
+    val cursor =
+        PageCursor.builder().direction(Sort.Direction.ASC).value("a").id(UUID.randomUUID());
+
+    // The cursor names a property that cannot be sorted by
+    val unknownProperty = cursor.property("notAField").build().encode();
+    listUsersEndpointAnd().queryParam(CURSOR, unknownProperty).getAnd().assertBadRequest();
+
+    // The cursor value does not fit the property
+    val invalidValue = cursor.property("createdAt").value("notADate").build().encode();
+    listUsersEndpointAnd().queryParam(CURSOR, invalidValue).getAnd().assertBadRequest();
+  }
+
+  @Test
+  @SneakyThrows
+  public void listUsers_ProjectedColumns_SameJsonAsGetUser() {
+    val user = entityGenerator.generateRandomUser();
+
+    val listResponse = listUsersEndpointAnd().queryParam("query", user.getEmail()).get();
+    assertEquals(OK, listResponse.getStatusCode());
+    val resultSet = MAPPER.readTree(listResponse.getBody()).get("resultSet");
+    assertEquals(1, resultSet.size());
+
+    val getResponse = initStringRequest().endpoint("/users/%s", user.getId()).get();
+    assertEquals(OK, getResponse.getStatusCode());
+    val expected = MAPPER.readTree(getResponse.getBody());
+
+    assertEquals(expected, resultSet.get(0));
+    assertEquals(
+        ImmutableList.copyOf(expected.fieldNames()),
+        ImmutableList.copyOf(resultSet.get(0).fieldNames()));
+  }
+
+  @Test
+  @SneakyThrows
+  public void suggestUsers_CreatedThenDeleted_IndexFollows() {
+    val user = entityGenerator.generateRandomUser();
+
+    val results = suggestUsers(user.getEmail());
+    assertTrue(results.size() >= 1);
+    assertEquals(user.getId().toString(), results.get(0).get("id").asText());
+    assertEquals(user.getEmail(), results.get(0).get("email").asText());
+
+    deleteUserDeleteRequestAnd(user.getId()).assertOk();
+    val remaining = stream(suggestUsers(user.getEmail()).iterator()).map(j -> j.get("id").asText());
+    assertTrue(remaining.noneMatch(user.getId().toString()::equals));
+  }
+
+  @SneakyThrows
+  private JsonNode suggestUsers(String query) {
+    val response = initStringRequest().endpoint("/users/suggest").queryParam("query", query).get();
+    assertEquals(OK, response.getStatusCode());
+    return MAPPER.readTree(response.getBody());
+  }
+
   @Test
   public void findUsers_FindAllQuery_Success() {
     // Generate data
@@ -794,6 +1015,36 @@ public class UserControllerTest extends AbstractControllerTest {
     addGroupsToUserPostRequestAnd(user0, newArrayList(group0, group1)).assertConflict();
   }
 
+  @Test
+  public void addGroupsToUser_UserWithOtherGroups_AllGroupsVisible() {
+    // Generate data
+    val data = generateUniqueTestUserData();
+    val user0 = data.getUsers().get(0);
+    val group0 = data.getGroups().get(0);
+    val group1 = data.getGroups().get(1);
+
+    // Add group0 to user, then group1 which the user is not in yet
+    addGroupsToUserPostRequestAnd(user0, newArrayList(group0)).assertOk();
+    addGroupsToUserPostRequestAnd(user0, newArrayList(group1)).assertOk();
+
+    // Assert both groups are listed for the user, and the user for each of them
+    getGroupsForUserGetRequestAnd(user0)
+        .assertPageResultsOfType(Group.class)
+        .containsExactlyInAnyOrderElementsOf(data.getGroups());
+    data.getGroups()
+        .forEach(
+            g ->
+                getUsersForGroupGetRequestAnd(g)
+                    .assertPageResultsOfType(User.class)
+                    .containsExactly(user0));
+
+    // Assert that re-adding a group is rejected and leaves the groups unchanged
+    addGroupsToUserPostRequestAnd(user0, newArrayList(group1)).assertConflict();
+    getGroupsForUserGetRequestAnd(user0)
+        .assertPageResultsOfType(Group.class)
+        .containsExactlyInAnyOrderElementsOf(data.getGroups());
+  }
+
   @Test
   public void removeGroupsFromUser_AllExistingAssociatedGroups_Success() {
     // Generate data
@@ -901,4 +1152,18 @@ public class UserControllerTest extends AbstractControllerTest {
     @NonNull List<Application> applications;
     @NonNull List<Policy> policies;
   }
+
+  @SneakyThrows
+  private JsonNode listUsers(long limit, String countMode) {
+    val response =
+        listUsersEndpointAnd().queryParam(LIMIT, limit).queryParam(COUNT, countMode).get();
+    assertEquals(OK, response.getStatusCode());
+    return MAPPER.readTree(response.getBody());
+  }
+
+  private static List<String> extractIds(JsonNode page) {
+    return stream(page.get("resultSet").iterator())
+        .map(j -> j.get("id").asText())
+        .collect(toImmutableList());
+  }
 }
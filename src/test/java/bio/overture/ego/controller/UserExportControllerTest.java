@@ -0,0 +1,92 @@
+package bio.overture.ego.controller;
+
+import static bio.overture.ego.model.enums.AccessLevel.DENY;
+import static bio.overture.ego.model.enums.AccessLevel.READ;
+import static bio.overture.ego.model.enums.AccessLevel.WRITE;
+import static bio.overture.ego.utils.Streams.stream;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.springframework.http.HttpStatus.OK;
+
+import bio.overture.ego.AuthorizationServiceMain;
+import bio.overture.ego.utils.EntityGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+@Slf4j
+@ActiveProfiles("test")
+@RunWith(SpringRunner.class)
+@SpringBootTest(
+    classes = AuthorizationServiceMain.class,
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class UserExportControllerTest extends AbstractControllerTest {
+
+  /** Dependencies */
+  @Autowired private EntityGenerator entityGenerator;
+
+  @Value("${logging.test.controller.enable}")
+  private boolean enableLogging;
+
+  @Override
+  protected boolean enableLogging() {
+    return enableLogging;
+  }
+
+  @Override
+  protected void beforeTest() {}
+
+  @Test
+  @SneakyThrows
+  public void exportUsers_SmallChunks_EveryUserOnceWithResolvedScopes() {
+    val user = entityGenerator.generateRandomUser();
+    val otherUser = entityGenerator.generateRandomUser();
+    val group = entityGenerator.setupGroup("UserExportGroup");
+    entityGenerator.addUsersToGroup(List.of(user), group);
+    val groupPolicy = entityGenerator.setupSinglePolicy("UserExportGroupPolicy");
+    val userPolicy = entityGenerator.setupSinglePolicy("UserExportUserPolicy");
+    entityGenerator.setupGroupPermission(group, groupPolicy, WRITE);
+    entityGenerator.setupGroupPermission(group, userPolicy, READ);
+    entityGenerator.addPermissionToUsers(List.of(user), userPolicy, DENY);
+
+    val response = initStringRequest().endpoint("/users/export").queryParam("chunkSize", 2).get();
+    assertEquals(OK, response.getStatusCode());
+
+    val exported = new HashMap<String, JsonNode>();
+    for (val line : response.getBody().split("\n")) {
+      if (!line.isBlank()) {
+        val json = MAPPER.readTree(line);
+        assertNull(exported.put(json.get("id").asText(), json));
+      }
+    }
+
+    val userJson = exported.get(user.getId().toString());
+    assertNotNull(userJson);
+    assertEquals(Set.of(group.getId().toString()), textValues(userJson.get("groups")));
+    assertEquals(
+        Set.of(groupPolicy.getName() + ".WRITE", userPolicy.getName() + ".DENY"),
+        textValues(userJson.get("scopes")));
+
+    val otherUserJson = exported.get(otherUser.getId().toString());
+    assertNotNull(otherUserJson);
+    assertEquals(0, otherUserJson.get("groups").size());
+    assertEquals(0, otherUserJson.get("scopes").size());
+  }
+
+  private static Set<String> textValues(JsonNode array) {
+    return stream(array.iterator()).map(JsonNode::asText).collect(toImmutableSet());
+  }
+}
@@ -0,0 +1,158 @@
+package bio.overture.ego.controller;
+
+import static bio.overture.ego.controller.UserImportController.TEXT_CSV_VALUE;
+import static bio.overture.ego.model.enums.ImportStatus.CREATED;
+import static bio.overture.ego.model.enums.ImportStatus.FAILED;
+import static bio.overture.ego.model.enums.ProviderType.GOOGLE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+
+import bio.overture.ego.AuthorizationServiceMain;
+import bio.overture.ego.model.enums.ProviderType;
+import bio.overture.ego.repository.UserRepository;
+import bio.overture.ego.repository.join.UserGroupRepository;
+import bio.overture.ego.utils.EntityGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+@Slf4j
+@ActiveProfiles("test")
+@RunWith(SpringRunner.class)
+@SpringBootTest(
+    classes = AuthorizationServiceMain.class,
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class UserImportControllerTest extends AbstractControllerTest {
+
+  /** Dependencies */
+  @Autowired private EntityGenerator entityGenerator;
+
+  @Autowired private UserRepository userRepository;
+  @Autowired private UserGroupRepository userGroupRepository;
+
+  @Value("${logging.test.controller.enable}")
+  private boolean enableLogging;
+
+  @Override
+  protected boolean enableLogging() {
+    return enableLogging;
+  }
+
+  @Override
+  protected void beforeTest() {}
+
+  @Test
+  @SneakyThrows
+  public void importUsers_NdjsonWithDuplicate_CreatedAndFailedPerRow() {
+    val group = entityGenerator.setupGroup("UserImportGroup");
+    val existing = entityGenerator.setupUser("Existing Importee");
+    val body =
+        String.join(
+            "\n",
+            userJson("importee1", "First"),
+            userJson("importee2", "Second"),
+            userJson("importee1", "Repeated"),
+            userJson(existing.getProviderType(), existing.getProviderSubjectId(), "Existing"));
+
+    val results = importUsers(APPLICATION_NDJSON, body, group.getId().toString());
+
+    assertEquals(4, results.size());
+    assertResult(results.get(0), 1, CREATED.toString());
+    assertResult(results.get(1), 2, CREATED.toString());
+    assertResult(results.get(2), 3, FAILED.toString());
+    assertResult(results.get(3), 4, FAILED.toString());
+
+    val createdIds =
+        ImmutableList.of(
+            UUID.fromString(results.get(0).get("id").asText()),
+            UUID.fromString(results.get(1).get("id").asText()));
+    assertEquals(2, userRepository.findAllById(createdIds).size());
+    assertEquals(Set.copyOf(createdIds), userGroupRepository.findUserIdsByGroupId(group.getId()));
+  }
+
+  @Test
+  @SneakyThrows
+  public void importUsers_CsvWithInvalidRow_InvalidRowFailed() {
+    val body =
+        String.join(
+            "\n",
+            "firstName,lastName,email,type,status,providerType,providerSubjectId",
+            "Csv,Importee,csv.importee@example.com,USER,APPROVED,GOOGLE,csvImportee1",
+            "Csv,Invalid,,USER,APPROVED,GOOGLE,");
+
+    val results = importUsers(MediaType.parseMediaType(TEXT_CSV_VALUE), body, null);
+
+    assertEquals(2, results.size());
+    assertResult(results.get(0), 1, CREATED.toString());
+    assertResult(results.get(1), 2, FAILED.toString());
+    assertFalse(results.get(1).get("error").asText().isBlank());
+  }
+
+  @Test
+  public void importUsers_NonExistentGroup_NotFound() {
+    val headers = new HttpHeaders();
+    headers.addAll(getHeaders());
+    headers.setContentType(APPLICATION_NDJSON);
+    initStringRequest(headers)
+        .endpoint("/users/import")
+        .queryParam("groupId", UUID.randomUUID().toString())
+        .body(userJson("importee3", "Third"))
+        .postAnd()
+        .assertNotFound();
+  }
+
+  @SneakyThrows
+  private List<JsonNode> importUsers(MediaType contentType, String body, String groupId) {
+    val headers = new HttpHeaders();
+    headers.addAll(getHeaders());
+    headers.setContentType(contentType);
+    val request = initStringRequest(headers).endpoint("/users/import").body(body);
+    if (groupId != null) {
+      request.queryParam("groupId", groupId);
+    }
+    val response = request.post();
+    assertEquals(OK, response.getStatusCode());
+
+    val results = ImmutableList.<JsonNode>builder();
+    for (val line : response.getBody().split("\n")) {
+      if (!line.isBlank()) {
+        results.add(MAPPER.readTree(line));
+      }
+    }
+    return results.build();
+  }
+
+  private static String userJson(String providerSubjectId, String firstName) {
+    return userJson(GOOGLE, providerSubjectId, firstName);
+  }
+
+  private static String userJson(
+      ProviderType providerType, String providerSubjectId, String firstName) {
+    return String.format(
+        "{\"firstName\":\"%s\",\"lastName\":\"Importee\",\"email\":\"%s@example.com\","
+            + "\"type\":\"USER\",\"status\":\"APPROVED\",\"providerType\":\"%s\","
+            + "\"providerSubjectId\":\"%s\"}",
+        firstName, providerSubjectId, providerType, providerSubjectId);
+  }
+
+  private static void assertResult(JsonNode result, long row, String status) {
+    assertEquals(row, result.get("row").asLong());
+    assertEquals(status, result.get("status").asText());
+  }
+}
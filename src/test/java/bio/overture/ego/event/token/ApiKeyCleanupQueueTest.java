@@ -0,0 +1,208 @@
+package bio.overture.ego.event.token;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.springframework.transaction.TransactionDefinition.PROPAGATION_REQUIRES_NEW;
+
+import bio.overture.ego.model.entity.ApiKey;
+import bio.overture.ego.model.entity.User;
+import bio.overture.ego.repository.ApiKeyCleanupRepository;
+import bio.overture.ego.service.ApiKeyStoreService;
+import bio.overture.ego.service.TokenService;
+import bio.overture.ego.utils.EntityGenerator;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Slf4j
+@SpringBootTest(
+    properties = {
+      // A single worker processes every due request of a batch as one slice
+      "apikey.cleanup.threads=1",
+      "apikey.cleanup.maxAttempts=3",
+      "apikey.cleanup.retryBackoffSeconds=30"
+    })
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+public class ApiKeyCleanupQueueTest {
+
+  @Autowired private ApiKeyCleanupQueue apiKeyCleanupQueue;
+  @Autowired private ApiKeyCleanupRepository apiKeyCleanupRepository;
+  @Autowired private TokenService tokenService;
+  @Autowired private EntityGenerator entityGenerator;
+  @Autowired private PlatformTransactionManager transactionManager;
+  @Autowired private JdbcTemplate jdbcTemplate;
+  @SpyBean private ApiKeyStoreService apiKeyStoreService;
+
+  @Before
+  @After
+  public void clearQueue() {
+    apiKeyCleanupRepository.deleteAll();
+  }
+
+  @Test
+  public void testQueuedRequestsCoalesceAndRevokeOnDrain() {
+    val user = entityGenerator.setupUser("ApiKeyCleanup QueueUser");
+    val policy = entityGenerator.setupSinglePolicy("ApiKeyCleanupQueuePolicy");
+    entityGenerator.addPermissions(user, entityGenerator.getScopes(policy.getName() + ".READ"));
+    val apiKey =
+        entityGenerator.setupApiKey(
+            user,
+            "ApiKeyCleanupQueueKey",
+            false,
+            1000,
+            "over-scoped key",
+            entityGenerator.getScopes(policy.getName() + ".WRITE"));
+    val validApiKey =
+        entityGenerator.setupApiKey(
+            user,
+            "ApiKeyCleanupQueueValidKey",
+            false,
+            1000,
+            "key within scope",
+            entityGenerator.getScopes(policy.getName() + ".READ"));
+
+    val transactionTemplate = new TransactionTemplate(transactionManager);
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          apiKeyCleanupRepository.enqueue(List.of(user.getId()));
+          apiKeyCleanupRepository.enqueue(List.of(user.getId()));
+        });
+
+    // Duplicate requests for the same user coalesce into a single row
+    val pending = apiKeyCleanupRepository.findById(user.getId());
+    assertTrue(pending.isPresent());
+    assertEquals(2L, pending.get().getRequestCount());
+    assertFalse(tokenService.getById(apiKey.getId()).isRevoked());
+
+    assertEquals(1, apiKeyCleanupQueue.drain());
+
+    assertTrue(tokenService.getById(apiKey.getId()).isRevoked());
+    assertFalse(tokenService.getById(validApiKey.getId()).isRevoked());
+    assertFalse(apiKeyCleanupRepository.findById(user.getId()).isPresent());
+  }
+
+  @Test
+  public void drain_FailingUser_RetriedWithBackoff() {
+    val user = entityGenerator.setupUser("ApiKeyCleanup RetryUser");
+    failFor(user);
+    enqueue(user);
+
+    assertEquals(1, apiKeyCleanupQueue.drain());
+
+    val pending = apiKeyCleanupRepository.findById(user.getId()).get();
+    assertEquals(1, pending.getAttempts());
+    assertTrue(pending.getNextAttemptAt().toInstant().isAfter(Instant.now().plusSeconds(15)));
+
+    // The request is not due again before its backoff runs out
+    assertEquals(0, apiKeyCleanupQueue.drain());
+  }
+
+  @Test
+  public void drain_FailingUser_GivenUpAtMaxAttempts() {
+    val user = entityGenerator.setupUser("ApiKeyCleanup GiveUpUser");
+    failFor(user);
+    enqueue(user);
+
+    for (int attempt = 1; attempt < 3; attempt++) {
+      makeDue();
+      assertEquals(1, apiKeyCleanupQueue.drain());
+      assertEquals(attempt, apiKeyCleanupRepository.findById(user.getId()).get().getAttempts());
+    }
+
+    makeDue();
+    assertEquals(1, apiKeyCleanupQueue.drain());
+    assertFalse(apiKeyCleanupRepository.findById(user.getId()).isPresent());
+  }
+
+  @Test
+  public void drain_OneFailingUserInSlice_OthersCompletedWithoutAttempts() {
+    val failingUser = entityGenerator.setupUser("ApiKeyCleanup SliceFailingUser");
+    val user = entityGenerator.setupUser("ApiKeyCleanup SliceUser");
+    val apiKey = setupOverScopedApiKey(user, "ApiKeyCleanupSliceKey");
+    failFor(failingUser);
+    enqueue(failingUser, user);
+
+    assertEquals(2, apiKeyCleanupQueue.drain());
+
+    assertTrue(tokenService.getById(apiKey.getId()).isRevoked());
+    assertFalse(apiKeyCleanupRepository.findById(user.getId()).isPresent());
+    assertEquals(1, apiKeyCleanupRepository.findById(failingUser.getId()).get().getAttempts());
+  }
+
+  @Test
+  public void drain_ReenqueuedDuringProcessing_ProcessedAgainWithoutCarriedAttempts() {
+    val user = entityGenerator.setupUser("ApiKeyCleanup ReenqueuedUser");
+    val requiresNew = new TransactionTemplate(transactionManager);
+    requiresNew.setPropagationBehavior(PROPAGATION_REQUIRES_NEW);
+
+    // The first pass succeeds while a new request arrives, the second one fails
+    doAnswer(
+            invocation -> {
+              requiresNew.executeWithoutResult(
+                  status -> apiKeyCleanupRepository.enqueue(List.of(user.getId())));
+              return invocation.callRealMethod();
+            })
+        .doThrow(new IllegalStateException("Second pass fails"))
+        .when(apiKeyStoreService)
+        .revokeOverScopedApiKeys(containing(user.getId()));
+    enqueue(user);
+
+    assertEquals(2, apiKeyCleanupQueue.drain());
+
+    // Only the failed pass is counted, not the successful pass it was requested again during
+    val pending = apiKeyCleanupRepository.findById(user.getId()).get();
+    assertEquals(2L, pending.getRequestCount());
+    assertEquals(1, pending.getAttempts());
+  }
+
+  private ApiKey setupOverScopedApiKey(User user, String name) {
+    val policy = entityGenerator.setupSinglePolicy("ApiKeyCleanupQueuePolicy");
+    return entityGenerator.setupApiKey(
+        user,
+        name,
+        false,
+        1000,
+        "over-scoped key",
+        entityGenerator.getScopes(policy.getName() + ".WRITE"));
+  }
+
+  private void failFor(User user) {
+    doThrow(new IllegalStateException("Cleanup failure"))
+        .when(apiKeyStoreService)
+        .revokeOverScopedApiKeys(containing(user.getId()));
+  }
+
+  private void enqueue(User... users) {
+    val userIds = List.of(users).stream().map(User::getId).toArray(UUID[]::new);
+    new TransactionTemplate(transactionManager)
+        .executeWithoutResult(status -> apiKeyCleanupRepository.enqueue(List.of(userIds)));
+  }
+
+  private void makeDue() {
+    jdbcTemplate.update("UPDATE apikeycleanup SET nextattemptat = now()");
+  }
+
+  private static Collection<UUID> containing(UUID userId) {
+    return argThat(ids -> ids != null && ids.contains(userId));
+  }
+}
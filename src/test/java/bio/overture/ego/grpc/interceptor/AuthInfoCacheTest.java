@@ -0,0 +1,62 @@
+package bio.overture.ego.grpc.interceptor;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import bio.overture.ego.event.auth.PrincipalChangedEvent;
+import bio.overture.ego.grpc.interceptor.ApplicationAuthInterceptor.AuthInfo;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.junit.Test;
+
+@Slf4j
+public class AuthInfoCacheTest {
+
+  @Test
+  public void put_InvalidatedAfterLoad_NotCached() {
+    val cache = new AuthInfoCache();
+    val id = UUID.randomUUID();
+    val generation = cache.generation();
+
+    // The user is updated while its AuthInfo is being loaded
+    cache.invalidate(id);
+    cache.put("token", new AuthInfo(true, false, false, id), inOneHour(), generation);
+
+    assertFalse(cache.get("token").isPresent());
+  }
+
+  @Test
+  public void put_NoInvalidation_CachedUntilInvalidated() {
+    val cache = new AuthInfoCache();
+    val id = UUID.randomUUID();
+    cache.put("token", new AuthInfo(true, false, false, id), inOneHour(), cache.generation());
+    assertTrue(cache.get("token").isPresent());
+
+    cache.invalidate(id);
+    assertFalse(cache.get("token").isPresent());
+  }
+
+  @Test
+  public void invalidate_OtherId_OnlyItsTokensEvicted() {
+    val cache = new AuthInfoCache();
+    val id = UUID.randomUUID();
+    val otherId = UUID.randomUUID();
+    val generation = cache.generation();
+    cache.put("token1", new AuthInfo(true, false, false, id), inOneHour(), generation);
+    cache.put("token2", new AuthInfo(true, false, false, id), inOneHour(), generation);
+    cache.put("other", new AuthInfo(false, true, false, otherId), inOneHour(), generation);
+
+    cache.onApplicationEvent(new PrincipalChangedEvent(this, id));
+
+    assertFalse(cache.get("token1").isPresent());
+    assertFalse(cache.get("token2").isPresent());
+    assertTrue(cache.get("other").isPresent());
+  }
+
+  private static Instant inOneHour() {
+    return Instant.now().plus(Duration.ofHours(1));
+  }
+}
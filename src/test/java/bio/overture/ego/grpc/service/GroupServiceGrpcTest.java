@@ -0,0 +1,83 @@
+package bio.overture.ego.grpc.service;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import bio.overture.ego.grpc.BatchGetGroupsRequest;
+import bio.overture.ego.grpc.GroupServiceGrpc;
+import bio.overture.ego.utils.EntityGenerator;
+import io.grpc.Channel;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.testing.GrpcCleanupRule;
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+@Slf4j
+@ActiveProfiles("test")
+@SpringBootTest
+@RunWith(SpringRunner.class)
+public class GroupServiceGrpcTest {
+
+  private GroupServiceGrpc.GroupServiceBlockingStub stub;
+
+  @Autowired private EntityGenerator entityGenerator;
+  @Autowired GroupServiceGrpcImpl groupServiceGrpc;
+
+  @Rule public final GrpcCleanupRule grpcCleanup = new GrpcCleanupRule();
+
+  @Before
+  public void before() throws IOException {
+    val serverName = InProcessServerBuilder.generateName();
+    Channel channel =
+        grpcCleanup.register(InProcessChannelBuilder.forName(serverName).directExecutor().build());
+    grpcCleanup.register(
+        InProcessServerBuilder.forName(serverName)
+            .directExecutor()
+            .addService(groupServiceGrpc)
+            .build()
+            .start());
+    stub = GroupServiceGrpc.newBlockingStub(channel);
+  }
+
+  @Test
+  public void batchGetGroups_RequestedOrder_UnknownIdsLeftOut() {
+    val groups = entityGenerator.setupGroups("GrpcBatchGroupA", "GrpcBatchGroupB");
+    val request =
+        BatchGetGroupsRequest.newBuilder()
+            .addIds(groups.get(1).getId().toString())
+            .addIds(UUID.randomUUID().toString())
+            .addIds(groups.get(0).getId().toString())
+            .build();
+
+    val reply = stub.batchGetGroups(request);
+
+    val names = reply.getGroupsList().stream().map(g -> g.getName().getValue()).collect(toList());
+    assertEquals(List.of("GrpcBatchGroupB", "GrpcBatchGroupA"), names);
+    assertEquals(groups.get(1).getId().toString(), reply.getGroups(0).getId().getValue());
+  }
+
+  @Test
+  public void batchGetGroups_InvalidId_InvalidArgument() {
+    try {
+      stub.batchGetGroups(BatchGetGroupsRequest.newBuilder().addIds("not-a-uuid").build());
+      fail("Request with an invalid ID should be rejected");
+    } catch (StatusRuntimeException e) {
+      assertEquals(Status.Code.INVALID_ARGUMENT, e.getStatus().getCode());
+    }
+  }
+}
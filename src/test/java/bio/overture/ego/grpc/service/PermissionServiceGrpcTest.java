@@ -0,0 +1,90 @@
+package bio.overture.ego.grpc.service;
+
+import static bio.overture.ego.model.enums.AccessLevel.DENY;
+import static bio.overture.ego.model.enums.AccessLevel.READ;
+import static bio.overture.ego.model.enums.AccessLevel.WRITE;
+import static org.junit.Assert.assertEquals;
+
+import bio.overture.ego.grpc.GetEffectiveScopesRequest;
+import bio.overture.ego.grpc.PermissionServiceGrpc;
+import bio.overture.ego.service.TokenService;
+import bio.overture.ego.utils.EntityGenerator;
+import io.grpc.Channel;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.testing.GrpcCleanupRule;
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+@Slf4j
+@ActiveProfiles("test")
+@SpringBootTest
+@RunWith(SpringRunner.class)
+public class PermissionServiceGrpcTest {
+
+  private PermissionServiceGrpc.PermissionServiceBlockingStub stub;
+
+  @Autowired private EntityGenerator entityGenerator;
+  @Autowired private TokenService tokenService;
+  @Autowired PermissionServiceGrpcImpl permissionServiceGrpc;
+
+  @Rule public final GrpcCleanupRule grpcCleanup = new GrpcCleanupRule();
+
+  @Before
+  public void before() throws IOException {
+    val serverName = InProcessServerBuilder.generateName();
+    Channel channel =
+        grpcCleanup.register(InProcessChannelBuilder.forName(serverName).directExecutor().build());
+    grpcCleanup.register(
+        InProcessServerBuilder.forName(serverName)
+            .directExecutor()
+            .addService(permissionServiceGrpc)
+            .build()
+            .start());
+    stub = PermissionServiceGrpc.newBlockingStub(channel);
+  }
+
+  @Test
+  public void getEffectiveScopes_UserAndGroupPermissions_ResolvedPerUser() {
+    val user = entityGenerator.generateRandomUser();
+    val otherUser = entityGenerator.generateRandomUser();
+    val group = entityGenerator.setupGroup("GrpcScopesGroup");
+    entityGenerator.addUsersToGroup(List.of(user), group);
+    val groupPolicy = entityGenerator.setupSinglePolicy("GrpcScopesGroupPolicy");
+    val userPolicy = entityGenerator.setupSinglePolicy("GrpcScopesUserPolicy");
+    entityGenerator.setupGroupPermission(group, groupPolicy, WRITE);
+    entityGenerator.setupGroupPermission(group, userPolicy, READ);
+    entityGenerator.addPermissionToUsers(List.of(user), userPolicy, DENY);
+
+    val request =
+        GetEffectiveScopesRequest.newBuilder()
+            .addUserIds(otherUser.getId().toString())
+            .addUserIds(user.getId().toString())
+            .build();
+    val reply = stub.getEffectiveScopes(request);
+
+    assertEquals(2, reply.getUsersCount());
+    assertEquals(otherUser.getId().toString(), reply.getUsers(0).getUserId());
+    assertEquals(0, reply.getUsers(0).getScopesCount());
+
+    // The user's own permission overrides the one of its group on the same policy
+    val userScopes = reply.getUsers(1);
+    assertEquals(user.getId().toString(), userScopes.getUserId());
+    assertEquals(
+        Set.of(groupPolicy.getName() + ".WRITE", userPolicy.getName() + ".DENY"),
+        Set.copyOf(userScopes.getScopesList()));
+    assertEquals(
+        tokenService.userPermissionVersion(user.getId()), userScopes.getPermissionVersion());
+  }
+}
@@ -11,6 +11,7 @@ import bio.overture.ego.grpc.UserServiceGrpc;
 import bio.overture.ego.grpc.interceptor.AuthInterceptor;
 import bio.overture.ego.model.dto.CreateApplicationRequest;
 import bio.overture.ego.model.dto.CreateUserRequest;
+import bio.overture.ego.model.dto.UpdateUserRequest;
 import bio.overture.ego.model.entity.Application;
 import bio.overture.ego.model.entity.User;
 import bio.overture.ego.model.enums.ApplicationType;
@@ -22,6 +23,7 @@ import bio.overture.ego.service.UserService;
 import io.grpc.Channel;
 import io.grpc.Metadata;
 import io.grpc.ServerInterceptors;
+import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
 import io.grpc.inprocess.InProcessChannelBuilder;
 import io.grpc.inprocess.InProcessServerBuilder;
@@ -248,4 +250,37 @@ public class UserServiceGrpcAuthTest {
     val reply = authStub.listUsers(ListUsersRequest.newBuilder().build());
     assertTrue(reply.getUsersCount() >= 2);
   }
+
+  @Test
+  public void getUser_userDisabledAfterCachedAuth_rejected() {
+    val user =
+        userService.create(
+            CreateUserRequest.builder()
+                .status(StatusType.APPROVED)
+                .email("cachedAuthUserGrpc@example.com")
+                .lastName("")
+                .firstName("")
+                .type(UserType.USER)
+                .providerType(GOOGLE)
+                .providerSubjectId(UUID.randomUUID().toString())
+                .build());
+    val meta = new Metadata();
+    meta.put(JWT_KEY, tokenService.generateUserToken(user));
+    val authStub = MetadataUtils.attachHeaders(stub, meta);
+    val request = GetUserRequest.newBuilder().setId(user.getId().toString()).build();
+
+    // Repeated calls with the same token are served from the cached auth info
+    assertEquals(user.getId().toString(), authStub.getUser(request).getId().getValue());
+    assertEquals(user.getId().toString(), authStub.getUser(request).getId().getValue());
+
+    // Disabling the user evicts it, so the next call sees the new status
+    userService.partialUpdate(
+        user.getId(), UpdateUserRequest.builder().status(StatusType.DISABLED).build());
+    try {
+      authStub.getUser(request);
+      fail("Request of a disabled user should be rejected");
+    } catch (StatusRuntimeException e) {
+      assertEquals(Status.Code.UNAUTHENTICATED, e.getStatus().getCode());
+    }
+  }
 }
@@ -4,9 +4,11 @@ import static bio.overture.ego.utils.CollectionUtils.repeatedCallsOf;
 import static java.util.stream.Collectors.toList;
 import static org.junit.Assert.*;
 
+import bio.overture.ego.grpc.BatchGetUsersRequest;
 import bio.overture.ego.grpc.GetUserRequest;
 import bio.overture.ego.grpc.ListUsersRequest;
 import bio.overture.ego.grpc.PagedRequest;
+import bio.overture.ego.grpc.StreamUsersRequest;
 import bio.overture.ego.grpc.UserServiceGrpc;
 import bio.overture.ego.model.entity.Application;
 import bio.overture.ego.model.entity.Group;
@@ -19,7 +21,13 @@ import io.grpc.inprocess.InProcessChannelBuilder;
 import io.grpc.inprocess.InProcessServerBuilder;
 import io.grpc.testing.GrpcCleanupRule;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.junit.Before;
@@ -28,6 +36,8 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 
@@ -217,4 +227,104 @@ public class UserServiceGrpcTest {
     assertEquals(reply.getUsersCount(), 0);
     assertFalse(reply.getPage().hasNextPage());
   }
+
+  @Test
+  public void listUser_groupSortedByEmail_PageOrderAndRelationshipsKept() {
+    val pagedRequest = PagedRequest.newBuilder().setPageSize(10).setOrderBy("email desc");
+    val request =
+        ListUsersRequest.newBuilder()
+            .setPage(pagedRequest)
+            .addGroupIds(groupWithUsers.getId().toString())
+            .build();
+
+    val reply = stub.listUsers(request);
+
+    // Users come back in the order of the database page
+    val expectedIds =
+        userService
+            .findUsersForGroups(
+                Set.of(groupWithUsers.getId()),
+                "",
+                List.of(),
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "email")))
+            .map(user -> user.getId().toString())
+            .getContent();
+    assertEquals(usersWithGroup.size(), expectedIds.size());
+    val actualIds =
+        reply.getUsersList().stream().map(user -> user.getId().getValue()).collect(toList());
+    assertEquals(expectedIds, actualIds);
+
+    // Each user has the same relationships as GetUser returns
+    reply
+        .getUsersList()
+        .forEach(
+            actual -> {
+              val expected =
+                  stub.getUser(
+                      GetUserRequest.newBuilder().setId(actual.getId().getValue()).build());
+              assertEquals(
+                  Set.copyOf(actual.getGroupsList()), Set.copyOf(expected.getGroupsList()));
+              assertEquals(
+                  Set.copyOf(actual.getApplicationsList()),
+                  Set.copyOf(expected.getApplicationsList()));
+              assertEquals(
+                  Set.copyOf(actual.getScopesList()), Set.copyOf(expected.getScopesList()));
+            });
+  }
+
+  @Test
+  public void streamUsers_SmallPages_MatchGetUser() {
+    val request = StreamUsersRequest.newBuilder().setPageSize(2).build();
+
+    val streamed = new HashMap<String, bio.overture.ego.grpc.User>();
+    stub.streamUsers(request).forEachRemaining(user -> streamed.put(user.getId().getValue(), user));
+
+    // Every test user is streamed with the same relationships as GetUser returns
+    testUsers.forEach(
+        testUser -> {
+          val id = testUser.getId().toString();
+          val expected = stub.getUser(GetUserRequest.newBuilder().setId(id).build());
+          val actual = streamed.get(id);
+          assertNotNull(actual);
+          assertEquals(Set.copyOf(actual.getGroupsList()), Set.copyOf(expected.getGroupsList()));
+          assertEquals(
+              Set.copyOf(actual.getApplicationsList()),
+              Set.copyOf(expected.getApplicationsList()));
+          assertEquals(Set.copyOf(actual.getScopesList()), Set.copyOf(expected.getScopesList()));
+          assertEquals(actual.getPermissionVersion(), expected.getPermissionVersion());
+        });
+  }
+
+  @Test
+  public void streamUsers_GroupFilter_OnlyGroupMembersOnce() {
+    val request =
+        StreamUsersRequest.newBuilder()
+            .setPageSize(3)
+            .addGroupIds(groupWithUsers.getId().toString())
+            .build();
+
+    val streamedIds = new ArrayList<String>();
+    stub.streamUsers(request).forEachRemaining(user -> streamedIds.add(user.getId().getValue()));
+
+    val expectedIds =
+        usersWithGroup.stream().map(user -> user.getId().toString()).collect(toList());
+    assertEquals(expectedIds.size(), streamedIds.size());
+    assertEquals(Set.copyOf(expectedIds), Set.copyOf(streamedIds));
+  }
+
+  @Test
+  public void batchGetUsers_RequestedOrder_UnknownIdsLeftOut() {
+    val ids = usersWithGroup.stream().map(user -> user.getId().toString()).collect(toList());
+    Collections.reverse(ids);
+    val requestedIds = new ArrayList<>(ids);
+    requestedIds.add(1, UUID.randomUUID().toString());
+
+    val reply =
+        stub.batchGetUsers(BatchGetUsersRequest.newBuilder().addAllIds(requestedIds).build());
+
+    val actualIds =
+        reply.getUsersList().stream().map(user -> user.getId().getValue()).collect(toList());
+    assertEquals(ids, actualIds);
+    reply.getUsersList().forEach(user -> assertEquals(1, user.getGroupsCount()));
+  }
 }
@@ -0,0 +1,41 @@
+package bio.overture.ego.security;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import lombok.val;
+import org.junit.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+public class MatchCachingPasswordEncoderTest {
+
+  @Test
+  public void testRepeatedMatchSkipsDelegate() {
+    val delegate = spy(new BCryptPasswordEncoder());
+    val encoder = new MatchCachingPasswordEncoder(delegate);
+    val encoded = encoder.encode("secret");
+
+    assertTrue(encoder.matches("secret", encoded));
+    assertTrue(encoder.matches("secret", encoded));
+    assertTrue(encoder.matches("secret", encoded));
+    verify(delegate, times(1)).matches("secret", encoded);
+  }
+
+  @Test
+  public void testWrongSecretIsRejected() {
+    val encoder = new MatchCachingPasswordEncoder(new BCryptPasswordEncoder());
+    val encoded = encoder.encode("secret");
+
+    // Rejected before any successful match is cached
+    assertFalse(encoder.matches("wrong", encoded));
+
+    assertTrue(encoder.matches("secret", encoded));
+
+    // Rejected against the cached digest
+    assertFalse(encoder.matches("wrong", encoded));
+    assertTrue(encoder.matches("secret", encoded));
+  }
+}
@@ -5,6 +5,7 @@ import static org.mockito.Mockito.*;
 
 import bio.overture.ego.model.entity.Application;
 import bio.overture.ego.service.ApplicationService;
+import bio.overture.ego.service.ClientCredentialsCache.ClientCredentials;
 import bio.overture.ego.service.TokenService;
 import io.jsonwebtoken.Claims;
 import java.util.*;
@@ -31,7 +32,8 @@ public class SecurityTest {
     val app = new Application();
     app.setClientId("id");
     app.setClientSecret("secret");
-    when(applicationService.getClientApplication("id")).thenReturn(Optional.of(app));
+    when(applicationService.getClientCredentials("id"))
+        .thenReturn(Optional.of(ClientCredentials.from(app)));
 
     val authorizationFilter = new JWTAuthorizationFilter(new String[0]);
     ReflectionTestUtils.setField(authorizationFilter, "applicationService", applicationService);
@@ -47,7 +49,8 @@ public class SecurityTest {
     val app = new Application();
     app.setClientId("id");
     app.setClientSecret("secret");
-    when(applicationService.getClientApplication("id")).thenReturn(Optional.of(app));
+    when(applicationService.getClientCredentials("id"))
+        .thenReturn(Optional.of(ClientCredentials.from(app)));
 
     val authorizationFilter = getAuthorizationFilter(applicationService, tokenService);
     ReflectionTestUtils.setField(authorizationFilter, "applicationService", applicationService);
@@ -61,12 +64,13 @@ public class SecurityTest {
     val app2 = new Application();
     app2.setClientId("id");
     app2.setClientSecret("wrong");
-    when(applicationService.getClientApplication("id")).thenReturn(Optional.of(app2));
+    when(applicationService.getClientCredentials("id"))
+        .thenReturn(Optional.of(ClientCredentials.from(app2)));
     authorizationFilter.authenticateApplication(token);
     val result2 = SecurityContextHolder.getContext().getAuthentication();
     assertNull("wrong password", result2);
 
-    when(applicationService.getClientApplication("id")).thenReturn(Optional.empty());
+    when(applicationService.getClientCredentials("id")).thenReturn(Optional.empty());
 
     app.setClientSecret("secret");
     authorizationFilter.authenticateApplication(token);
@@ -0,0 +1,150 @@
+package bio.overture.ego.service;
+
+import static bio.overture.ego.model.enums.AccessLevel.READ;
+import static bio.overture.ego.model.enums.AccessLevel.WRITE;
+import static bio.overture.ego.model.enums.UserType.USER;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import bio.overture.ego.model.dto.PermissionRequest;
+import bio.overture.ego.repository.ApplicationPermissionRepository;
+import bio.overture.ego.repository.GroupPermissionRepository;
+import bio.overture.ego.repository.UserPermissionRepository;
+import bio.overture.ego.repository.join.GroupApplicationRepository;
+import bio.overture.ego.repository.join.UserApplicationRepository;
+import bio.overture.ego.repository.join.UserGroupRepository;
+import bio.overture.ego.utils.EntityGenerator;
+import java.util.List;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/**
+ * Deletes owners of memberships and permissions, whose rows are removed with bulk statements that
+ * bypass the entity cascades
+ */
+@Slf4j
+@SpringBootTest
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+public class DeleteWithRelationshipsTest {
+
+  @Autowired private EntityGenerator entityGenerator;
+  @Autowired private UserService userService;
+  @Autowired private GroupService groupService;
+  @Autowired private ApplicationService applicationService;
+  @Autowired private ApplicationPermissionService applicationPermissionService;
+  @Autowired private TokenService tokenService;
+  @Autowired private UserGroupRepository userGroupRepository;
+  @Autowired private UserApplicationRepository userApplicationRepository;
+  @Autowired private GroupApplicationRepository groupApplicationRepository;
+  @Autowired private UserPermissionRepository userPermissionRepository;
+  @Autowired private GroupPermissionRepository groupPermissionRepository;
+  @Autowired private ApplicationPermissionRepository applicationPermissionRepository;
+
+  @Test
+  public void deleteUser_MembershipsPermissionsAndApiKey_AllRemoved() {
+    val user = entityGenerator.setupUser("DeleteRelationships User", USER);
+    val group = entityGenerator.generateRandomGroup();
+    val application = entityGenerator.generateRandomApplication();
+    val policy = entityGenerator.setupSinglePolicy("DeleteRelationshipsUserPolicy");
+    entityGenerator.addUsersToGroup(List.of(user), group);
+    entityGenerator.addUsersToApplication(List.of(user), application);
+    entityGenerator.addPermissionToUsers(List.of(user), policy, READ);
+    val apiKey =
+        entityGenerator.setupApiKey(
+            user,
+            "DeleteRelationshipsUserKey",
+            false,
+            1000,
+            "key of a deleted user",
+            entityGenerator.getScopes(policy.getName() + ".READ"));
+
+    val userIds = Set.of(user.getId());
+    assertEquals(1, userGroupRepository.findAllByUserIdIn(userIds).size());
+    assertEquals(1, userApplicationRepository.findAllByUserIdIn(userIds).size());
+    assertEquals(1, userPermissionRepository.findAllByOwner_Id(user.getId()).size());
+
+    userService.delete(user.getId());
+
+    assertFalse(userService.findById(user.getId()).isPresent());
+    assertTrue(userGroupRepository.findAllByUserIdIn(userIds).isEmpty());
+    assertTrue(userApplicationRepository.findAllByUserIdIn(userIds).isEmpty());
+    assertTrue(userPermissionRepository.findAllByOwner_Id(user.getId()).isEmpty());
+    assertFalse(tokenService.findById(apiKey.getId()).isPresent());
+
+    // Only the relationships are removed, not the other side of them
+    assertTrue(groupService.findById(group.getId()).isPresent());
+    assertTrue(applicationService.findById(application.getId()).isPresent());
+  }
+
+  @Test
+  public void deleteGroup_MembershipsAndPermissions_RemovedAndMemberApiKeysRevoked() {
+    val member = entityGenerator.setupUser("DeleteRelationships Member", USER);
+    val group = entityGenerator.generateRandomGroup();
+    val application = entityGenerator.generateRandomApplication();
+    val policy = entityGenerator.setupSinglePolicy("DeleteRelationshipsGroupPolicy");
+    entityGenerator.addUsersToGroup(List.of(member), group);
+    groupService.associateApplicationsWithGroup(group.getId(), List.of(application.getId()));
+    entityGenerator.setupGroupPermission(group, policy, WRITE);
+    val apiKey =
+        entityGenerator.setupApiKey(
+            member,
+            "DeleteRelationshipsMemberKey",
+            false,
+            1000,
+            "key relying on the group permission",
+            entityGenerator.getScopes(policy.getName() + ".WRITE"));
+
+    assertEquals(Set.of(member.getId()), userGroupRepository.findUserIdsByGroupId(group.getId()));
+    assertEquals(
+        Set.of(application.getId()),
+        groupApplicationRepository.findApplicationIdsByGroupId(group.getId()));
+    assertEquals(1, groupPermissionRepository.findAllByOwner_Id(group.getId()).size());
+
+    groupService.delete(group.getId());
+
+    assertFalse(groupService.findById(group.getId()).isPresent());
+    assertTrue(userGroupRepository.findUserIdsByGroupId(group.getId()).isEmpty());
+    assertTrue(groupApplicationRepository.findApplicationIdsByGroupId(group.getId()).isEmpty());
+    assertTrue(groupPermissionRepository.findAllByOwner_Id(group.getId()).isEmpty());
+
+    // The member lost the scope its api key was issued with
+    assertTrue(tokenService.getById(apiKey.getId()).isRevoked());
+    assertTrue(userService.findById(member.getId()).isPresent());
+    assertTrue(applicationService.findById(application.getId()).isPresent());
+  }
+
+  @Test
+  public void deleteApplication_MembershipsAndPermissions_AllRemoved() {
+    val user = entityGenerator.setupUser("DeleteRelationships AppUser", USER);
+    val group = entityGenerator.generateRandomGroup();
+    val application = entityGenerator.generateRandomApplication();
+    val policy = entityGenerator.setupSinglePolicy("DeleteRelationshipsAppPolicy");
+    entityGenerator.addUsersToApplication(List.of(user), application);
+    groupService.associateApplicationsWithGroup(group.getId(), List.of(application.getId()));
+    applicationPermissionService.addPermissions(
+        application.getId(),
+        List.of(PermissionRequest.builder().policyId(policy.getId()).mask(READ).build()));
+
+    val userIds = Set.of(user.getId());
+    assertEquals(1, userApplicationRepository.findAllByUserIdIn(userIds).size());
+    assertEquals(1, applicationPermissionRepository.findAllByOwner_Id(application.getId()).size());
+
+    applicationService.delete(application.getId());
+
+    assertFalse(applicationService.findById(application.getId()).isPresent());
+    assertTrue(userApplicationRepository.findAllByUserIdIn(userIds).isEmpty());
+    assertTrue(groupApplicationRepository.findApplicationIdsByGroupId(group.getId()).isEmpty());
+    assertTrue(applicationPermissionRepository.findAllByOwner_Id(application.getId()).isEmpty());
+    assertTrue(userService.findById(user.getId()).isPresent());
+    assertTrue(groupService.findById(group.getId()).isPresent());
+  }
+}
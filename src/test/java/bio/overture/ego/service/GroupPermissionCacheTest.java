@@ -0,0 +1,43 @@
+package bio.overture.ego.service;
+
+import static bio.overture.ego.model.enums.AccessLevel.WRITE;
+import static org.junit.Assert.assertEquals;
+
+import bio.overture.ego.utils.EntityGenerator;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+@Slf4j
+@SpringBootTest
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+public class GroupPermissionCacheTest {
+
+  @Autowired private EntityGenerator entityGenerator;
+  @Autowired private GroupPermissionCache groupPermissionCache;
+
+  @Test
+  public void getPermissions_DetachedCopies_KeepOwnerIdAndPolicy() {
+    val group = entityGenerator.generateRandomGroup();
+    val policy = entityGenerator.setupSinglePolicy("GroupPermissionCachePolicy");
+    entityGenerator.setupGroupPermission(group, policy, WRITE);
+
+    val permissions = groupPermissionCache.getPermissions(group);
+
+    assertEquals(1, permissions.size());
+    val permission = permissions.iterator().next();
+    assertEquals(group.getId(), permission.getOwner().getId());
+    assertEquals(policy.getId(), permission.getPolicy().getId());
+    assertEquals(policy.getName(), permission.getPolicy().getName());
+    assertEquals(WRITE, permission.getAccessLevel());
+
+    // Served from the cache on the next read
+    assertEquals(permissions, groupPermissionCache.getPermissions(group));
+  }
+}
@@ -0,0 +1,55 @@
+package bio.overture.ego.service;
+
+import static bio.overture.ego.model.enums.ApplicationType.CLIENT;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import bio.overture.ego.model.dto.UpdateApplicationRequest;
+import bio.overture.ego.utils.EntityGenerator;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+@Slf4j
+@SpringBootTest
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+public class RegisteredClientCacheTest {
+
+  @Autowired private EntityGenerator entityGenerator;
+  @Autowired private ApplicationService applicationService;
+  @Autowired private PasswordEncoder passwordEncoder;
+
+  @Test
+  public void findByClientId_SecretChanged_CachedMatchNotServed() {
+    val application =
+        entityGenerator.setupApplication("RegisteredClientCacheApp", "oldSecret", CLIENT);
+
+    // Verified twice, the second time from the match cache
+    val client = applicationService.findByClientId(application.getClientId());
+    assertTrue(passwordEncoder.matches("oldSecret", client.getClientSecret()));
+    assertTrue(passwordEncoder.matches("oldSecret", client.getClientSecret()));
+
+    applicationService.partialUpdate(
+        application.getId(), UpdateApplicationRequest.builder().clientSecret("newSecret").build());
+
+    val updated = applicationService.findByClientId(application.getClientId());
+    assertFalse(passwordEncoder.matches("oldSecret", updated.getClientSecret()));
+    assertTrue(passwordEncoder.matches("newSecret", updated.getClientSecret()));
+  }
+
+  @Test
+  public void passwordEncoder_UntaggedHash_PlainBCrypt() {
+    val encoded = new BCryptPasswordEncoder().encode("secret");
+
+    assertTrue(passwordEncoder.matches("secret", encoded));
+    assertFalse(passwordEncoder.matches("wrong", encoded));
+  }
+}
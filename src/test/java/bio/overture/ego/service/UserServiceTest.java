@@ -1,12 +1,18 @@
 package bio.overture.ego.service;
 
+import static bio.overture.ego.model.enums.AccessLevel.DENY;
+import static bio.overture.ego.model.enums.AccessLevel.READ;
 import static bio.overture.ego.model.enums.AccessLevel.WRITE;
+import static bio.overture.ego.utils.CollectionUtils.mapToSet;
 import static bio.overture.ego.utils.CollectionUtils.repeatedCallsOf;
 import static java.util.stream.Collectors.toList;
 
+import bio.overture.ego.model.dto.Scope;
 import bio.overture.ego.model.entity.User;
 import bio.overture.ego.model.enums.UserType;
 import bio.overture.ego.utils.EntityGenerator;
+import java.util.List;
+import java.util.Set;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.junit.Assert;
@@ -96,4 +102,33 @@ public class UserServiceTest {
     Assert.assertEquals(userWithRefreshToken.getRefreshToken(), refreshToken1);
     Assert.assertEquals(userWithRefreshToken.getId(), user1.getId());
   }
+
+  @Test
+  public void testResolveScopesReflectsGroupPermissionChanges() {
+    val users = repeatedCallsOf(() -> entityGenerator.generateRandomUser(), 2);
+    val group = entityGenerator.setupGroup("UserServiceTestCachedGroup");
+    entityGenerator.addUsersToGroup(users.stream().collect(toList()), group);
+    val policy = entityGenerator.setupSinglePolicy("UserServiceTestCachedPolicy");
+
+    entityGenerator.setupGroupPermission(group, policy, READ);
+    assertScopes(users, "UserServiceTestCachedPolicy.READ");
+
+    entityGenerator.setupGroupPermission(group, policy, WRITE);
+    assertScopes(users, "UserServiceTestCachedPolicy.WRITE");
+
+    // A direct DENY on the user still wins over the cached group permission
+    val deniedUser = users.get(0);
+    entityGenerator.addPermissions(deniedUser, Set.of(new Scope(policy, DENY)));
+    val scopes = userService.resolveScopes(userService.getWithRelationships(deniedUser.getId()));
+    Assert.assertEquals(
+        Set.of("UserServiceTestCachedPolicy.DENY"), mapToSet(scopes, Scope::toString));
+  }
+
+  private void assertScopes(List<User> users, String expectedScope) {
+    users.forEach(
+        user -> {
+          val scopes = userService.resolveScopes(userService.getWithRelationships(user.getId()));
+          Assert.assertEquals(Set.of(expectedScope), mapToSet(scopes, Scope::toString));
+        });
+  }
 }
@@ -0,0 +1,71 @@
+package bio.overture.ego.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+import lombok.val;
+import org.junit.Test;
+
+public class NgramIndexTest {
+
+  @Test
+  public void search_RankedEqualsPrefixWordPrefixSubstring() {
+    val index = new NgramIndex<Integer>();
+    index.put(1, List.of("Xanna Smith"));
+    index.put(2, List.of("Anna"));
+    index.put(3, List.of("Annabelle"));
+    index.put(4, List.of("Mary Anna"));
+    index.put(5, List.of("Bob"));
+
+    assertEquals(List.of(2, 3, 4, 1), index.search("ANNA", 10));
+    assertEquals(List.of(2, 3), index.search("anna", 2));
+  }
+
+  @Test
+  public void search_MoreMatchesThanLimit_BestKeptInOrder() {
+    val index = new NgramIndex<Integer>();
+    for (int i = 100; i > 0; i--) {
+      index.put(i, List.of(String.format("user%03d@example.com", i)));
+    }
+    index.put(0, List.of("a"));
+
+    assertEquals(List.of(0, 1, 2), index.search("a", 3));
+    assertEquals(List.of(1, 2, 3, 4), index.search("user", 4));
+  }
+
+  @Test
+  public void search_ShortQuery_MatchesAnySubstring() {
+    val index = new NgramIndex<Integer>();
+    index.put(1, List.of("abc"));
+    index.put(2, List.of("xyz"));
+
+    assertEquals(List.of(1), index.search("b", 10));
+    assertEquals(List.of(1), index.search("bc", 10));
+    assertEquals(List.of(), index.search("", 10));
+  }
+
+  @Test
+  public void search_LongQuery_OnlyDocumentsContainingAllOfIt() {
+    val index = new NgramIndex<Integer>();
+    index.put(1, Arrays.asList("first.user@example.com", null, "User"));
+    index.put(2, List.of("user.first@example.com"));
+
+    assertEquals(List.of(1), index.search("first.user", 10));
+    assertEquals(List.of(1, 2), index.search("example.com", 10));
+  }
+
+  @Test
+  public void putAndRemove_IndexFollowsLatestFields() {
+    val index = new NgramIndex<Integer>();
+    index.put(1, List.of("Old Name"));
+    index.put(1, List.of("New Name"));
+
+    assertEquals(List.of(), index.search("old", 10));
+    assertEquals(List.of(1), index.search("new", 10));
+
+    index.remove(1);
+    assertEquals(List.of(), index.search("name", 10));
+    assertEquals(0, index.size());
+  }
+}